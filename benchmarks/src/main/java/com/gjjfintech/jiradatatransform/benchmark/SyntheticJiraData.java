@@ -0,0 +1,247 @@
+package com.gjjfintech.jiradatatransform.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
+import com.gjjfintech.jiradatatransform.config.JiraMappingPropertiesBinder;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates realistic synthetic Jira search results and CSV exports from the shipped mapping YAMLs.
+ *
+ * Mapped attributes get values shaped by their dataType. Each issue also carries the kind of
+ * unmapped payload a real Jira response has (description, status, assignee, a few dozen custom
+ * fields), so that parsing and flattening costs are representative.
+ */
+public class SyntheticJiraData {
+
+    public static final String SOURCE_MAPPING = "classpath:jira-mapping-source.yml";
+    public static final String DESTINATION_MAPPING = "classpath:jira-mapping-destination.yml";
+
+    private static final String[] WORDS = {
+            "payment", "gateway", "migration", "ledger", "reconciliation", "customer", "onboarding",
+            "risk", "report", "API", "latency", "dashboard", "settlement", "audit", "compliance",
+            "refactor", "service", "platform", "release", "integration"
+    };
+    private static final String[] OTHER_LINK_TYPES = {"relates to", "is cloned by", "duplicates"};
+    private static final int NOISE_CUSTOM_FIELDS = 40;
+    private static final int REPEATED_COLUMNS = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random;
+
+    public SyntheticJiraData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static JiraMappingProperties sourceMapping() {
+        return JiraMappingPropertiesBinder.bind(SOURCE_MAPPING);
+    }
+
+    public static JiraMappingProperties destinationMapping() {
+        return JiraMappingPropertiesBinder.bind(DESTINATION_MAPPING);
+    }
+
+    /**
+     * Generates Jira issue JSON objects as they appear in the "issues" array of a search response.
+     */
+    public List<JsonNode> jiraIssues(JiraMappingProperties mapping, int count) {
+        List<JsonNode> issues = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            issues.add(jiraIssue(mapping, i));
+        }
+        return issues;
+    }
+
+    /**
+     * Generates a complete search response page wrapping the given number of issues.
+     */
+    public JsonNode searchPage(JiraMappingProperties mapping, int count) {
+        ObjectNode page = objectMapper.createObjectNode();
+        page.put("startAt", 0);
+        page.put("maxResults", count);
+        page.put("total", count);
+        ArrayNode issues = page.putArray("issues");
+        issues.addAll(jiraIssues(mapping, count));
+        return page;
+    }
+
+    /**
+     * Generates a single Jira issue JSON object.
+     */
+    public JsonNode jiraIssue(JiraMappingProperties mapping, int index) {
+        ObjectNode issue = objectMapper.createObjectNode();
+        issue.put("expand", "operations,versionedRepresentations,editmeta,changelog,renderedFields");
+        issue.put("id", String.valueOf(100000 + index));
+        issue.put("self", "https://jira.example.com/rest/api/2/issue/" + (100000 + index));
+        issue.put("key", "SRC-" + (index + 1));
+        ObjectNode fields = issue.putObject("fields");
+        addNoiseFields(fields);
+
+        for (JiraMappingProperties.FieldMapping fieldMapping : mapping.getJiraFieldMappings().values()) {
+            if (fieldMapping.getIssueLink() != null) {
+                fields.set("issuelinks", issueLinks(fieldMapping.getIssueLink()));
+            } else if (fieldMapping.getIssueAttributeName() != null && !"key".equals(fieldMapping.getIssueAttributeName())) {
+                setPath(issue, fieldMapping.getIssueAttributeName(), fieldMapping.getDataType());
+            }
+        }
+        return issue;
+    }
+
+    /**
+     * Generates CSV export rows using each mapping's issueColumnName, with String[] columns
+     * repeated as Jira does in its exports, plus a number of unmapped columns.
+     */
+    public List<CSVRecord> csvRows(JiraMappingProperties mapping, int count) {
+        List<String> headers = new ArrayList<>();
+        List<String> dataTypes = new ArrayList<>();
+        for (Map.Entry<String, JiraMappingProperties.FieldMapping> entry : mapping.getJiraFieldMappings().entrySet()) {
+            JiraMappingProperties.FieldMapping fieldMapping = entry.getValue();
+            if (fieldMapping.getIssueColumnName() == null) {
+                continue;
+            }
+            String dataType = fieldMapping.getDataType();
+            int repeats = dataType != null && dataType.startsWith("String[]") ? REPEATED_COLUMNS : 1;
+            for (int i = 0; i < repeats; i++) {
+                headers.add(fieldMapping.getIssueColumnName());
+                dataTypes.add(fieldMapping.getIssueLink() != null ? "String[IssueKey]" : dataType);
+            }
+        }
+        for (int i = 0; i < 20; i++) {
+            headers.add("Custom field (Unmapped " + i + ")");
+            dataTypes.add("String");
+        }
+
+        StringWriter out = new StringWriter();
+        try (CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT)) {
+            printer.printRecord(headers);
+            for (int row = 0; row < count; row++) {
+                List<String> values = new ArrayList<>(headers.size());
+                for (int col = 0; col < headers.size(); col++) {
+                    String dataType = dataTypes.get(col);
+                    if (dataType != null && dataType.startsWith("String[]")) {
+                        values.add(random.nextInt(3) == 0 ? "" : label());
+                    } else if ("Issue key".equals(headers.get(col))) {
+                        values.add("DST-" + (row + 1));
+                    } else {
+                        values.add(scalar(dataType));
+                    }
+                }
+                printer.printRecord(values);
+            }
+            List<CSVRecord> records = new ArrayList<>(count);
+            for (CSVRecord record : CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(new StringReader(out.toString()))) {
+                records.add(record);
+            }
+            return records;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to generate CSV rows", e);
+        }
+    }
+
+    private void setPath(ObjectNode root, String dottedPath, String dataType) {
+        String[] segments = dottedPath.split("\\.");
+        ObjectNode node = root;
+        for (int i = 0; i < segments.length - 1; i++) {
+            JsonNode child = node.get(segments[i]);
+            node = child instanceof ObjectNode ? (ObjectNode) child : node.putObject(segments[i]);
+        }
+        String leaf = segments[segments.length - 1];
+        if (dataType != null && dataType.startsWith("String[]")) {
+            ArrayNode labels = node.putArray(leaf);
+            int n = random.nextInt(5);
+            for (int i = 0; i < n; i++) {
+                labels.add(label());
+            }
+        } else {
+            node.put(leaf, scalar(dataType));
+        }
+    }
+
+    private ArrayNode issueLinks(JiraMappingProperties.IssueLinkMapping linkMapping) {
+        ArrayNode links = objectMapper.createArrayNode();
+        int n = random.nextInt(4);
+        for (int i = 0; i < n; i++) {
+            ObjectNode link = links.addObject();
+            link.put("id", String.valueOf(20000 + random.nextInt(10000)));
+            ObjectNode type = link.putObject("type");
+            boolean mapped = random.nextBoolean();
+            String linkType = mapped
+                    ? linkMapping.getLinkTypes().get(random.nextInt(linkMapping.getLinkTypes().size()))
+                    : OTHER_LINK_TYPES[random.nextInt(OTHER_LINK_TYPES.length)];
+            type.put("name", "Dependency");
+            type.put("inward", linkType);
+            type.put("outward", linkType.replace("is ", "").replace(" by", "s").replace(" on", ""));
+            ObjectNode linked = link.putObject(linkMapping.isInward() ? "inwardIssue" : "outwardIssue");
+            linked.put("id", String.valueOf(100000 + random.nextInt(50000)));
+            linked.put("key", "SRC-" + (1 + random.nextInt(50000)));
+            ObjectNode linkedFields = linked.putObject("fields");
+            linkedFields.put("summary", sentence(6));
+            linkedFields.putObject("status").put("name", "In Progress");
+        }
+        return links;
+    }
+
+    private void addNoiseFields(ObjectNode fields) {
+        fields.put("description", sentence(80));
+        fields.putObject("status").put("name", "In Progress").put("id", "3");
+        fields.putObject("issuetype").put("name", "Epic").put("subtask", false);
+        fields.putObject("assignee").put("displayName", "Jane Doe").put("active", true)
+                .put("emailAddress", "jane.doe@example.com");
+        fields.putObject("priority").put("name", "Medium").put("id", "3");
+        fields.put("created", "2025-01-07T10:15:30.000+0000");
+        fields.put("updated", "2025-03-14T16:42:05.000+0000");
+        ArrayNode components = fields.putArray("components");
+        components.addObject().put("name", "Core");
+        for (int i = 0; i < NOISE_CUSTOM_FIELDS; i++) {
+            String name = "customfield_" + (11000 + i);
+            switch (i % 4) {
+                case 0 -> fields.putNull(name);
+                case 1 -> fields.put(name, sentence(4));
+                case 2 -> fields.put(name, random.nextInt(100));
+                default -> fields.putObject(name).put("value", WORDS[random.nextInt(WORDS.length)]).put("id", i);
+            }
+        }
+    }
+
+    private String scalar(String dataType) {
+        if (dataType == null) {
+            return sentence(3);
+        } else if (dataType.startsWith("DateAsString")) {
+            return LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365)).toString();
+        } else if (dataType.startsWith("String[IssueKey]")) {
+            return "SRC-" + (1 + random.nextInt(50000));
+        } else if (dataType.startsWith("String[LinkingId]")) {
+            return random.nextInt(4) == 0 ? "[DST]" : "DST-" + (1 + random.nextInt(50000));
+        }
+        return sentence(8);
+    }
+
+    private String label() {
+        return WORDS[random.nextInt(WORDS.length)] + "-" + random.nextInt(20);
+    }
+
+    private String sentence(int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
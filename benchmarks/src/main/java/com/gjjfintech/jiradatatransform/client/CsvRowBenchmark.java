@@ -0,0 +1,52 @@
+package com.gjjfintech.jiradatatransform.client;
+
+import com.gjjfintech.jiradatatransform.benchmark.SyntheticJiraData;
+import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link JiraCsvClient#convertCsvRow} and {@link JiraCsvClient#processStringValue}
+ * over synthetic export rows generated from the source mapping (the one that defines CSV column names).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CsvRowBenchmark {
+
+    private static final int ROW_COUNT = 1024;
+
+    private JiraCsvClient jiraCsvClient;
+    private JiraMappingProperties mapping;
+    private List<CSVRecord> rows;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        mapping = SyntheticJiraData.sourceMapping();
+        rows = new SyntheticJiraData(42).csvRows(mapping, ROW_COUNT);
+        jiraCsvClient = new JiraCsvClient();
+    }
+
+    @Benchmark
+    public Map<String, Object> convertCsvRow() {
+        return jiraCsvClient.convertCsvRow(rows.get(next++ & (ROW_COUNT - 1)), mapping);
+    }
+
+    @Benchmark
+    public String processStringValueDate() {
+        return jiraCsvClient.processStringValue("2025-03-14", "DateAsString[yyyy-mm-dd]");
+    }
+
+    @Benchmark
+    public String processStringValueString() {
+        return jiraCsvClient.processStringValue("payment gateway migration", "String");
+    }
+}
@@ -0,0 +1,44 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gjjfintech.jiradatatransform.benchmark.SyntheticJiraData;
+import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link JiraIssueService#flattenIssue} over synthetic search results
+ * generated from the source mapping.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FlattenIssueBenchmark {
+
+    private static final int ISSUE_COUNT = 1024;
+
+    private JiraIssueService jiraIssueService;
+    private JiraMappingProperties mapping;
+    private List<JsonNode> issues;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        mapping = SyntheticJiraData.sourceMapping();
+        issues = new SyntheticJiraData(42).jiraIssues(mapping, ISSUE_COUNT);
+        jiraIssueService = new JiraIssueService(null, mapping, null, null, new ObjectMapper(), null);
+    }
+
+    @Benchmark
+    public Map<String, Object> flattenIssue() {
+        JsonNode issue = issues.get(next++ & (ISSUE_COUNT - 1));
+        return jiraIssueService.flattenIssue(issue, mapping);
+    }
+}
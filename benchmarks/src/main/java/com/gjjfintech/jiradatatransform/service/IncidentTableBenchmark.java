@@ -0,0 +1,89 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.model.ServiceNowIncident;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the incident report table, comparing per-cell reflection (as ReportingService used to,
+ * with and without HTML escaping) with the precompiled {@link HtmlTableRenderer}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IncidentTableBenchmark {
+
+    @Param({"100", "5000"})
+    private int incidents;
+
+    private List<ServiceNowIncident> rows;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(incidents);
+        for (int i = 0; i < incidents; i++) {
+            ServiceNowIncident incident = new ServiceNowIncident();
+            incident.setSys_id(Integer.toHexString(0x10000000 + i * 7919));
+            incident.setNumber("INC" + (1000000 + i));
+            // One in ten descriptions contains characters that need escaping.
+            incident.setShort_description(i % 10 == 0
+                    ? "Payment gateway latency > 2s for customer <" + i + "> & retries"
+                    : "Payment gateway latency above 2s for customer " + i + " with retries");
+            incident.setCaller_id("caller-" + (i % 50));
+            incident.setState(String.valueOf(1 + i % 7));
+            rows.add(incident);
+        }
+    }
+
+    @Benchmark
+    public String reflection() throws IllegalAccessException {
+        return renderReflectively(false);
+    }
+
+    @Benchmark
+    public String reflectionEscaped() throws IllegalAccessException {
+        return renderReflectively(true);
+    }
+
+    private String renderReflectively(boolean escape) throws IllegalAccessException {
+        StringBuilder htmlBuilder = new StringBuilder();
+        htmlBuilder.append("<table border='1' style='border-collapse: collapse;'>");
+        Field[] fields = ServiceNowIncident.class.getDeclaredFields();
+        for (Field field : fields) {
+            field.setAccessible(true);
+        }
+        htmlBuilder.append("<tr>");
+        for (Field field : fields) {
+            htmlBuilder.append("<th>").append(ReportingService.standardiseColumnName(field.getName())).append("</th>");
+        }
+        htmlBuilder.append("</tr>");
+        for (ServiceNowIncident incident : rows) {
+            htmlBuilder.append("<tr>");
+            for (Field field : fields) {
+                Object value = field.get(incident);
+                htmlBuilder.append("<td>");
+                if (escape && value != null) {
+                    HtmlTableRenderer.appendEscaped(htmlBuilder, value.toString());
+                } else {
+                    htmlBuilder.append(value != null ? value.toString() : "");
+                }
+                htmlBuilder.append("</td>");
+            }
+            htmlBuilder.append("</tr>");
+        }
+        htmlBuilder.append("</table>");
+        return htmlBuilder.toString();
+    }
+
+    @Benchmark
+    public String compiledAccessors() {
+        return HtmlTableRenderer.forClass(ServiceNowIncident.class).render(rows);
+    }
+}
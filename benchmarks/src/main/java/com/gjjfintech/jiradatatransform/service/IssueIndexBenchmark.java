@@ -0,0 +1,84 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filters flattened issues by issue type, status and label, comparing a linear scan over the
+ * issue maps with an {@link IssueIndex} posting-list intersection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IssueIndexBenchmark {
+
+    private static final String[] TYPES = {"Epic", "Story", "Task", "Bug", "Feature"};
+    private static final String[] STATUSES = {"To Do", "In Progress", "In Review", "Done", "Closed", "Blocked"};
+
+    @Param({"100000"})
+    private int issues;
+
+    private List<Map<String, Object>> rows;
+    private IssueIndex index;
+    private Map<String, List<String>> filters;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        rows = new ArrayList<>(issues);
+        for (int i = 0; i < issues; i++) {
+            Map<String, Object> issue = new HashMap<>();
+            issue.put("issueKey", "ABC-" + i);
+            issue.put("issueType", TYPES[random.nextInt(TYPES.length)]);
+            issue.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+            List<String> labels = new ArrayList<>();
+            for (int l = random.nextInt(3); l > 0; l--) {
+                labels.add("label-" + random.nextInt(200));
+            }
+            issue.put("labels", labels);
+            issue.put("parentLink", "ABC-F" + random.nextInt(2000));
+            rows.add(issue);
+        }
+        index = IssueIndex.build(rows, List.of("issueType", "status", "labels", "parentLink"));
+        filters = new LinkedHashMap<>();
+        filters.put("issueType", List.of("Epic"));
+        filters.put("status", List.of("Done", "Closed"));
+        filters.put("labels", List.of("label-7"));
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int matches = 0;
+        for (Map<String, Object> issue : rows) {
+            if ("Epic".equalsIgnoreCase((String) issue.get("issueType"))
+                    && ("Done".equalsIgnoreCase((String) issue.get("status")) || "Closed".equalsIgnoreCase((String) issue.get("status")))
+                    && ((List<?>) issue.get("labels")).contains("label-7")) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int indexed() {
+        return index.query(filters).cardinality();
+    }
+
+    @Benchmark
+    public int indexedDense() {
+        Map<String, List<String>> dense = new LinkedHashMap<>();
+        dense.put("issueType", List.of("Epic", "Story"));
+        dense.put("status", List.of("Done"));
+        return index.query(dense).cardinality();
+    }
+}
@@ -0,0 +1,106 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walks the hierarchy and blocker links of flattened issues, comparing a breadth-first search
+ * over the issue maps with the same walk over an {@link IssueLinkGraph}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IssueLinkGraphBenchmark {
+
+    @Param({"100000"})
+    private int issues;
+
+    private Map<String, Map<String, Object>> rows;
+    private Map<String, List<String>> childrenByKey;
+    private IssueLinkGraph graph;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        rows = new HashMap<>();
+        childrenByKey = new HashMap<>();
+        // A wide hierarchy under ABC-0, and blockers pointing at older issues.
+        for (int i = 0; i < issues; i++) {
+            Map<String, Object> issue = new HashMap<>();
+            String key = "ABC-" + i;
+            issue.put("issueKey", key);
+            if (i > 0) {
+                String parent = "ABC-" + random.nextInt(Math.min(i, 5000));
+                issue.put("parentLink", parent);
+                childrenByKey.computeIfAbsent(parent, k -> new ArrayList<>()).add(key);
+                List<String> blockers = new ArrayList<>();
+                for (int b = 1 + random.nextInt(2); b > 0; b--) {
+                    blockers.add("ABC-" + random.nextInt(i));
+                }
+                issue.put("blockingIssues", blockers);
+            }
+            rows.put(key, issue);
+        }
+        graph = IssueLinkGraph.build(rows.values(), "parentLink", List.of("blockingIssues"));
+    }
+
+    @Benchmark
+    public int descendantsOverMaps() {
+        Set<String> seen = new HashSet<>();
+        ArrayDeque<String> queue = new ArrayDeque<>(List.of("ABC-0"));
+        while (!queue.isEmpty()) {
+            for (String child : childrenByKey.getOrDefault(queue.poll(), List.of())) {
+                if (seen.add(child)) {
+                    queue.add(child);
+                }
+            }
+        }
+        return seen.size();
+    }
+
+    @Benchmark
+    public int descendants() {
+        return graph.descendants("ABC-0").size();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Benchmark
+    public int blockersOverMaps() {
+        Set<String> seen = new HashSet<>();
+        ArrayDeque<String> queue = new ArrayDeque<>(List.of("ABC-" + (issues - 1)));
+        while (!queue.isEmpty()) {
+            Map<String, Object> issue = rows.get(queue.poll());
+            Object blockers = issue != null ? issue.get("blockingIssues") : null;
+            if (blockers != null) {
+                for (String blocker : (List<String>) blockers) {
+                    if (seen.add(blocker)) {
+                        queue.add(blocker);
+                    }
+                }
+            }
+        }
+        return seen.size();
+    }
+
+    @Benchmark
+    public int blockers() {
+        return graph.blockers("ABC-" + (issues - 1)).size();
+    }
+
+    @Benchmark
+    public int blockerCycles() {
+        return graph.blockerCycles().size();
+    }
+}
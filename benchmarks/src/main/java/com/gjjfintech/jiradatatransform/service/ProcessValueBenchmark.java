@@ -0,0 +1,39 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link JiraIssueService#processValue} for each dataType used by the shipped mappings.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProcessValueBenchmark {
+
+    @Param({"String", "String[IssueKey]", "String[LinkingId]", "DateAsString[yyyy-mm-dd]"})
+    public String dataType;
+
+    private JiraIssueService jiraIssueService;
+    private JsonNode value;
+
+    @Setup
+    public void setUp() {
+        jiraIssueService = new JiraIssueService(null, null, null, null, new ObjectMapper(), null);
+        value = dataType.startsWith("DateAsString")
+                ? TextNode.valueOf("2025-03-14")
+                : TextNode.valueOf(dataType.startsWith("String[") ? "SRC-12345" : "payment gateway migration");
+    }
+
+    @Benchmark
+    public String processValue() {
+        return jiraIssueService.processValue(value, dataType);
+    }
+}
@@ -0,0 +1,73 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gjjfintech.jiradatatransform.benchmark.SyntheticJiraData;
+import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one raw search response page into flattened issues: parsing the page into a
+ * JSON tree and running {@link JiraIssueService#flattenIssue} versus streaming it through
+ * {@link StreamingIssueFlattener}. Run with -prof gc to compare garbage per page.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchPageFlattenBenchmark {
+
+    @Param({"50", "100"})
+    public int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JiraIssueService jiraIssueService;
+    private StreamingIssueFlattener streamingFlattener;
+    private JiraMappingProperties mapping;
+    private byte[] page;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapping = SyntheticJiraData.sourceMapping();
+        page = objectMapper.writeValueAsBytes(new SyntheticJiraData(42).searchPage(mapping, pageSize));
+        jiraIssueService = new JiraIssueService(null, mapping, null, null, objectMapper, null);
+        streamingFlattener = new StreamingIssueFlattener(mapping);
+    }
+
+    @Benchmark
+    public void treeFlatten(Blackhole blackhole) throws IOException {
+        JsonNode result = objectMapper.readTree(new ByteArrayInputStream(page));
+        for (JsonNode issue : result.get("issues")) {
+            blackhole.consume(jiraIssueService.flattenIssue(issue, mapping));
+        }
+    }
+
+    @Benchmark
+    public void streamingFlatten(Blackhole blackhole) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(new ByteArrayInputStream(page))) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("issues".equals(name) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        Map.Entry<String, Map<String, Object>> issue = streamingFlattener.flatten(parser);
+                        blackhole.consume(issue);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+}
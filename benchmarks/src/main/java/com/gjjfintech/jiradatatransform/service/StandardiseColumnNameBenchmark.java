@@ -0,0 +1,39 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.model.ServiceNowIncident;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ReportingService#standardiseColumnName} over the incident table headers.
+ * One operation standardises every declared field name of {@link ServiceNowIncident}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StandardiseColumnNameBenchmark {
+
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        Field[] fields = ServiceNowIncident.class.getDeclaredFields();
+        names = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            names[i] = fields[i].getName();
+        }
+    }
+
+    @Benchmark
+    public void standardiseColumnName(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(ReportingService.standardiseColumnName(name));
+        }
+    }
+}
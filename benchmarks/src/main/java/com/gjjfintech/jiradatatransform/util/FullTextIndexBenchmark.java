@@ -0,0 +1,79 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead queries over issue summaries, comparing a scan of every summary with a
+ * {@link FullTextIndex} search.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FullTextIndexBenchmark {
+
+    @Param({"100000"})
+    private int issues;
+
+    private List<String> summaries;
+    private FullTextIndex index;
+
+    @Setup
+    public void setUp() {
+        // A Zipf-like vocabulary: a few common words and a long tail.
+        Random random = new Random(42);
+        String[] vocabulary = new String[5000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = Integer.toString(i * 7919, 36) + (i % 3 == 0 ? "ment" : i % 3 == 1 ? "ing" : "er");
+        }
+        vocabulary[0] = "payment";
+        vocabulary[1] = "migration";
+        vocabulary[2] = "gateway";
+        summaries = new ArrayList<>(issues);
+        index = new FullTextIndex();
+        for (int i = 0; i < issues; i++) {
+            StringBuilder summary = new StringBuilder();
+            for (int w = 4 + random.nextInt(8); w > 0; w--) {
+                int word = (int) Math.min(vocabulary.length - 1, Math.abs(random.nextGaussian()) * 600);
+                summary.append(vocabulary[word]).append(' ');
+            }
+            summaries.add(summary.toString());
+            index.put("ABC-" + i, summary.toString(), List.of(summary.toString()));
+        }
+    }
+
+    @Benchmark
+    public int scan() {
+        int matches = 0;
+        for (String summary : summaries) {
+            String lower = summary.toLowerCase(Locale.ROOT);
+            if (lower.contains("payment ") && lower.contains(" gat")) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int twoWordsPrefix() {
+        return index.search("payment gat", 20).size();
+    }
+
+    @Benchmark
+    public int oneLetterPrefix() {
+        return index.search("m", 20).size();
+    }
+
+    @Benchmark
+    public int exactWords() {
+        return index.search("migration gateway ", 20).size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import com.gjjfintech.jiradatatransform.benchmark.SyntheticJiraData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link StringUtils#toCamelCase} over the display names of both shipped mappings.
+ * One operation converts every display name once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StringUtilsBenchmark {
+
+    private String[] displayNames;
+
+    @Setup
+    public void setUp() {
+        List<String> names = new ArrayList<>(SyntheticJiraData.sourceMapping().getJiraFieldMappings().keySet());
+        names.addAll(SyntheticJiraData.destinationMapping().getJiraFieldMappings().keySet());
+        displayNames = names.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public void toCamelCase(Blackhole blackhole) {
+        for (String displayName : displayNames) {
+            blackhole.consume(StringUtils.toCamelCase(displayName));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.gjjfintech.jiradatatransform;
+
+import com.gjjfintech.jiradatatransform.service.JiraIssueService;
+import com.gjjfintech.jiradatatransform.service.SyncJournalService;
+import com.gjjfintech.jiradatatransform.util.SyncJournal;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Headless entry point that runs one sync and exits, for cron jobs that do not need the web
+ * server. Starts the application context without Tomcat under the "batch" profile, which also
+ * creates beans lazily, so only the Jira clients and services the sync uses are initialized.
+ *
+ * Usage: {@code --jql=<query> | --file=<name> | --latest-file} with an optional
+ * {@code --job-id=<id>}; other {@code --name=value} arguments override configuration properties.
+ * Exits with 0 when the sync completes, 1 when it fails or another run of the same job is
+ * in progress, and 2 for invalid arguments.
+ *
+ * For the fastest cold start, build with {@code mvn -Paot package} and run the extracted jar
+ * with a CDS archive:
+ * <pre>
+ * java -Djarmode=tools -jar app.jar extract --destination app
+ * java -XX:ArchiveClassesAtExit=app/app.jsa -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+ *      -cp app/app.jar com.gjjfintech.jiradatatransform.JiraSyncBatchApplication --jql=training
+ * java -XX:SharedArchiveFile=app/app.jsa -Dspring.aot.enabled=true \
+ *      -cp app/app.jar com.gjjfintech.jiradatatransform.JiraSyncBatchApplication --jql="project = ABC"
+ * </pre>
+ * The training run stops once the context is refreshed, before any sync starts.
+ */
+public class JiraSyncBatchApplication {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+
+    private static final String USAGE =
+            "Usage: (--jql=<query> | --file=<name> | --latest-file) [--job-id=<id>] [--<property>=<value>...]";
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        ApplicationArguments arguments = new DefaultApplicationArguments(args);
+        String jql = option(arguments, "jql");
+        String filename = option(arguments, "file");
+        boolean latestFile = arguments.containsOption("latest-file");
+        int sources = (jql != null ? 1 : 0) + (filename != null ? 1 : 0) + (latestFile ? 1 : 0);
+        if (sources != 1 || !arguments.getNonOptionArgs().isEmpty()) {
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        String explicitJobId = option(arguments, "job-id");
+
+        SpringApplication application = new SpringApplication(JiraDataTransformApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setAdditionalProfiles("batch");
+        ConfigurableApplicationContext context;
+        try {
+            context = application.run(args);
+        } catch (SpringApplication.AbandonedRunException e) {
+            // Thrown on purpose when the build runs the application for AOT processing.
+            throw e;
+        } catch (RuntimeException e) {
+            // Spring Boot has already reported why the context failed to start.
+            return EXIT_FAILED;
+        }
+
+        String jobId = explicitJobId;
+        try (context) {
+            JiraIssueService jiraIssueService = context.getBean(JiraIssueService.class);
+            Collection<Map<String, Object>> sourceIssues;
+            if (jql != null) {
+                jobId = jobId != null ? jobId : SyncJournalService.deriveJobId(jql, null);
+                sourceIssues = jiraIssueService.getIssuesByJql(jql, true);
+            } else {
+                // Resolve the file once, so the job id and the sync refer to the same export.
+                Path file = Paths.get(jiraIssueService.resolveDataFile(true, latestFile, filename));
+                jobId = jobId != null ? jobId : SyncJournalService.deriveJobId(null, file);
+                sourceIssues = jiraIssueService.getIssuesByFile(true, false, file.getFileName().toString());
+            }
+            try {
+                jiraIssueService.synchronizeIssuesToDestination(sourceIssues, jobId);
+            } finally {
+                jiraIssueService.releaseIssues(sourceIssues);
+            }
+            System.out.println("Synced " + sourceIssues.size() + " issues (job " + jobId + ")");
+            return EXIT_OK;
+        } catch (SyncJournal.LockedException e) {
+            System.err.println("Sync not started (job " + jobId + "): another run of the job is in progress");
+            return EXIT_FAILED;
+        } catch (RuntimeException e) {
+            System.err.println("Sync failed (job " + jobId + "): " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+
+    private static String option(ApplicationArguments arguments, String name) {
+        List<String> values = arguments.getOptionValues(name);
+        if (values == null || values.isEmpty() || values.get(values.size() - 1).isBlank()) {
+            return null;
+        }
+        return values.get(values.size() - 1).trim();
+    }
+}
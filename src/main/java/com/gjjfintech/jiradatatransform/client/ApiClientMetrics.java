@@ -0,0 +1,204 @@
+package com.gjjfintech.jiradatatransform.client;
+
+import com.gjjfintech.jiradatatransform.util.TransformEvents;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records latency, status, payload size and paging metrics for an outbound API client.
+ *
+ * All meters share the tags "client" (jira, servicenow, confluence) and "instance"
+ * (source, destination, or default for single-instance clients). Request timers are
+ * additionally tagged by operation and HTTP status code and publish percentile histograms.
+ * Each request is also emitted as a {@link TransformEvents.ApiRequest} flight recorder event.
+ */
+public class ApiClientMetrics {
+
+    public static final String REQUESTS = "api.client.requests";
+    public static final String BYTES_RECEIVED = "api.client.bytes.received";
+    public static final String PAGES = "api.client.pages";
+
+    private final MeterRegistry registry;
+    private final String client;
+    private final String instance;
+
+    public ApiClientMetrics(MeterRegistry registry, String client, String instance) {
+        this.registry = registry;
+        this.client = client;
+        this.instance = instance;
+    }
+
+    /**
+     * Returns metrics backed by an empty registry, for clients created without instrumentation.
+     */
+    public static ApiClientMetrics noop(String client) {
+        return new ApiClientMetrics(new CompositeMeterRegistry(), client, "default");
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Times an HTTP call, tagging it with the operation and resulting status code.
+     * Error responses are recorded with their status before the exception is rethrown.
+     */
+    public <T> T record(String operation, Supplier<Outcome<T>> call) {
+        TransformEvents.ApiRequest event = new TransformEvents.ApiRequest();
+        event.begin();
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        long bytes = 0;
+        try {
+            Outcome<T> outcome = call.get();
+            status = outcome.status;
+            bytes = outcome.bytesRead;
+            return outcome.value;
+        } catch (RestClientResponseException e) {
+            status = String.valueOf(e.getStatusCode().value());
+            throw e;
+        } finally {
+            requestTimer(operation, status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.client = client;
+                event.instance = instance;
+                event.operation = operation;
+                event.status = status;
+                event.bytesReceived = bytes;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Wraps a response extractor so the bytes it reads from the response body are counted and
+     * the response status is carried back to {@link #record}. The body is counted as it streams
+     * through; nothing is buffered.
+     */
+    public <T> ResponseExtractor<Outcome<T>> counting(String operation, ResponseExtractor<T> extractor) {
+        return response -> {
+            CountingResponse counting = new CountingResponse(response);
+            try {
+                T value = extractor.extractData(counting);
+                Outcome<T> outcome = new Outcome<>(value, response.getStatusCode().value());
+                outcome.bytesRead = counting.bytesRead;
+                return outcome;
+            } finally {
+                bytesReceived(operation, counting.bytesRead);
+            }
+        };
+    }
+
+    public void pageFetched(String operation) {
+        counter(PAGES, operation).increment();
+    }
+
+    public void bytesReceived(String operation, long bytes) {
+        if (bytes > 0) {
+            counter(BYTES_RECEIVED, operation).increment(bytes);
+        }
+    }
+
+    private Timer requestTimer(String operation, String status) {
+        return Timer.builder(REQUESTS)
+                .description("Outbound API request latency")
+                .tag("client", client)
+                .tag("instance", instance)
+                .tag("operation", operation)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("client", client)
+                .tag("instance", instance)
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    /**
+     * The result of a recorded call together with the status code to tag it with.
+     */
+    public static class Outcome<T> {
+        private final T value;
+        private final String status;
+        private long bytesRead;
+
+        public Outcome(T value, int status) {
+            this.value = value;
+            this.status = String.valueOf(status);
+        }
+    }
+
+    private static class CountingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private InputStream body;
+        private long bytesRead;
+
+        private CountingResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(delegate.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = super.read();
+                        if (b >= 0) {
+                            bytesRead++;
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int n = super.read(buffer, offset, length);
+                        if (n > 0) {
+                            bytesRead += n;
+                        }
+                        return n;
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
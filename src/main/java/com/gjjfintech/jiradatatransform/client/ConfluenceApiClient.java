@@ -1,29 +1,75 @@
 package com.gjjfintech.jiradatatransform.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.gjjfintech.jiradatatransform.model.CreateConfluencePageRequestBody;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
 public class ConfluenceApiClient {
 
+    // Page property holding the hash of the storage body last published by publishPage.
+    public static final String CONTENT_HASH_PROPERTY = "report-content-hash";
+
+    private static final int CHILD_PAGE_LIMIT = 100;
+
+    /**
+     * What {@link #publishPage} did.
+     */
+    public enum PublishOutcome { CREATED, UPDATED, UNCHANGED }
+
+    /**
+     * The result of {@link #publishPage}: the page's id and what was done to it.
+     */
+    public static class PublishResult {
+        private final String pageId;
+        private final PublishOutcome outcome;
+
+        public PublishResult(String pageId, PublishOutcome outcome) {
+            this.pageId = pageId;
+            this.outcome = outcome;
+        }
+
+        public String getPageId() {
+            return pageId;
+        }
+
+        public PublishOutcome getOutcome() {
+            return outcome;
+        }
+    }
+
     private final RestTemplate restTemplate;
     private final String instanceUrl;
     private final String username;
     private final String apiToken;
+    private final ApiClientMetrics metrics;
 
     public ConfluenceApiClient(RestTemplateBuilder restTemplateBuilder,
+                               MeterRegistry meterRegistry,
                                @Value("${confluence.instanceUrl}") String instanceUrl,
                                @Value("${confluence.username}") String username,
                                @Value("${confluence.apiToken}") String apiToken) {
         this.instanceUrl = instanceUrl;
         this.username = username;
         this.apiToken = apiToken;
+        this.metrics = new ApiClientMetrics(meterRegistry, "confluence", "default");
         this.restTemplate = restTemplateBuilder.build();
     }
 
@@ -45,6 +91,160 @@ public class ConfluenceApiClient {
     public ResponseEntity<String> createPage(CreateConfluencePageRequestBody createPageDTO) {
         String url = instanceUrl + "/wiki/rest/api/content";
         HttpEntity<CreateConfluencePageRequestBody> request = new HttpEntity<>(createPageDTO, createHeaders());
-        return restTemplate.exchange(url, HttpMethod.POST, request, String.class);
+        // The request DTO is serialized straight into the request stream by the JSON converter.
+        return metrics.record("createPage", () -> restTemplate.execute(url, HttpMethod.POST,
+                restTemplate.httpEntityCallback(request, String.class),
+                metrics.counting("createPage", restTemplate.<String>responseEntityExtractor(String.class))));
+    }
+
+    /**
+     * Creates the page, or updates the existing page with the same title in the same space.
+     *
+     * The SHA-256 of the storage body is kept in the page's {@value #CONTENT_HASH_PROPERTY}
+     * property. An existing page whose stored hash matches the new body is left untouched, so
+     * republishing an unchanged report costs a single GET. Otherwise a new page version is PUT
+     * and the stored hash updated.
+     *
+     * @param page the page to publish; its title and space key identify the existing page.
+     * @return the page id and whether it was created, updated or left unchanged.
+     */
+    public PublishResult publishPage(CreateConfluencePageRequestBody page) {
+        String contentHash = sha256(page.getBody().getStorage().getValue());
+        JsonNode existing = findPage(page.getSpace().getKey(), page.getTitle());
+
+        if (existing == null) {
+            JsonNode created = sendPage("createPage", instanceUrl + "/wiki/rest/api/content", HttpMethod.POST, page);
+            String pageId = created.path("id").asText();
+            setContentHash(pageId, contentHash, null);
+            return new PublishResult(pageId, PublishOutcome.CREATED);
+        }
+
+        String pageId = existing.path("id").asText();
+        JsonNode hashProperty = existing.path("metadata").path("properties").path(CONTENT_HASH_PROPERTY);
+        if (contentHash.equals(hashProperty.path("value").path("sha256").asText(null))) {
+            return new PublishResult(pageId, PublishOutcome.UNCHANGED);
+        }
+
+        CreateConfluencePageRequestBody update = new CreateConfluencePageRequestBody(page.getType(), page.getTitle(),
+                page.getAncestors(), page.getSpace(), page.getBody());
+        update.setVersion(new CreateConfluencePageRequestBody.Version(existing.path("version").path("number").asInt() + 1));
+        sendPage("updatePage", instanceUrl + "/wiki/rest/api/content/" + pageId, HttpMethod.PUT, update);
+        setContentHash(pageId, contentHash,
+                hashProperty.isMissingNode() ? null : hashProperty.path("version").path("number").asInt());
+        return new PublishResult(pageId, PublishOutcome.UPDATED);
+    }
+
+    /**
+     * Returns the id of the page with the same title in the same space, creating the page from
+     * the given content if there is none. An existing page is not modified.
+     */
+    public String ensurePage(CreateConfluencePageRequestBody page) {
+        JsonNode existing = findPage(page.getSpace().getKey(), page.getTitle());
+        if (existing != null) {
+            return existing.path("id").asText();
+        }
+        JsonNode created = sendPage("createPage", instanceUrl + "/wiki/rest/api/content", HttpMethod.POST, page);
+        String pageId = created.path("id").asText();
+        setContentHash(pageId, sha256(page.getBody().getStorage().getValue()), null);
+        return pageId;
+    }
+
+    /**
+     * Returns the titles of a page's direct child pages, keyed by child page id.
+     */
+    public Map<String, String> getChildPages(String pageId) {
+        Map<String, String> children = new LinkedHashMap<>();
+        HttpEntity<Void> request = new HttpEntity<>(createHeaders());
+        int start = 0;
+        while (true) {
+            String url = instanceUrl + "/wiki/rest/api/content/" + pageId + "/child/page?limit=" + CHILD_PAGE_LIMIT
+                    + "&start=" + start;
+            ResponseEntity<JsonNode> response = metrics.record("getChildPages", () -> restTemplate.execute(url,
+                    HttpMethod.GET, restTemplate.httpEntityCallback(request, JsonNode.class),
+                    metrics.counting("getChildPages", restTemplate.<JsonNode>responseEntityExtractor(JsonNode.class))));
+            JsonNode results = response.getBody() != null ? response.getBody().path("results") : null;
+            if (results == null || results.size() == 0) {
+                return children;
+            }
+            for (JsonNode child : results) {
+                children.put(child.path("id").asText(), child.path("title").asText());
+            }
+            if (results.size() < CHILD_PAGE_LIMIT) {
+                return children;
+            }
+            start += results.size();
+        }
+    }
+
+    /**
+     * Deletes (trashes) a page.
+     */
+    public void deletePage(String pageId) {
+        String url = instanceUrl + "/wiki/rest/api/content/" + pageId;
+        HttpEntity<Void> request = new HttpEntity<>(createHeaders());
+        metrics.record("deletePage", () -> restTemplate.execute(url, HttpMethod.DELETE,
+                restTemplate.httpEntityCallback(request, String.class),
+                metrics.counting("deletePage", restTemplate.<String>responseEntityExtractor(String.class))));
+    }
+
+    /**
+     * Looks up a page by space and title, expanding its version and content hash property.
+     *
+     * @return the page's content JSON, or null if there is no such page.
+     */
+    private JsonNode findPage(String spaceKey, String title) {
+        URI url = UriComponentsBuilder.fromUriString(instanceUrl + "/wiki/rest/api/content")
+                .queryParam("type", "page")
+                .queryParam("spaceKey", "{spaceKey}")
+                .queryParam("title", "{title}")
+                .queryParam("expand", "version,metadata.properties." + CONTENT_HASH_PROPERTY)
+                .encode()
+                .buildAndExpand(spaceKey, title)
+                .toUri();
+        HttpEntity<Void> request = new HttpEntity<>(createHeaders());
+        ResponseEntity<JsonNode> response = metrics.record("findPage", () -> restTemplate.execute(url, HttpMethod.GET,
+                restTemplate.httpEntityCallback(request, JsonNode.class),
+                metrics.counting("findPage", restTemplate.<JsonNode>responseEntityExtractor(JsonNode.class))));
+        JsonNode results = response.getBody() != null ? response.getBody().path("results") : null;
+        return results != null && results.size() > 0 ? results.get(0) : null;
+    }
+
+    private JsonNode sendPage(String operation, String url, HttpMethod method, CreateConfluencePageRequestBody page) {
+        HttpEntity<CreateConfluencePageRequestBody> request = new HttpEntity<>(page, createHeaders());
+        ResponseEntity<JsonNode> response = metrics.record(operation, () -> restTemplate.execute(url, method,
+                restTemplate.httpEntityCallback(request, JsonNode.class),
+                metrics.counting(operation, restTemplate.<JsonNode>responseEntityExtractor(JsonNode.class))));
+        return response.getBody();
+    }
+
+    /**
+     * Creates the content hash property, or updates it if it exists at the given version.
+     */
+    private void setContentHash(String pageId, String contentHash, Integer currentVersion) {
+        ObjectNode property = JsonNodeFactory.instance.objectNode();
+        property.put("key", CONTENT_HASH_PROPERTY);
+        property.putObject("value").put("sha256", contentHash);
+        String url = instanceUrl + "/wiki/rest/api/content/" + pageId + "/property";
+        HttpMethod method = HttpMethod.POST;
+        if (currentVersion != null) {
+            property.putObject("version").put("number", currentVersion + 1);
+            url += "/" + CONTENT_HASH_PROPERTY;
+            method = HttpMethod.PUT;
+        }
+        HttpEntity<JsonNode> request = new HttpEntity<>(property, createHeaders());
+        String propertyUrl = url;
+        HttpMethod propertyMethod = method;
+        metrics.record("setPageProperty", () -> restTemplate.execute(propertyUrl, propertyMethod,
+                restTemplate.httpEntityCallback(request, String.class),
+                metrics.counting("setPageProperty", restTemplate.<String>responseEntityExtractor(String.class))));
+    }
+
+    private static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
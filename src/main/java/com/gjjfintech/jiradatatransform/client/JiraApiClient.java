@@ -1,20 +1,41 @@
 package com.gjjfintech.jiradatatransform.client;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gjjfintech.jiradatatransform.util.TransformEvents;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 
 public class JiraApiClient {
 
+    /**
+     * Reads a single issue object from a streaming parser positioned on its START_OBJECT.
+     * Implementations must consume the object up to and including its END_OBJECT.
+     */
+    public interface IssueReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
 
@@ -23,6 +44,8 @@ public class JiraApiClient {
     private String authToken;
     private String bearerToken;
 
+    private ApiClientMetrics metrics = ApiClientMetrics.noop("jira");
+
     public JiraApiClient() {
         this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
@@ -43,6 +66,79 @@ public class JiraApiClient {
         return headers;
     }
 
+    /**
+     * Executes a timed request whose response body is consumed directly from the response stream.
+     */
+    private <T> T execute(String operation, String url, HttpMethod method, RequestCallback requestCallback,
+                          ResponseExtractor<T> extractor) {
+        return metrics.record(operation, () ->
+                restTemplate.execute(url, method, requestCallback, metrics.counting(operation, extractor)));
+    }
+
+    private RequestCallback acceptJson() {
+        return request -> {
+            request.getHeaders().putAll(createHeaders());
+            request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        };
+    }
+
+    /**
+     * Returns a callback that serializes the payload straight into the request body stream.
+     * Jackson writes through its own recycled buffers, so no intermediate String or byte[] is built.
+     */
+    private RequestCallback jsonBody(JsonNode payload) {
+        return request -> {
+            acceptJson().doWithRequest(request);
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (request instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody(new StreamingHttpOutputMessage.Body() {
+                    @Override
+                    public void writeTo(OutputStream out) throws IOException {
+                        writeJson(out, payload);
+                    }
+
+                    @Override
+                    public boolean repeatable() {
+                        return true;
+                    }
+                });
+            } else {
+                writeJson(request.getBody(), payload);
+            }
+        };
+    }
+
+    private void writeJson(OutputStream out, JsonNode payload) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // The request stream belongs to the HTTP client; only flush it.
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            objectMapper.writeTree(generator, payload);
+        }
+    }
+
+    /**
+     * Reads the response body as a JSON tree directly from the stream, or null if there is no body.
+     */
+    private JsonNode readTree(ClientHttpResponse response) throws IOException {
+        try (InputStream body = response.getBody()) {
+            JsonNode node = objectMapper.readTree(body);
+            return node == null || node.isMissingNode() ? null : node;
+        }
+    }
+
+    /**
+     * Returns an extractor reading the body as a JSON tree, wrapping parse failures with the given message.
+     */
+    private ResponseExtractor<JsonNode> treeReader(String failureMessage) {
+        return response -> {
+            try {
+                return readTree(response);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException(failureMessage, e);
+            }
+        };
+    }
+
     /**
      * Searches Jira issues using the provided JQL.
      */
@@ -57,22 +153,24 @@ public class JiraApiClient {
                 // Build URL with pagination parameters.
                 String url = baseUrl + "/rest/api/2/search?jql=" + jql
                         + "&startAt=" + startAt + "&maxResults=" + maxResults;
-                HttpHeaders headers = createHeaders();
-                HttpEntity<String> entity = new HttpEntity<>(headers);
-                ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
-
-                JsonNode result = objectMapper.readTree(response.getBody());
+                TransformEvents.SearchPage event = new TransformEvents.SearchPage();
+                event.begin();
+                JsonNode result = execute("search", url, HttpMethod.GET, acceptJson(), this::readTree);
+                metrics.pageFetched("search");
                 // Get issues from current page.
                 JsonNode issues = result.get("issues");
+                int pageIssues = 0;
                 if (issues != null && issues.isArray()) {
                     for (JsonNode issue : issues) {
                         allIssues.add(issue);
+                        pageIssues++;
                     }
                 }
 
                 // Get total results and maxResults from the response.
                 total = result.get("total").asInt();
                 int currentMax = result.get("maxResults").asInt();
+                commitSearchPage(event, jql, startAt, pageIssues, total);
                 startAt += currentMax;
             } while (startAt < total);
 
@@ -100,29 +198,109 @@ public class JiraApiClient {
      */
     public JsonNode getIssue(String issueKey) {
         String url = baseUrl + "/rest/api/2/issue/" + issueKey;
-        HttpHeaders headers = createHeaders();
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
+        return execute("getIssue", url, HttpMethod.GET, acceptJson(),
+                treeReader("Failed to parse getIssue response for key: " + issueKey));
+    }
+
+    /**
+     * Searches Jira issues using the provided JQL, streaming each issue of every page to the reader
+     * straight from the response body. No page is buffered as a String or built into a JSON tree.
+     *
+     * @return the total number of issues reported by Jira.
+     */
+    public int searchIssues(String jql, IssueReader<?> reader) {
         try {
-            return objectMapper.readTree(response.getBody());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse getIssue response for key: " + issueKey, e);
+            int startAt = 0;
+            int maxResults = 50;
+            int total;
+            do {
+                String url = baseUrl + "/rest/api/2/search?jql=" + jql
+                        + "&startAt=" + startAt + "&maxResults=" + maxResults;
+                TransformEvents.SearchPage event = new TransformEvents.SearchPage();
+                event.begin();
+                int[] page = execute("search", url, HttpMethod.GET, acceptJson(),
+                        response -> readSearchPage(response.getBody(), reader));
+                metrics.pageFetched("search");
+                total = page[0];
+                int currentMax = page[1];
+                commitSearchPage(event, jql, startAt, page[2], total);
+                if (currentMax <= 0) {
+                    break;
+                }
+                startAt += currentMax;
+            } while (startAt < total);
+            return total;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to execute searchIssues", e);
+        }
+    }
+
+    private static void commitSearchPage(TransformEvents.SearchPage event, String jql, int startAt, int issues,
+                                         int total) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.jql = jql;
+            event.startAt = startAt;
+            event.issues = issues;
+            event.total = total;
+            event.commit();
         }
     }
 
+    /**
+     * Retrieves a single Jira issue by its key, handing the response stream to the reader.
+     */
+    public <T> T getIssue(String issueKey, IssueReader<T> reader) {
+        String url = baseUrl + "/rest/api/2/issue/" + issueKey;
+        return execute("getIssue", url, HttpMethod.GET, acceptJson(), response -> {
+            try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("Expected an issue object for key: " + issueKey);
+                }
+                return reader.read(parser);
+            }
+        });
+    }
+
+    /**
+     * Parses one search response page, passing each element of "issues" to the reader.
+     *
+     * @return the page's total and maxResults values, and the number of issues read.
+     */
+    private int[] readSearchPage(InputStream body, IssueReader<?> reader) throws IOException {
+        int total = 0;
+        int maxResults = 0;
+        int issues = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a search result object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("total".equals(name)) {
+                    total = parser.getValueAsInt();
+                } else if ("maxResults".equals(name)) {
+                    maxResults = parser.getValueAsInt();
+                } else if ("issues".equals(name) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        reader.read(parser);
+                        issues++;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new int[] {total, maxResults, issues};
+    }
+
     /**
      * Retrieves the current user's profile.
      */
     public JsonNode getMyProfile() {
         String url = baseUrl + "/rest/api/2/myself";
-        HttpHeaders headers = createHeaders();
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
-        try {
-            return objectMapper.readTree(response.getBody());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to call myself: ", e);
-        }
+        return execute("myself", url, HttpMethod.GET, acceptJson(), treeReader("Failed to call myself: "));
     }
 
     /**
@@ -134,12 +312,7 @@ public class JiraApiClient {
     public JsonNode createIssue(JsonNode issuePayload) {
         try {
             String url = baseUrl + "/rest/api/2/issue";
-            HttpHeaders headers = createHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            String body = objectMapper.writeValueAsString(issuePayload);
-            HttpEntity<String> entity = new HttpEntity<>(body, headers);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
-            return objectMapper.readTree(response.getBody());
+            return execute("create", url, HttpMethod.POST, jsonBody(issuePayload), this::readTree);
         } catch (Exception e) {
             throw new RuntimeException("Failed to create issue", e);
         }
@@ -154,12 +327,8 @@ public class JiraApiClient {
     public void updateIssue(String issueKey, JsonNode issuePayload) {
         try {
             String url = baseUrl + "/rest/api/2/issue/" + issueKey;
-            HttpHeaders headers = createHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            String body = objectMapper.writeValueAsString(issuePayload);
-            HttpEntity<String> entity = new HttpEntity<>(body, headers);
             // Jira typically returns a 204 No Content on successful update.
-            restTemplate.exchange(url, HttpMethod.PUT, entity, String.class);
+            execute("update", url, HttpMethod.PUT, jsonBody(issuePayload), response -> null);
         } catch (Exception e) {
             throw new RuntimeException("Failed to update issue with key: " + issueKey, e);
         }
@@ -184,4 +353,12 @@ public class JiraApiClient {
     public void setBearerToken(String bearerToken) {
         this.bearerToken = bearerToken;
     }
+
+    public void setMetrics(ApiClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public ApiClientMetrics getMetrics() {
+        return metrics;
+    }
 }
@@ -2,9 +2,11 @@ package com.gjjfintech.jiradatatransform.client;
 
 import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
 import com.gjjfintech.jiradatatransform.util.StringUtils;
+import com.gjjfintech.jiradatatransform.util.TransformEvents;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVRecord;
 
+import java.io.File;
 import java.io.FileReader;
 import java.io.Reader;
 import java.text.ParseException;
@@ -21,12 +23,30 @@ public class JiraCsvClient {
      * @return A collection of flattened issue maps.
      */
     public Collection<Map<String, Object>> getIssuesByFile(String filePath, JiraMappingProperties mappingProps) {
+        TransformEvents.CsvParse parse = new TransformEvents.CsvParse();
+        parse.begin();
         List<CSVRecord> records = readCsv(filePath);
+        parse.end();
+        if (parse.shouldCommit()) {
+            parse.file = filePath;
+            parse.bytes = new File(filePath).length();
+            parse.records = records.size();
+            parse.commit();
+        }
+
+        TransformEvents.CsvFlatten flatten = new TransformEvents.CsvFlatten();
+        flatten.begin();
         List<Map<String, Object>> issues = new ArrayList<>();
         for (CSVRecord record : records) {
             Map<String, Object> flatIssue = convertCsvRow(record, mappingProps);
             issues.add(flatIssue);
         }
+        flatten.end();
+        if (flatten.shouldCommit()) {
+            flatten.file = filePath;
+            flatten.issues = issues.size();
+            flatten.commit();
+        }
         return issues;
     }
 
@@ -65,7 +85,7 @@ public class JiraCsvClient {
      * @param mappingProps The Jira mapping configuration.
      * @return a flattened issue map.
      */
-    private Map<String, Object> convertCsvRow(CSVRecord record, JiraMappingProperties mappingProps) {
+    Map<String, Object> convertCsvRow(CSVRecord record, JiraMappingProperties mappingProps) {
         Map<String, Object> flat = new HashMap<>();
         for (Map.Entry<String, JiraMappingProperties.FieldMapping> entry : mappingProps.getJiraFieldMappings().entrySet()) {
             String displayName = entry.getKey();
@@ -130,7 +150,7 @@ public class JiraCsvClient {
      * @param dataType the dataType specification.
      * @return the processed string.
      */
-    private String processStringValue(String value, String dataType) {
+    String processStringValue(String value, String dataType) {
         if (dataType == null || (dataType.startsWith("String") && !dataType.startsWith("String["))) {
             return value;
         } else if (dataType.startsWith("DateAsString")) {
@@ -2,33 +2,80 @@ package com.gjjfintech.jiradatatransform.client;
 
 import com.gjjfintech.jiradatatransform.model.ServiceNowIncident;
 import com.gjjfintech.jiradatatransform.model.ServiceNowIncidentsResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriUtils;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.nio.charset.StandardCharsets;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class ServiceNowApiClient {
 
+    // Only the fields mapped onto ServiceNowIncident are requested.
+    private static final String INCIDENT_FIELDS = declaredFieldNames(ServiceNowIncident.class);
+
     private final RestTemplate restTemplate;
     private final String instanceUrl;
     private final String username;
     private final String password;
+    private final ApiClientMetrics metrics;
+    private final int pageSize;
+    private final ExecutorService pageExecutor;
 
     public ServiceNowApiClient(RestTemplateBuilder restTemplateBuilder,
+                               MeterRegistry meterRegistry,
                                @Value("${servicenow.instanceUrl}") String instanceUrl,
                                @Value("${servicenow.username}") String username,
-                               @Value("${servicenow.password}") String password) {
+                               @Value("${servicenow.password}") String password,
+                               @Value("${servicenow.page-size:1000}") int pageSize,
+                               @Value("${servicenow.max-concurrent-pages:4}") int maxConcurrentPages) {
         this.instanceUrl = instanceUrl;
         this.username = username;
         this.password = password;
+        this.metrics = new ApiClientMetrics(meterRegistry, "servicenow", "default");
         this.restTemplate = restTemplateBuilder.build();
+        this.pageSize = Math.max(1, pageSize);
+        this.pageExecutor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentPages), runnable -> {
+            Thread thread = new Thread(runnable, "servicenow-page");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pageExecutor.shutdownNow();
+    }
+
+    /**
+     * One page of a table query.
+     */
+    private static class Page {
+        private final List<ServiceNowIncident> incidents;
+        // The X-Total-Count header, or -1 if the instance did not send one.
+        private final int totalCount;
+
+        private Page(List<ServiceNowIncident> incidents, int totalCount) {
+            this.incidents = incidents;
+            this.totalCount = totalCount;
+        }
     }
 
     private HttpHeaders createHeaders() {
@@ -42,21 +89,162 @@ public class ServiceNowApiClient {
     /**
      * Retrieves incidents from ServiceNow filtered by the provided sysparm query.
      *
-     * @param sysparmQuery a URL-encoded query string (e.g. "active=true")
+     * Results are paged with sysparm_limit/sysparm_offset. Once the first page reports the total
+     * count, the remaining pages are fetched concurrently (up to servicenow.max-concurrent-pages)
+     * and returned in query order.
+     *
+     * @param sysparmQuery the encoded query, unescaped (e.g. "active=true^priority<=2")
      * @return a list of IncidentDto objects
      */
     public List<ServiceNowIncident> getIncidents(String sysparmQuery) {
-        String encodedQuery = UriUtils.encode(sysparmQuery, StandardCharsets.UTF_8);
-        String url = instanceUrl + "/api/now/table/incident?sysparm_query=" + encodedQuery;
+        return getIncidents(sysparmQuery, INCIDENT_FIELDS);
+    }
+
+    /**
+     * Retrieves incidents as {@link #getIncidents(String)} does, requesting only the given fields;
+     * the other properties of the returned incidents are left null.
+     *
+     * @param sysparmQuery the encoded query, unescaped (e.g. "active=true^priority<=2")
+     * @param fields       comma-separated field names to request (sysparm_fields)
+     */
+    public List<ServiceNowIncident> getIncidents(String sysparmQuery, String fields) {
+        String query = withStableOrder(sysparmQuery);
+        Page first = fetchPage(query, fields, 0);
+        List<ServiceNowIncident> incidents = new ArrayList<>(Math.max(first.totalCount, first.incidents.size()));
+        incidents.addAll(first.incidents);
+        if (first.incidents.size() < pageSize) {
+            return incidents;
+        }
+
+        int offset = pageSize;
+        Page last = first;
+        if (first.totalCount >= 0) {
+            List<CompletableFuture<Page>> pages = new ArrayList<>();
+            for (; offset < first.totalCount; offset += pageSize) {
+                int pageOffset = offset;
+                pages.add(CompletableFuture.supplyAsync(() -> fetchPage(query, fields, pageOffset), pageExecutor));
+            }
+            for (CompletableFuture<Page> page : pages) {
+                last = join(page);
+                incidents.addAll(last.incidents);
+            }
+        }
+        // Without a total count, or if rows were added since it was taken, keep paging until a short page.
+        while (last.incidents.size() == pageSize) {
+            last = fetchPage(query, fields, offset);
+            incidents.addAll(last.incidents);
+            offset += pageSize;
+        }
+        return incidents;
+    }
+
+    /**
+     * Iterates over the incidents matching the sysparm query one page at a time, so that only
+     * the current page is held in memory. The next page is fetched in the background while the
+     * current one is consumed.
+     *
+     * @param sysparmQuery the encoded query, unescaped (e.g. "active=true^priority<=2")
+     * @return an iterator over the matching incidents, in query order
+     */
+    public Iterator<ServiceNowIncident> iterateIncidents(String sysparmQuery) {
+        String query = withStableOrder(sysparmQuery);
+        return new Iterator<>() {
+            private Iterator<ServiceNowIncident> current = Collections.emptyIterator();
+            private int offset = 0;
+            private CompletableFuture<Page> next = fetchPageAsync(query, 0);
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (next == null) {
+                        return false;
+                    }
+                    Page page = join(next);
+                    offset += pageSize;
+                    next = page.incidents.size() < pageSize ? null : fetchPageAsync(query, offset);
+                    current = page.incidents.iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public ServiceNowIncident next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    private CompletableFuture<Page> fetchPageAsync(String query, int offset) {
+        return CompletableFuture.supplyAsync(() -> fetchPage(query, INCIDENT_FIELDS, offset), pageExecutor);
+    }
+
+    private Page fetchPage(String query, String fields, int offset) {
+        // Expand the values as URI variables so they are encoded exactly once.
+        URI url = UriComponentsBuilder.fromUriString(instanceUrl + "/api/now/table/incident")
+                .queryParam("sysparm_query", "{query}")
+                .queryParam("sysparm_fields", "{fields}")
+                .queryParam("sysparm_exclude_reference_link", "true")
+                .queryParam("sysparm_limit", pageSize)
+                .queryParam("sysparm_offset", offset)
+                .encode()
+                .buildAndExpand(query, fields)
+                .toUri();
 
         HttpEntity<String> entity = new HttpEntity<>(createHeaders());
-        ResponseEntity<ServiceNowIncidentsResponse> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, ServiceNowIncidentsResponse.class);
+        // The JSON converter deserializes straight from the response stream.
+        ResponseEntity<ServiceNowIncidentsResponse> response = metrics.record("getIncidents", () ->
+                restTemplate.execute(url, HttpMethod.GET,
+                        restTemplate.httpEntityCallback(entity, ServiceNowIncidentsResponse.class),
+                        metrics.counting("getIncidents",
+                                restTemplate.<ServiceNowIncidentsResponse>responseEntityExtractor(ServiceNowIncidentsResponse.class))));
+        metrics.pageFetched("getIncidents");
+
+        List<ServiceNowIncident> incidents = response.getBody() != null && response.getBody().getResult() != null
+                ? response.getBody().getResult()
+                : Collections.emptyList();
+        int totalCount = -1;
+        String totalHeader = response.getHeaders().getFirst("X-Total-Count");
+        if (totalHeader != null) {
+            try {
+                totalCount = Integer.parseInt(totalHeader.trim());
+            } catch (NumberFormatException e) {
+                // Treat as unknown and page until a short page instead.
+            }
+        }
+        return new Page(incidents, totalCount);
+    }
+
+    /**
+     * Offset paging needs a deterministic order, so order by sys_id unless the query already orders.
+     */
+    private static String withStableOrder(String sysparmQuery) {
+        if (sysparmQuery == null || sysparmQuery.isEmpty()) {
+            return "ORDERBYsys_id";
+        }
+        return sysparmQuery.contains("ORDERBY") ? sysparmQuery : sysparmQuery + "^ORDERBYsys_id";
+    }
+
+    private static String declaredFieldNames(Class<?> type) {
+        StringJoiner names = new StringJoiner(",");
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                names.add(field.getName());
+            }
+        }
+        return names.toString();
+    }
 
-        if (response.getBody() != null) {
-            return response.getBody().getResult();
-        } else {
-            return Collections.emptyList();
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
         }
     }
 }
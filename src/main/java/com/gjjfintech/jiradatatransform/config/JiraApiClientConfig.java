@@ -1,6 +1,8 @@
 package com.gjjfintech.jiradatatransform.config;
 
+import com.gjjfintech.jiradatatransform.client.ApiClientMetrics;
 import com.gjjfintech.jiradatatransform.client.JiraApiClient;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,12 +15,14 @@ public class JiraApiClientConfig {
             @Value("${jira.source.base-url}") String baseUrl,
             @Value("${jira.source.email}") String email,
             @Value("${jira.source.authToken}") String authToken,
-            @Value("${jira.source.bearerToken:}") String bearerToken) {
+            @Value("${jira.source.bearerToken:}") String bearerToken,
+            MeterRegistry meterRegistry) {
         JiraApiClient client = new JiraApiClient();
         client.setBaseUrl(baseUrl);
         client.setEmail(email);
         client.setAuthToken(authToken);
         client.setBearerToken(bearerToken);
+        client.setMetrics(new ApiClientMetrics(meterRegistry, "jira", "source"));
         return client;
     }
 
@@ -27,12 +31,14 @@ public class JiraApiClientConfig {
             @Value("${jira.destination.base-url}") String baseUrl,
             @Value("${jira.destination.email}") String email,
             @Value("${jira.destination.authToken}") String authToken,
-            @Value("${jira.destination.bearerToken:}") String bearerToken) {
+            @Value("${jira.destination.bearerToken:}") String bearerToken,
+            MeterRegistry meterRegistry) {
         JiraApiClient client = new JiraApiClient();
         client.setBaseUrl(baseUrl);
         client.setEmail(email);
         client.setAuthToken(authToken);
         client.setBearerToken(bearerToken);
+        client.setMetrics(new ApiClientMetrics(meterRegistry, "jira", "destination"));
         return client;
     }
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.gjjfintech.jiradatatransform.controller;
+
+import com.gjjfintech.jiradatatransform.model.FlightRecordingInfo;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Actuator endpoint for starting, stopping and downloading JDK Flight Recorder recordings, which
+ * include the pipeline's own events (see TransformEvents) next to the JVM's.
+ *
+ * GET    /actuator/flightrecording        lists the recordings.
+ * POST   /actuator/flightrecording        starts one; body {"settings": "default|profile", "durationSeconds": n}.
+ * POST   /actuator/flightrecording/{id}   stops it.
+ * GET    /actuator/flightrecording/{id}   downloads it as a .jfr file, a snapshot if still running.
+ * DELETE /actuator/flightrecording/{id}   discards it.
+ *
+ * Like heapdump, the endpoint is only reachable once added to management.endpoints.web.exposure.include.
+ * One recording runs at a time, and every recording stops after the configured maximum duration.
+ * Only the latest finished recording is kept when a new one starts; older ones are closed, which
+ * frees their disk space.
+ */
+@Component
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    private static final String OCTET_STREAM = "application/octet-stream";
+
+    @Value("${management.endpoint.flightrecording.max-duration-minutes:30}")
+    private long maxDurationMinutes = 30;
+
+    // Disk space a recording may use; the oldest data is discarded beyond it.
+    @Value("${management.endpoint.flightrecording.max-size-mb:256}")
+    private long maxSizeMb = 256;
+
+    private final Map<Long, Recording> recordings = new ConcurrentSkipListMap<>();
+    // The settings each recording was started with, by recording id.
+    private final Map<Long, String> settingsNames = new ConcurrentHashMap<>();
+
+    @ReadOperation
+    public List<FlightRecordingInfo> recordings() {
+        List<FlightRecordingInfo> infos = new ArrayList<>();
+        for (Recording recording : recordings.values()) {
+            infos.add(info(recording));
+        }
+        return infos;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<FlightRecordingInfo> start(@Nullable String settings,
+                                                                      @Nullable Long durationSeconds) {
+        for (Recording recording : recordings.values()) {
+            if (recording.getState() == RecordingState.RUNNING) {
+                return new WebEndpointResponse<>(HttpStatus.CONFLICT.value());
+            }
+        }
+        String settingsName = settings != null && !settings.isBlank() ? settings.trim() : "default";
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        closeOlderRecordings();
+        Duration maxDuration = Duration.ofMinutes(maxDurationMinutes);
+        Recording recording = new Recording(configuration);
+        recording.setName("jira-data-transform");
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.setDuration(durationSeconds != null && durationSeconds > 0
+                && Duration.ofSeconds(durationSeconds).compareTo(maxDuration) < 0
+                ? Duration.ofSeconds(durationSeconds) : maxDuration);
+        recording.start();
+        settingsNames.put(recording.getId(), settingsName);
+        recordings.put(recording.getId(), recording);
+        return new WebEndpointResponse<>(info(recording));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<FlightRecordingInfo> stop(@Selector long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return new WebEndpointResponse<>(info(recording));
+    }
+
+    @ReadOperation(produces = OCTET_STREAM)
+    public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> delete(@Selector long id) {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        settingsNames.remove(id);
+        recording.close();
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        for (Recording recording : recordings.values()) {
+            recording.close();
+        }
+        recordings.clear();
+        settingsNames.clear();
+    }
+
+    /**
+     * Closes every finished recording except the latest, so recordings cannot pile up on disk.
+     */
+    private void closeOlderRecordings() {
+        List<Long> ids = new ArrayList<>(recordings.keySet());
+        for (Long id : ids.subList(0, Math.max(0, ids.size() - 1))) {
+            delete(id);
+        }
+    }
+
+    private FlightRecordingInfo info(Recording recording) {
+        return new FlightRecordingInfo(recording.getId(), recording.getName(), recording.getState().name(),
+                settingsNames.get(recording.getId()),
+                recording.getStartTime() != null ? recording.getStartTime().toString() : null,
+                recording.getSize());
+    }
+
+    /**
+     * A dumped recording that is deleted once it has been sent.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path path) {
+            super(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Keep the response on getInputStream(), so the file is deleted after it is sent.
+            return false;
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.gjjfintech.jiradatatransform.controller;
 
+import com.gjjfintech.jiradatatransform.model.IssueSearchHit;
+import com.gjjfintech.jiradatatransform.service.IssueGraphService;
+import com.gjjfintech.jiradatatransform.service.IssueIndexService;
+import com.gjjfintech.jiradatatransform.service.IssueSearchService;
 import com.gjjfintech.jiradatatransform.service.JiraIssueService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -13,10 +22,17 @@ import java.util.Map;
 public class JiraIssueController {
 
     private final JiraIssueService jiraIssueService;
+    private final IssueIndexService issueIndexService;
+    private final IssueGraphService issueGraphService;
+    private final IssueSearchService issueSearchService;
 
     @Autowired
-    public JiraIssueController(JiraIssueService jiraIssueService) {
+    public JiraIssueController(JiraIssueService jiraIssueService, IssueIndexService issueIndexService,
+                               IssueGraphService issueGraphService, IssueSearchService issueSearchService) {
         this.jiraIssueService = jiraIssueService;
+        this.issueIndexService = issueIndexService;
+        this.issueGraphService = issueGraphService;
+        this.issueSearchService = issueSearchService;
     }
 
     /**
@@ -30,7 +46,118 @@ public class JiraIssueController {
     public Collection<Map<String, Object>> getIssuesByJql(@RequestParam(name="jql", required=true) String jql,
                                                      @RequestParam(name="source", required=false) Boolean isSource) {
         boolean useSourceJiraInstance = isSource != null && isSource;
-        return jiraIssueService.getIssuesByJql(jql, useSourceJiraInstance);
+        Collection<Map<String, Object>> issues = jiraIssueService.getIssuesByJql(jql, useSourceJiraInstance);
+        // A result that spilled to disk keeps its file until the response has been written.
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                "jiraIssues." + System.identityHashCode(issues), () -> jiraIssueService.releaseIssues(issues),
+                RequestAttributes.SCOPE_REQUEST);
+        return issues;
+    }
+
+    /**
+     * GET /issues/query?jql=...&source=true|false&status=Done&status=Closed&labels=payments
+     *
+     * Filters the issues of a JQL search locally, without a further Jira query per filter.
+     * Every other parameter names an indexed field (issueType, status, labels, parentLink,
+     * externalLinkingId by default); repeating a field matches any of its values, and different
+     * fields must all match. Without jql, the instance's replica scope is filtered.
+     *
+     * @return The matching issues, or a 400 Bad Request for an unindexed field or missing jql.
+     */
+    @GetMapping("/query")
+    public ResponseEntity<List<Map<String, Object>>> queryIssues(@RequestParam(name="jql", required=false) String jql,
+                                                                 @RequestParam(name="source", required=false) Boolean isSource,
+                                                                 @RequestParam MultiValueMap<String, String> params) {
+        boolean useSourceJiraInstance = isSource != null && isSource;
+        Map<String, List<String>> filters = new LinkedHashMap<>(params);
+        filters.remove("jql");
+        filters.remove("source");
+        try {
+            return ResponseEntity.ok(issueIndexService.query(useSourceJiraInstance, jql, filters));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET /issues/search?q=...&limit=20&jql=...&source=true|false
+     *
+     * Searches issue summaries (and labels) for every word of q, best match first, from an
+     * in-process text index. The last word also matches as a prefix, for typeahead. Without jql,
+     * the instance's replica is searched.
+     *
+     * @return Up to limit (at most 100) hits, or a 400 Bad Request for missing jql.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<IssueSearchHit>> searchIssues(@RequestParam(name="q", required=true) String query,
+                                                             @RequestParam(name="limit", defaultValue="20") int limit,
+                                                             @RequestParam(name="jql", required=false) String jql,
+                                                             @RequestParam(name="source", required=false) Boolean isSource) {
+        boolean useSourceJiraInstance = isSource != null && isSource;
+        try {
+            return ResponseEntity.ok(issueSearchService.search(useSourceJiraInstance, jql, query, Math.min(limit, 100)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET /issues/graph/{relation}?key=...&jql=...&source=true|false
+     *
+     * Follows the links of one issue across the issues of a JQL search (or, without jql, the
+     * instance's replica scope). The relation is one of:
+     * - descendants: children, grandchildren and so on.
+     * - ancestors: parent, grandparent and so on.
+     * - blockers: every issue blocking the issue, directly or transitively.
+     * - blocked: every issue the issue blocks, directly or transitively.
+     *
+     * @return The related issue keys, nearest first, or a 400 Bad Request for an unknown relation or missing jql.
+     */
+    @GetMapping("/graph/{relation}")
+    public ResponseEntity<List<String>> getRelatedIssues(@PathVariable("relation") String relation,
+                                                         @RequestParam(name="key", required=true) String issueKey,
+                                                         @RequestParam(name="jql", required=false) String jql,
+                                                         @RequestParam(name="source", required=false) Boolean isSource) {
+        boolean useSourceJiraInstance = isSource != null && isSource;
+        try {
+            switch (relation) {
+                case "descendants":
+                    return ResponseEntity.ok(issueGraphService.getDescendants(useSourceJiraInstance, jql, issueKey));
+                case "ancestors":
+                    return ResponseEntity.ok(issueGraphService.getAncestors(useSourceJiraInstance, jql, issueKey));
+                case "blockers":
+                    return ResponseEntity.ok(issueGraphService.getBlockers(useSourceJiraInstance, jql, issueKey));
+                case "blocked":
+                    return ResponseEntity.ok(issueGraphService.getBlocked(useSourceJiraInstance, jql, issueKey));
+                default:
+                    return ResponseEntity.badRequest().build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET /issues/graph/cycles?jql=...&source=true|false&links=blockers|parents
+     *
+     * Detects cycles among the blocker links (the default) or the parent links of the issues of a
+     * JQL search, or, without jql, the instance's replica scope.
+     *
+     * @return Each group of issue keys forming a cycle, or a 400 Bad Request for missing jql.
+     */
+    @GetMapping("/graph/cycles")
+    public ResponseEntity<List<List<String>>> getIssueCycles(@RequestParam(name="jql", required=false) String jql,
+                                                             @RequestParam(name="source", required=false) Boolean isSource,
+                                                             @RequestParam(name="links", defaultValue="blockers") String links) {
+        boolean useSourceJiraInstance = isSource != null && isSource;
+        try {
+            if (links.equals("parents")) {
+                return ResponseEntity.ok(issueGraphService.getParentCycles(useSourceJiraInstance, jql));
+            }
+            return ResponseEntity.ok(issueGraphService.getBlockerCycles(useSourceJiraInstance, jql));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/file")
@@ -1,10 +1,15 @@
 package com.gjjfintech.jiradatatransform.controller;
 
 import com.gjjfintech.jiradatatransform.service.JiraIssueService;
+import com.gjjfintech.jiradatatransform.service.SyncJournalService;
+import com.gjjfintech.jiradatatransform.util.SyncJournal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Map;
 
@@ -24,6 +29,10 @@ public class JiraSyncJobController {
      * Accepts a JSON payload with a "jql" field or file details.
      * Example payload: { "jql": "project=MYPROJECT AND issuetype=Epic" }
      *
+     * An optional "jobId" names the job's sync journal. When omitted, the id is derived from the
+     * JQL or file details, so re-submitting a request that was interrupted resumes where it stopped.
+     * A request for a job that is already running is rejected with 409 Conflict.
+     *
      * This endpoint will:
      *   1. Retrieve issues from the source Jira instance using the provided JQL.
      *   2. Synchronize these issues to the destination Jira instance by creating/updating issues.
@@ -33,21 +42,47 @@ public class JiraSyncJobController {
      */
     @PostMapping
     public ResponseEntity<String> syncIssues(@RequestBody SyncRequest syncRequest) {
+        try {
+            return sync(syncRequest);
+        } catch (SyncJournal.LockedException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    private ResponseEntity<String> sync(SyncRequest syncRequest) {
         String jql = syncRequest.getJql();
         if(jql != null && !jql.isEmpty()) {
             Collection<Map<String, Object>> sourceIssues = jiraIssueService.getIssuesByJql(jql, true);
-            jiraIssueService.synchronizeIssuesToDestination(sourceIssues);
+            try {
+                jiraIssueService.synchronizeIssuesToDestination(sourceIssues, resolveJobId(syncRequest, null));
+            } finally {
+                jiraIssueService.releaseIssues(sourceIssues);
+            }
             return ResponseEntity.ok("Sync completed successfully.");
         } else if(syncRequest.getUseLatestFile() != null) {
-            Collection<Map<String, Object>> sourceIssues = jiraIssueService.getIssuesByFile(true,
-                    syncRequest.getUseLatestFile().booleanValue(), syncRequest.getFilename());
-            jiraIssueService.synchronizeIssuesToDestination(sourceIssues);
+            // Resolve the file once, so the job id and the sync refer to the same export.
+            Path file = Paths.get(jiraIssueService.resolveDataFile(true, syncRequest.getUseLatestFile().booleanValue(),
+                    syncRequest.getFilename()));
+            Collection<Map<String, Object>> sourceIssues = jiraIssueService.getIssuesByFile(true, false,
+                    file.getFileName().toString());
+            jiraIssueService.synchronizeIssuesToDestination(sourceIssues, resolveJobId(syncRequest, file));
             return ResponseEntity.ok("Sync completed successfully.");
         }
 
         return ResponseEntity.badRequest().body("Either provide JQL or file details");
     }
 
+    /**
+     * Returns the explicit job id if one was given, otherwise a stable id derived from the JQL or
+     * the resolved source file.
+     */
+    private String resolveJobId(SyncRequest syncRequest, Path file) {
+        if (syncRequest.getJobId() != null && !syncRequest.getJobId().trim().isEmpty()) {
+            return syncRequest.getJobId().trim();
+        }
+        return SyncJournalService.deriveJobId(syncRequest.getJql(), file);
+    }
+
     /**
      * Simple DTO for the sync request payload.
      */
@@ -55,6 +90,7 @@ public class JiraSyncJobController {
         private String jql;
         private Boolean useLatestFile;
         private String filename;
+        private String jobId;
 
         public String getJql() {
             return jql;
@@ -79,5 +115,13 @@ public class JiraSyncJobController {
         public void setFilename(String filename) {
             this.filename = filename;
         }
+
+        public String getJobId() {
+            return jobId;
+        }
+
+        public void setJobId(String jobId) {
+            this.jobId = jobId;
+        }
     }
 }
@@ -1,12 +1,18 @@
 package com.gjjfintech.jiradatatransform.controller;
 
 import com.gjjfintech.jiradatatransform.model.WorkItem;
+import com.gjjfintech.jiradatatransform.model.WorkItemTotals;
+import com.gjjfintech.jiradatatransform.service.WorkItemRollup;
 import com.gjjfintech.jiradatatransform.service.WorkItemService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/work-items")
@@ -36,4 +42,67 @@ public class WorkItemController {
         List<WorkItem> workItems = workItemService.getWorkItemsForQuarter(quarter);
         return ResponseEntity.ok(workItems);
     }
+
+    /**
+     * GET /work-items?quarters=Q12025,Q22025,...
+     *
+     * Returns the work items for several quarters at once, grouped by quarter.
+     * The quarters are fetched concurrently and share their parent feature lookups.
+     *
+     * @param quarters Comma-separated quarters in format Q1YYYY; duplicates are ignored.
+     * @return Work items keyed by quarter in the order requested, or a 400 Bad Request if any quarter is invalid.
+     */
+    @GetMapping(params = "quarters")
+    public ResponseEntity<Map<String, List<WorkItem>>> getWorkItemsForQuarters(@RequestParam("quarters") String quarters) {
+        Set<String> requested = parseQuarters(quarters);
+        if (requested == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(workItemService.getWorkItemsForQuarters(requested));
+    }
+
+    /**
+     * GET /work-items/rollup?quarters=Q12025,Q22025&groupBy=feature,status,planned
+     *
+     * Returns DevOps, Engineering, Architecture and Other totals (plus a work item count)
+     * for each combination of the groupBy dimensions, instead of the individual work items.
+     *
+     * @param quarters Comma-separated quarters in format Q1YYYY.
+     * @param groupBy  Comma-separated dimensions: feature, status and/or planned. Empty for a grand total.
+     * @return One totals row per group, or a 400 Bad Request if a quarter or dimension is invalid.
+     */
+    @GetMapping("/rollup")
+    public ResponseEntity<List<WorkItemTotals>> rollupWorkItems(
+            @RequestParam("quarters") String quarters,
+            @RequestParam(value = "groupBy", defaultValue = "feature,status,planned") String groupBy) {
+        Set<String> requested = parseQuarters(quarters);
+        if (requested == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<WorkItemRollup.Dimension> dimensions = new ArrayList<>();
+        for (String name : groupBy.split(",")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            try {
+                dimensions.add(WorkItemRollup.Dimension.fromName(name));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return ResponseEntity.ok(workItemService.rollupWorkItems(requested, dimensions));
+    }
+
+    // Splits and validates a comma-separated quarter list; returns null if any quarter is invalid.
+    private static Set<String> parseQuarters(String quarters) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String quarter : quarters.split(",")) {
+            String trimmed = quarter.trim();
+            if (!trimmed.matches("^Q[1-4]\\d{4}$")) {
+                return null;
+            }
+            requested.add(trimmed);
+        }
+        return requested;
+    }
 }
@@ -1,5 +1,7 @@
 package com.gjjfintech.jiradatatransform.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 public class CreateConfluencePageRequestBody {
@@ -8,6 +10,9 @@ public class CreateConfluencePageRequestBody {
     private List<Ancestor> ancestors;
     private Space space;
     private Body body;
+    // Only sent when updating an existing page.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Version version;
 
     // Constructors, getters and setters
 
@@ -62,6 +67,14 @@ public class CreateConfluencePageRequestBody {
         this.body = body;
     }
 
+    public Version getVersion() {
+        return version;
+    }
+
+    public void setVersion(Version version) {
+        this.version = version;
+    }
+
     // Nested DTO classes
 
     public static class Ancestor {
@@ -102,6 +115,25 @@ public class CreateConfluencePageRequestBody {
         }
     }
 
+    public static class Version {
+        private int number;
+
+        public Version() {
+        }
+
+        public Version(int number) {
+            this.number = number;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public void setNumber(int number) {
+            this.number = number;
+        }
+    }
+
     public static class Body {
         private Storage storage;
 
@@ -0,0 +1,76 @@
+package com.gjjfintech.jiradatatransform.model;
+
+/**
+ * The state of one flight recording started through the flightrecording endpoint.
+ */
+public class FlightRecordingInfo {
+
+    private long id;
+    private String name;
+    private String state;
+    private String settings;
+    private String startTime;
+    private long sizeBytes;
+
+    public FlightRecordingInfo() {
+    }
+
+    public FlightRecordingInfo(long id, String name, String state, String settings, String startTime, long sizeBytes) {
+        this.id = id;
+        this.name = name;
+        this.state = state;
+        this.settings = settings;
+        this.startTime = startTime;
+        this.sizeBytes = sizeBytes;
+    }
+
+    // Getters and Setters
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+}
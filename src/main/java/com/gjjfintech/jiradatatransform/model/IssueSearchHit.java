@@ -0,0 +1,46 @@
+package com.gjjfintech.jiradatatransform.model;
+
+/**
+ * One ranked result of a full-text issue search.
+ */
+public class IssueSearchHit {
+
+    private String issueKey;
+    private String summary;
+    private double score;
+
+    public IssueSearchHit() {
+    }
+
+    public IssueSearchHit(String issueKey, String summary, double score) {
+        this.issueKey = issueKey;
+        this.summary = summary;
+        this.score = score;
+    }
+
+    // Getters and Setters
+
+    public String getIssueKey() {
+        return issueKey;
+    }
+
+    public void setIssueKey(String issueKey) {
+        this.issueKey = issueKey;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -1,11 +1,16 @@
 package com.gjjfintech.jiradatatransform.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 public class ServiceNowIncident {
     private String sys_id;
     private String number;
     private String short_description;
     private String caller_id;
     private String state;
+    // Read for incremental caching only; not serialized or shown in reports.
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String sys_updated_on;
     // add more fields as needed
 
     public String getSys_id() {
@@ -47,4 +52,12 @@ public class ServiceNowIncident {
     public void setState(String state) {
         this.state = state;
     }
+
+    public String getSys_updated_on() {
+        return sys_updated_on;
+    }
+
+    public void setSys_updated_on(String sys_updated_on) {
+        this.sys_updated_on = sys_updated_on;
+    }
 }
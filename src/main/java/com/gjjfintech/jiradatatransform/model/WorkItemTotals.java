@@ -0,0 +1,116 @@
+package com.gjjfintech.jiradatatransform.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Summed work item effort for one group of a rollup.
+ * Only the dimensions the rollup was grouped by are set; the others are left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WorkItemTotals {
+
+    @JsonProperty("Feature Name")
+    private String featureName;
+
+    @JsonProperty("Status")
+    private String status;
+
+    @JsonProperty("Planned")
+    private String planned;
+
+    @JsonProperty("Count")
+    private long count;
+
+    @JsonProperty("DevOps")
+    private double devOps;
+
+    @JsonProperty("Engineering")
+    private double engineering;
+
+    @JsonProperty("Architecture")
+    private double architecture;
+
+    @JsonProperty("Other")
+    private double other;
+
+    // Getters and Setters
+
+    public String getFeatureName() {
+        return featureName;
+    }
+
+    public void setFeatureName(String featureName) {
+        this.featureName = featureName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getPlanned() {
+        return planned;
+    }
+
+    public void setPlanned(String planned) {
+        this.planned = planned;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getDevOps() {
+        return devOps;
+    }
+
+    public void setDevOps(double devOps) {
+        this.devOps = devOps;
+    }
+
+    public double getEngineering() {
+        return engineering;
+    }
+
+    public void setEngineering(double engineering) {
+        this.engineering = engineering;
+    }
+
+    public double getArchitecture() {
+        return architecture;
+    }
+
+    public void setArchitecture(double architecture) {
+        this.architecture = architecture;
+    }
+
+    public double getOther() {
+        return other;
+    }
+
+    public void setOther(double other) {
+        this.other = other;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkItemTotals{" +
+                "featureName='" + featureName + '\'' +
+                ", status='" + status + '\'' +
+                ", planned='" + planned + '\'' +
+                ", count=" + count +
+                ", devOps=" + devOps +
+                ", engineering=" + engineering +
+                ", architecture=" + architecture +
+                ", other=" + other +
+                '}';
+    }
+}
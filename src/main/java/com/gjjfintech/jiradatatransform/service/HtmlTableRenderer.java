@@ -0,0 +1,203 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Renders objects of one class as rows of an HTML table, one column per declared instance field.
+ * Fields Jackson treats as write-only are left out, as they would be from the JSON form.
+ *
+ * The field accessors and escaped header cells are compiled once per class and reused for every
+ * table rendered afterwards. Each accessor is a lambda spun from the field's getter (or, without
+ * one, from a field getter method handle), so rendering a cell is a plain interface call plus an
+ * escaped append.
+ */
+class HtmlTableRenderer<T> {
+
+    private static final ClassValue<HtmlTableRenderer<?>> RENDERERS = new ClassValue<>() {
+        @Override
+        protected HtmlTableRenderer<?> computeValue(Class<?> type) {
+            return new HtmlTableRenderer<>(type);
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Function<Object, Object>[] getters;
+    private final String headerRow;
+
+    @SuppressWarnings("unchecked")
+    private HtmlTableRenderer(Class<T> type) {
+        List<Function<Object, Object>> accessors = new ArrayList<>();
+        StringBuilder header = new StringBuilder("<tr>");
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || isWriteOnly(field)) {
+                    continue;
+                }
+                accessors.add(accessor(lookup, type, field));
+                header.append("<th>");
+                appendEscaped(header, ReportingService.standardiseColumnName(field.getName()));
+                header.append("</th>");
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access fields of " + type.getName(), e);
+        }
+        this.getters = accessors.toArray(new Function[0]);
+        this.headerRow = header.append("</tr>").toString();
+    }
+
+    /**
+     * Compiles an accessor for the field, preferring its public getter.
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> accessor(MethodHandles.Lookup lookup, Class<?> type, Field field)
+            throws ReflectiveOperationException {
+        Method getter = findGetter(type, field);
+        if (getter != null) {
+            try {
+                MethodHandle handle = lookup.unreflect(getter);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class), GETTER_TYPE, handle, handle.type().wrap());
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // Fall back to the field handle below.
+            }
+        }
+        MethodHandle handle = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        return row -> {
+            try {
+                return (Object) handle.invokeExact(row);
+            } catch (Throwable e) {
+                return null;
+            }
+        };
+    }
+
+    private static boolean isWriteOnly(Field field) {
+        JsonProperty property = field.getAnnotation(JsonProperty.class);
+        return property != null && property.access() == JsonProperty.Access.WRITE_ONLY;
+    }
+
+    private static Method findGetter(Class<?> type, Field field) {
+        String name = field.getName();
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String prefix : field.getType() == boolean.class ? new String[]{"is", "get"} : new String[]{"get"}) {
+            try {
+                Method method = type.getDeclaredMethod(prefix + suffix);
+                if (Modifier.isPublic(method.getModifiers()) && method.getReturnType() == field.getType()) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // Try the next prefix.
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the renderer for the given class, compiling it on first use.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> HtmlTableRenderer<T> forClass(Class<T> type) {
+        return (HtmlTableRenderer<T>) RENDERERS.get(type);
+    }
+
+    /**
+     * Renders a complete table with a header row followed by one row per object.
+     */
+    String render(List<? extends T> rows) {
+        StringBuilder html = new StringBuilder(256 + headerRow.length());
+        appendTableStart(html);
+        appendRows(html, rows);
+        appendTableEnd(html);
+        return html.toString();
+    }
+
+    void appendTableStart(StringBuilder html) {
+        html.append("<table border='1' style='border-collapse: collapse;'>").append(headerRow);
+    }
+
+    void appendTableEnd(StringBuilder html) {
+        html.append("</table>");
+    }
+
+    /**
+     * Appends one row per object, growing the buffer once up front based on the first row's size.
+     */
+    void appendRows(StringBuilder html, List<? extends T> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int start = html.length();
+        appendRow(html, rows.get(0));
+        int firstRowLength = html.length() - start;
+        // Leave some slack over the first row's length so most tables never reallocate.
+        html.ensureCapacity(html.length() + (int) Math.min(Integer.MAX_VALUE - 64L,
+                (long) (firstRowLength * 1.25) * (rows.size() - 1)));
+        for (int i = 1; i < rows.size(); i++) {
+            appendRow(html, rows.get(i));
+        }
+    }
+
+    void appendRow(StringBuilder html, T row) {
+        html.append("<tr>");
+        for (Function<Object, Object> getter : getters) {
+            html.append("<td>");
+            Object value = getter.apply(row);
+            if (value != null) {
+                appendEscaped(html, value.toString());
+            }
+            html.append("</td>");
+        }
+        html.append("</tr>");
+    }
+
+    /**
+     * Appends the text with the HTML special characters escaped.
+     */
+    static void appendEscaped(StringBuilder html, String text) {
+        int first = firstEscapeIndex(text);
+        if (first < 0) {
+            // Nothing to escape: a single bulk copy.
+            html.append(text);
+            return;
+        }
+        int length = text.length();
+        html.append(text, 0, first);
+        for (int i = first; i < length; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> html.append("&amp;");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+    }
+
+    private static int firstEscapeIndex(String text) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            // Every escaped character sorts at or below '>', so most characters fail the first test.
+            if (c <= '>' && (c == '&' || c == '<' || c == '>' || c == '"' || c == '\'')) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
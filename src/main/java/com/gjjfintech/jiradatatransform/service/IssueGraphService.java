@@ -0,0 +1,118 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.util.RefreshingCache;
+import com.gjjfintech.jiradatatransform.util.StringUtils;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers hierarchy and dependency questions over the issues of a JQL search, using a link
+ * graph built once per (instance, JQL) and refreshed in the background once older than the
+ * graph TTL; only the most recently used graphs are kept. Links to issues outside the search are
+ * followed as far as the search allows: such an issue appears in results, but its own links are
+ * unknown.
+ */
+@Service
+public class IssueGraphService {
+
+    private final JiraIssueService jiraIssueService;
+    private final String parentField;
+    private final List<String> blockerFields = new ArrayList<>();
+    private final RefreshingCache<String, IssueLinkGraph> graphs;
+
+    public IssueGraphService(JiraIssueService jiraIssueService,
+                             @Value("${jira.graph.parent-field:parentLink}") String parentField,
+                             @Value("${jira.graph.blocker-fields:blockingIssues,dependantIssues}") String fields,
+                             @Value("${jira.graph.ttl-seconds:120}") long ttlSeconds,
+                             @Value("${jira.graph.max-stale-seconds:900}") long maxStaleSeconds,
+                             @Value("${jira.graph.max-entries:32}") int maxEntries) {
+        this.jiraIssueService = jiraIssueService;
+        this.parentField = parentField;
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                blockerFields.add(field.trim());
+            }
+        }
+        this.graphs = new RefreshingCache<>("issue-graph", this::buildGraph,
+                Math.max(1, ttlSeconds) * 1000, maxStaleSeconds * 1000, 1, maxEntries);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        graphs.close();
+    }
+
+    /**
+     * Returns the keys of the issue's children, their children and so on, nearest first.
+     *
+     * @param useSource if true, search the source instance; otherwise, the destination instance.
+     * @param jql       the search whose issues form the graph; null for the instance's replica scope.
+     * @throws IllegalArgumentException if no JQL is given and the instance is not replicated.
+     */
+    public List<String> getDescendants(boolean useSource, String jql, String issueKey) {
+        return graph(useSource, jql).descendants(issueKey);
+    }
+
+    /**
+     * Returns the keys of the issue's parent, its parent and so on, nearest first.
+     */
+    public List<String> getAncestors(boolean useSource, String jql, String issueKey) {
+        return graph(useSource, jql).ancestors(issueKey);
+    }
+
+    /**
+     * Returns the keys of every issue blocking the issue, directly or transitively, nearest first.
+     */
+    public List<String> getBlockers(boolean useSource, String jql, String issueKey) {
+        return graph(useSource, jql).blockers(issueKey);
+    }
+
+    /**
+     * Returns the keys of every issue the issue blocks, directly or transitively, nearest first.
+     */
+    public List<String> getBlocked(boolean useSource, String jql, String issueKey) {
+        return graph(useSource, jql).blocked(issueKey);
+    }
+
+    /**
+     * Returns each group of issues that block each other in a cycle, and each issue blocking
+     * itself.
+     */
+    public List<List<String>> getBlockerCycles(boolean useSource, String jql) {
+        return graph(useSource, jql).blockerCycles();
+    }
+
+    /**
+     * Returns each group of issues whose parent links form a cycle.
+     */
+    public List<List<String>> getParentCycles(boolean useSource, String jql) {
+        return graph(useSource, jql).parentCycles();
+    }
+
+    private IssueLinkGraph graph(boolean useSource, String jql) {
+        if (jql == null || jql.isBlank()) {
+            jql = jiraIssueService.getReplicaScopeJql(useSource);
+            if (jql == null) {
+                throw new IllegalArgumentException("A jql parameter is required when the instance is not replicated");
+            }
+        }
+        return graphs.get((useSource ? "source" : "destination") + "|" + StringUtils.normalizeJql(jql));
+    }
+
+    private IssueLinkGraph buildGraph(String key) {
+        int separator = key.indexOf('|');
+        boolean useSource = key.substring(0, separator).equals("source");
+        Collection<Map<String, Object>> issues = jiraIssueService.getIssuesByJql(key.substring(separator + 1), useSource);
+        try {
+            return IssueLinkGraph.build(issues, parentField, blockerFields);
+        } finally {
+            jiraIssueService.releaseIssues(issues);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.util.Postings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Secondary indexes over a set of flattened issues: for each indexed field, a posting list per
+ * distinct value holding the positions of the issues with that value.
+ *
+ * Values are matched case-insensitively, as Jira matches names. A list-valued field (such as
+ * labels) is indexed under each of its elements, and an issue without a value is indexed under
+ * the empty string, so a filter on "" finds issues missing the field.
+ *
+ * An index that follows a replica is kept current with {@link #update(Map)}, which only rebuilds
+ * the posting lists of the values the changed issues had or now have. Such an index must be
+ * read through {@link #read(Supplier)}, so a read of several steps sees one state of it.
+ */
+class IssueIndex {
+
+    private static final String ISSUE_KEY = "issueKey";
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Collection<String> indexedFields;
+    // By position; null where update() removed an issue.
+    private List<Map<String, Object>> issues;
+    // One more than the largest position a posting list may hold; at least issues.size().
+    private int universe;
+    private Postings live;
+    private Map<String, Map<String, Postings>> fields;
+    // Positions by issue key, built by the first update().
+    private Map<String, Integer> positions;
+
+    private IssueIndex(Collection<String> indexedFields) {
+        this.indexedFields = indexedFields;
+    }
+
+    /**
+     * Indexes the given fields of the issues. The issue maps are kept, not copied.
+     */
+    static IssueIndex build(Collection<Map<String, Object>> issues, Collection<String> indexedFields) {
+        IssueIndex index = new IssueIndex(new ArrayList<>(indexedFields));
+        index.rebuild(new ArrayList<>(issues), issues.size());
+        return index;
+    }
+
+    private void rebuild(List<Map<String, Object>> issues, int universe) {
+        Map<String, Map<String, Postings>> fields = new HashMap<>();
+        for (String field : indexedFields) {
+            // Ids are added in ascending order, so each list stays sorted.
+            Map<String, IdList> lists = new HashMap<>();
+            for (int id = 0; id < issues.size(); id++) {
+                for (String term : terms(issues.get(id).get(field))) {
+                    lists.computeIfAbsent(term, key -> new IdList()).add(id);
+                }
+            }
+            Map<String, Postings> postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+            for (Map.Entry<String, IdList> list : lists.entrySet()) {
+                postings.put(list.getKey(), Postings.ofSorted(list.getValue().ids, list.getValue().count, universe));
+            }
+            fields.put(field, postings);
+        }
+        int[] all = new int[issues.size()];
+        Arrays.setAll(all, id -> id);
+        this.issues = issues;
+        this.universe = universe;
+        this.live = Postings.ofSorted(all, all.length, universe);
+        this.fields = fields;
+        this.positions = null;
+    }
+
+    /**
+     * Applies changes to the index, keyed by issue key; a null issue removes it. A changed issue
+     * keeps its position and a new one is appended. The index is rebuilt from the issues it holds
+     * when the positions run out or removed issues outnumber half of the remaining ones.
+     */
+    void update(Map<String, Map<String, Object>> changes) {
+        lock.writeLock().lock();
+        try {
+            if (positions == null) {
+                positions = new HashMap<>(issues.size() * 4 / 3 + 1);
+                for (int id = 0; id < issues.size(); id++) {
+                    if (issues.get(id) != null) {
+                        positions.put((String) issues.get(id).get(ISSUE_KEY), id);
+                    }
+                }
+            }
+            int added = 0;
+            int removed = issues.size() - live.cardinality();
+            for (Map.Entry<String, Map<String, Object>> change : changes.entrySet()) {
+                boolean known = positions.containsKey(change.getKey());
+                added += !known && change.getValue() != null ? 1 : 0;
+                removed += known && change.getValue() == null ? 1 : 0;
+            }
+            if (issues.size() + added > universe || removed > (issues.size() + added - removed) / 2) {
+                Map<String, Map<String, Object>> current = new LinkedHashMap<>();
+                for (Map<String, Object> issue : issues) {
+                    if (issue != null) {
+                        current.put((String) issue.get(ISSUE_KEY), issue);
+                    }
+                }
+                changes.forEach((key, issue) -> {
+                    if (issue != null) {
+                        current.put(key, issue);
+                    } else {
+                        current.remove(key);
+                    }
+                });
+                // Leave room to append, so most later updates stay incremental.
+                rebuild(new ArrayList<>(current.values()), current.size() + Math.max(64, current.size() / 2));
+                return;
+            }
+
+            // Positions leaving and joining each posting list, by field and value.
+            Map<String, Map<String, IdList[]>> deltas = new HashMap<>();
+            IdList[] liveDelta = {new IdList(), new IdList()};
+            for (Map.Entry<String, Map<String, Object>> change : changes.entrySet()) {
+                Integer id = positions.get(change.getKey());
+                Map<String, Object> issue = change.getValue();
+                if (id != null) {
+                    Map<String, Object> previous = issues.get(id);
+                    for (String field : indexedFields) {
+                        for (String term : terms(previous.get(field))) {
+                            delta(deltas, field, term)[0].add(id);
+                        }
+                    }
+                    if (issue == null) {
+                        issues.set(id, null);
+                        positions.remove(change.getKey());
+                        liveDelta[0].add(id);
+                        continue;
+                    }
+                    issues.set(id, issue);
+                } else if (issue != null) {
+                    id = issues.size();
+                    issues.add(issue);
+                    positions.put(change.getKey(), id);
+                    liveDelta[1].add(id);
+                } else {
+                    continue;
+                }
+                for (String field : indexedFields) {
+                    for (String term : terms(issue.get(field))) {
+                        delta(deltas, field, term)[1].add(id);
+                    }
+                }
+            }
+            for (Map.Entry<String, Map<String, IdList[]>> field : deltas.entrySet()) {
+                Map<String, Postings> postings = fields.get(field.getKey());
+                for (Map.Entry<String, IdList[]> term : field.getValue().entrySet()) {
+                    Postings current = postings.getOrDefault(term.getKey(), Postings.empty(universe));
+                    Postings updated = apply(current, term.getValue());
+                    if (updated.isEmpty()) {
+                        postings.remove(term.getKey());
+                    } else {
+                        postings.put(term.getKey(), updated);
+                    }
+                }
+            }
+            live = apply(live, liveDelta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a read of several steps against one state of the index, while no update runs.
+     */
+    <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        return live.cardinality();
+    }
+
+    boolean isIndexed(String field) {
+        return fields.containsKey(field);
+    }
+
+    Postings all() {
+        return live;
+    }
+
+    /**
+     * Returns the issues whose field has the value; empty for an unknown value.
+     *
+     * @throws IllegalArgumentException if the field is not indexed.
+     */
+    Postings lookup(String field, String value) {
+        Map<String, Postings> postings = fields.get(field);
+        if (postings == null) {
+            throw new IllegalArgumentException("Field is not indexed: " + field);
+        }
+        Postings found = postings.get(term(value));
+        return found != null ? found : Postings.empty(universe);
+    }
+
+    /**
+     * Returns the issues whose field has any of the values.
+     */
+    Postings anyOf(String field, Collection<String> values) {
+        Postings result = Postings.empty(universe);
+        for (String value : values) {
+            result = result.or(lookup(field, value));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the issues matching every filter, where a filter matches an issue whose field has
+     * any of the filter's values. No filters match every issue.
+     */
+    Postings query(Map<String, ? extends Collection<String>> filters) {
+        List<Postings> terms = new ArrayList<>(filters.size());
+        for (Map.Entry<String, ? extends Collection<String>> filter : filters.entrySet()) {
+            terms.add(anyOf(filter.getKey(), filter.getValue()));
+        }
+        if (terms.isEmpty()) {
+            return all();
+        }
+        // Intersect the most selective terms first, so later intersections are cheap.
+        terms.sort(Comparator.comparingInt(Postings::cardinality));
+        Postings result = terms.get(0);
+        for (int i = 1; i < terms.size() && !result.isEmpty(); i++) {
+            result = result.and(terms.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the issues in the set, in their original order. The maps are shared and must not
+     * be modified.
+     */
+    List<Map<String, Object>> issues(Postings postings) {
+        List<Map<String, Object>> result = new ArrayList<>(postings.cardinality());
+        postings.forEach(id -> result.add(issues.get(id)));
+        return result;
+    }
+
+    Map<String, Object> issue(int id) {
+        return issues.get(id);
+    }
+
+    /**
+     * Returns the terms an issue is indexed under for a field's value.
+     */
+    private static Set<String> terms(Object value) {
+        if (value instanceof Collection && !((Collection<?>) value).isEmpty()) {
+            Set<String> terms = new LinkedHashSet<>();
+            for (Object element : (Collection<?>) value) {
+                terms.add(term(element));
+            }
+            return terms;
+        }
+        return Collections.singleton(term(value instanceof Collection ? null : value));
+    }
+
+    private IdList[] delta(Map<String, Map<String, IdList[]>> deltas, String field, String term) {
+        return deltas.computeIfAbsent(field, key -> new HashMap<>())
+                .computeIfAbsent(term, key -> new IdList[]{new IdList(), new IdList()});
+    }
+
+    /**
+     * Removes the positions in delta[0] from the postings and adds those in delta[1].
+     */
+    private Postings apply(Postings postings, IdList[] delta) {
+        return postings.andNot(sorted(delta[0])).or(sorted(delta[1]));
+    }
+
+    // Changes arrive in no particular order of position; each position occurs at most once.
+    private Postings sorted(IdList list) {
+        int[] ids = Arrays.copyOf(list.ids, list.count);
+        Arrays.sort(ids);
+        return Postings.ofSorted(ids, ids.length, universe);
+    }
+
+    private static String term(Object value) {
+        return value == null ? "" : value.toString().trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class IdList {
+        private int[] ids = new int[4];
+        private int count;
+
+        private void add(int id) {
+            // A repeated element within one issue adds the same id twice in a row.
+            if (count > 0 && ids[count - 1] == id) {
+                return;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = id;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.util.RefreshingCache;
+import com.gjjfintech.jiradatatransform.util.StringUtils;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filters the issues of a JQL search locally, using secondary indexes built over the search
+ * result. Each (instance, JQL) index is built once and kept, refreshed in the background once
+ * older than the index TTL, so repeated filters never reach Jira. Only the most recently used
+ * indexes are kept, since every distinct JQL builds its own.
+ */
+@Service
+public class IssueIndexService {
+
+    private final JiraIssueService jiraIssueService;
+    private final List<String> indexedFields = new ArrayList<>();
+    private final RefreshingCache<String, IssueIndex> indexes;
+
+    public IssueIndexService(JiraIssueService jiraIssueService,
+                             @Value("${jira.index.fields:issueType,status,labels,parentLink,externalLinkingId}") String fields,
+                             @Value("${jira.index.ttl-seconds:120}") long ttlSeconds,
+                             @Value("${jira.index.max-stale-seconds:900}") long maxStaleSeconds,
+                             @Value("${jira.index.max-entries:32}") int maxEntries) {
+        this.jiraIssueService = jiraIssueService;
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                indexedFields.add(field.trim());
+            }
+        }
+        this.indexes = new RefreshingCache<>("issue-index", this::buildIndex,
+                Math.max(1, ttlSeconds) * 1000, maxStaleSeconds * 1000, 1, maxEntries);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexes.close();
+    }
+
+    public List<String> getIndexedFields() {
+        return indexedFields;
+    }
+
+    /**
+     * Returns the issues of the JQL search matching every filter. A filter matches an issue whose
+     * field equals (ignoring case) any of its values, or, for a list field such as labels, holds
+     * any of them. The returned maps are shared and must not be modified.
+     *
+     * @param useSource if true, search the source instance; otherwise, the destination instance.
+     * @param jql       the search to filter; null for the instance's replica scope.
+     * @param filters   values per indexed field.
+     * @throws IllegalArgumentException if a filter field is not indexed, or no JQL is given and
+     *                                  the instance is not replicated.
+     */
+    public List<Map<String, Object>> query(boolean useSource, String jql, Map<String, ? extends Collection<String>> filters) {
+        for (String field : filters.keySet()) {
+            if (!indexedFields.contains(field)) {
+                throw new IllegalArgumentException("Field is not indexed: " + field);
+            }
+        }
+        if (jql == null || jql.isBlank()) {
+            jql = jiraIssueService.getReplicaScopeJql(useSource);
+            if (jql == null) {
+                throw new IllegalArgumentException("A jql parameter is required when the instance is not replicated");
+            }
+        }
+        IssueIndex index = indexes.get((useSource ? "source" : "destination") + "|" + StringUtils.normalizeJql(jql));
+        return index.issues(index.query(filters));
+    }
+
+    private IssueIndex buildIndex(String key) {
+        int separator = key.indexOf('|');
+        boolean useSource = key.substring(0, separator).equals("source");
+        Collection<Map<String, Object>> issues = jiraIssueService.getIssuesByJql(key.substring(separator + 1), useSource);
+        try {
+            return IssueIndex.build(issues, indexedFields);
+        } finally {
+            jiraIssueService.releaseIssues(issues);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parent and blocker links of a set of flattened issues as a compact graph.
+ *
+ * Every issue key, including keys only referenced by a link, gets a dense int id. Edges are held
+ * in CSR form: for each kind of edge, an offsets array indexed by id and one flat array of target
+ * ids, so a node's neighbours are the slice {@code targets[offsets[id] .. offsets[id + 1])}.
+ * Traversals run over these arrays with an int queue and a visited bitmap; the key map is only
+ * used to translate the starting key and the result.
+ */
+class IssueLinkGraph {
+
+    private final String[] keys;
+    private final Map<String, Integer> ids;
+    // Parent to children, and child to parent (-1 for none).
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] parents;
+    // Issue to the issues blocking it, and issue to the issues it blocks.
+    private final int[] blockerOffsets;
+    private final int[] blockers;
+    private final int[] blockedOffsets;
+    private final int[] blocked;
+
+    private IssueLinkGraph(String[] keys, Map<String, Integer> ids, int[] parents, int[] blockerSources,
+                           int[] blockerTargets, int blockerEdges) {
+        int nodes = keys.length;
+        this.keys = keys;
+        this.ids = ids;
+        this.parents = parents;
+
+        int parentEdges = 0;
+        int[] childSources = new int[nodes];
+        int[] childTargets = new int[nodes];
+        for (int id = 0; id < nodes; id++) {
+            if (parents[id] >= 0) {
+                childSources[parentEdges] = parents[id];
+                childTargets[parentEdges++] = id;
+            }
+        }
+        this.childOffsets = new int[nodes + 1];
+        this.children = new int[parentEdges];
+        toCsr(childSources, childTargets, parentEdges, childOffsets, children);
+
+        this.blockerOffsets = new int[nodes + 1];
+        this.blockers = new int[blockerEdges];
+        toCsr(blockerSources, blockerTargets, blockerEdges, blockerOffsets, blockers);
+        this.blockedOffsets = new int[nodes + 1];
+        this.blocked = new int[blockerEdges];
+        toCsr(blockerTargets, blockerSources, blockerEdges, blockedOffsets, blocked);
+    }
+
+    /**
+     * Builds the graph from the issues' parent link field and blocker list fields.
+     */
+    static IssueLinkGraph build(Collection<Map<String, Object>> issues, String parentField, Collection<String> blockerFields) {
+        Map<String, Integer> ids = new HashMap<>(issues.size() * 2);
+        List<String> keys = new ArrayList<>(issues.size());
+        for (Map<String, Object> issue : issues) {
+            Object key = issue.get("issueKey");
+            if (key instanceof String) {
+                id(ids, keys, (String) key);
+            }
+        }
+        // Only loaded issues have a parent; keys added below are referenced but not loaded.
+        int loaded = keys.size();
+        int[] parentOf = new int[loaded];
+        Arrays.fill(parentOf, -1);
+        int[] sources = new int[16];
+        int[] targets = new int[16];
+        int edges = 0;
+        for (Map<String, Object> issue : issues) {
+            Object key = issue.get("issueKey");
+            if (!(key instanceof String)) {
+                continue;
+            }
+            int id = ids.get(key);
+            Object parent = issue.get(parentField);
+            if (parent instanceof String && !((String) parent).isEmpty()) {
+                parentOf[id] = id(ids, keys, (String) parent);
+            }
+            for (String field : blockerFields) {
+                Object linked = issue.get(field);
+                if (!(linked instanceof Collection)) {
+                    continue;
+                }
+                for (Object blocker : (Collection<?>) linked) {
+                    if (!(blocker instanceof String) || ((String) blocker).isEmpty()) {
+                        continue;
+                    }
+                    if (edges == sources.length) {
+                        sources = Arrays.copyOf(sources, edges * 2);
+                        targets = Arrays.copyOf(targets, edges * 2);
+                    }
+                    sources[edges] = id;
+                    targets[edges++] = id(ids, keys, (String) blocker);
+                }
+            }
+        }
+        int nodes = keys.size();
+        int[] parents = Arrays.copyOf(parentOf, nodes);
+        Arrays.fill(parents, loaded, nodes, -1);
+        return new IssueLinkGraph(keys.toArray(new String[0]), ids, parents, sources, targets, edges);
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    boolean contains(String key) {
+        return ids.containsKey(key);
+    }
+
+    /**
+     * Returns the children, grandchildren and so on of the issue, nearest first.
+     */
+    List<String> descendants(String key) {
+        return traverse(key, childOffsets, children);
+    }
+
+    /**
+     * Returns the parent, grandparent and so on of the issue, nearest first.
+     */
+    List<String> ancestors(String key) {
+        Integer start = ids.get(key);
+        List<String> result = new ArrayList<>();
+        if (start == null) {
+            return result;
+        }
+        long[] visited = new long[(keys.length + 63) >>> 6];
+        visited[start >>> 6] |= 1L << start;
+        // Stop at a node already seen, in case the parent links form a cycle.
+        for (int id = parents[start]; id >= 0 && (visited[id >>> 6] & (1L << id)) == 0; id = parents[id]) {
+            visited[id >>> 6] |= 1L << id;
+            result.add(keys[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns every issue blocking the issue, directly or through other blockers, nearest first.
+     */
+    List<String> blockers(String key) {
+        return traverse(key, blockerOffsets, blockers);
+    }
+
+    /**
+     * Returns every issue the issue blocks, directly or through other issues, nearest first.
+     */
+    List<String> blocked(String key) {
+        return traverse(key, blockedOffsets, blocked);
+    }
+
+    /**
+     * Returns the cycles among blocker links: each strongly connected group of two or more
+     * issues, and each issue blocking itself.
+     */
+    List<List<String>> blockerCycles() {
+        return cycles(blockerOffsets, blockers);
+    }
+
+    /**
+     * Returns the cycles among parent links.
+     */
+    List<List<String>> parentCycles() {
+        int[] offsets = new int[keys.length + 1];
+        int[] targets = new int[keys.length];
+        int edges = 0;
+        for (int id = 0; id < keys.length; id++) {
+            offsets[id] = edges;
+            if (parents[id] >= 0) {
+                targets[edges++] = parents[id];
+            }
+        }
+        offsets[keys.length] = edges;
+        return cycles(offsets, targets);
+    }
+
+    /**
+     * Breadth-first traversal from the key along the given edges, excluding the key itself.
+     */
+    private List<String> traverse(String key, int[] offsets, int[] targets) {
+        Integer start = ids.get(key);
+        if (start == null) {
+            return new ArrayList<>();
+        }
+        long[] visited = new long[(keys.length + 63) >>> 6];
+        // Grown on demand, so a short walk in a large graph stays cheap.
+        int[] queue = new int[Math.min(keys.length, 64)];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start >>> 6] |= 1L << start;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                int next = targets[e];
+                if ((visited[next >>> 6] & (1L << next)) == 0) {
+                    visited[next >>> 6] |= 1L << next;
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, Math.min(keys.length, tail * 2));
+                    }
+                    queue[tail++] = next;
+                }
+            }
+        }
+        List<String> result = new ArrayList<>(tail - 1);
+        for (int i = 1; i < tail; i++) {
+            result.add(keys[queue[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the strongly connected components with a cycle, using an iterative Tarjan's algorithm
+     * so deep chains cannot overflow the stack.
+     */
+    private List<List<String>> cycles(int[] offsets, int[] targets) {
+        int nodes = keys.length;
+        int[] index = new int[nodes];
+        Arrays.fill(index, -1);
+        int[] low = new int[nodes];
+        boolean[] onStack = new boolean[nodes];
+        int[] stack = new int[nodes];
+        int stackSize = 0;
+        // Call stack of the depth-first search: the node and the next edge to follow.
+        int[] callNode = new int[nodes];
+        int[] callEdge = new int[nodes];
+        int counter = 0;
+        List<List<String>> cycles = new ArrayList<>();
+
+        for (int root = 0; root < nodes; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = offsets[root];
+            index[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            while (depth >= 0) {
+                int node = callNode[depth];
+                if (callEdge[depth] < offsets[node + 1]) {
+                    int next = targets[callEdge[depth]++];
+                    if (index[next] < 0) {
+                        index[next] = low[next] = counter++;
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                        depth++;
+                        callNode[depth] = next;
+                        callEdge[depth] = offsets[next];
+                    } else if (onStack[next]) {
+                        low[node] = Math.min(low[node], index[next]);
+                    }
+                    continue;
+                }
+                if (low[node] == index[node]) {
+                    List<String> component = new ArrayList<>();
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        component.add(keys[member]);
+                    } while (member != node);
+                    if (component.size() > 1 || hasSelfLoop(node, offsets, targets)) {
+                        cycles.add(component);
+                    }
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+            }
+        }
+        return cycles;
+    }
+
+    private static boolean hasSelfLoop(int node, int[] offsets, int[] targets) {
+        for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+            if (targets[e] == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int id(Map<String, Integer> ids, List<String> keys, String key) {
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = keys.size();
+            ids.put(key, id);
+            keys.add(key);
+        }
+        return id;
+    }
+
+    // Counting sort of the edges by source into offsets and targets.
+    private static void toCsr(int[] sources, int[] targets, int edges, int[] offsets, int[] sorted) {
+        for (int e = 0; e < edges; e++) {
+            offsets[sources[e] + 1]++;
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int e = 0; e < edges; e++) {
+            sorted[next[sources[e]]++] = targets[e];
+        }
+    }
+}
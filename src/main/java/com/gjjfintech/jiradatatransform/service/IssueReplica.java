@@ -0,0 +1,241 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gjjfintech.jiradatatransform.util.SegmentLogStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A local copy of the flattened issues matching one JQL scope on one Jira instance, kept in a
+ * {@link SegmentLogStore} so it survives restarts.
+ *
+ * {@link #poll()} keeps it current. The first poll, and any poll once the last full sync is older
+ * than the full-sync age, loads the whole scope and deletes issues that left it. Other polls only
+ * search for issues updated since shortly before the previous poll started. Deleted issues and
+ * issues that moved out of scope are only noticed by full syncs.
+ */
+class IssueReplica implements Closeable {
+
+    private static final TypeReference<Map<String, Object>> ISSUE = new TypeReference<>() {
+    };
+
+    // Overlap between delta polls, covering clock skew and Jira's minute-granular update filter.
+    private static final long POLL_OVERLAP_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    /**
+     * Sync progress, persisted next to the store.
+     */
+    static class State {
+        public String scopeJql;
+        public String mappingVersion;
+        public long lastPollStartedAt;
+        public long lastSyncAt;
+        public long lastFullSyncAt;
+    }
+
+    private final SegmentLogStore store;
+    private final ObjectMapper objectMapper;
+    private final Path stateFile;
+    private final String scopeJql;
+    private final String mappingVersion;
+    private final long fullSyncMillis;
+    private final Function<String, Map<String, Map<String, Object>>> search;
+    private final List<BiConsumer<String, Map<String, Object>>> listeners = new CopyOnWriteArrayList<>();
+    private volatile State state;
+
+    /**
+     * @param folder         the folder holding this replica's store and state.
+     * @param scopeJql       the JQL selecting the issues to replicate.
+     * @param mappingVersion fingerprint of the mapping the issues are flattened with; a change forces a full sync.
+     * @param search         runs a JQL search on the instance, returning flattened issues by key.
+     */
+    IssueReplica(Path folder, long segmentBytes, ObjectMapper objectMapper, String scopeJql, String mappingVersion,
+                 long fullSyncMillis, Function<String, Map<String, Map<String, Object>>> search) {
+        this.store = SegmentLogStore.open(folder, segmentBytes);
+        this.objectMapper = objectMapper;
+        this.stateFile = folder.resolve("replica.json");
+        this.scopeJql = scopeJql;
+        this.mappingVersion = mappingVersion;
+        this.fullSyncMillis = fullSyncMillis;
+        this.search = search;
+        this.state = loadState();
+    }
+
+    String getScopeJql() {
+        return scopeJql;
+    }
+
+    /**
+     * Returns true if the last successful poll finished within the given age.
+     */
+    boolean isFresh(long maxStalenessMillis) {
+        State current = state;
+        return current.lastSyncAt > 0 && System.currentTimeMillis() - current.lastSyncAt <= maxStalenessMillis;
+    }
+
+    /**
+     * Returns the replicated issue, or null if it is not in the replica.
+     */
+    Map<String, Object> get(String issueKey) {
+        byte[] value = store.get(issueKey);
+        return value != null ? decode(value) : null;
+    }
+
+    /**
+     * Calls the action with every replicated issue, decoding one issue at a time so the replica
+     * is never held on the heap as a whole. Each call gets its own issue map.
+     */
+    void forEach(BiConsumer<String, Map<String, Object>> action) {
+        store.forEach((key, value) -> action.accept(key, decode(value)));
+    }
+
+    int size() {
+        return store.size();
+    }
+
+    /**
+     * Registers a listener called after each poll with every issue it added or changed, and with
+     * a null issue for every issue it removed. The issue maps are shared and must not be modified.
+     */
+    void addListener(BiConsumer<String, Map<String, Object>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Brings the replica up to date with Jira, then compacts the store if it holds mostly
+     * superseded records. Issues whose flattened form is unchanged are not rewritten.
+     *
+     * @return the number of issues added, changed or removed.
+     */
+    synchronized int poll() {
+        State current = state;
+        long startedAt = System.currentTimeMillis();
+        State next = new State();
+        next.scopeJql = scopeJql;
+        next.mappingVersion = mappingVersion;
+        next.lastPollStartedAt = startedAt;
+        // Changed issues by key; null for a removed issue.
+        Map<String, Map<String, Object>> changes = new LinkedHashMap<>();
+        boolean full = current.lastSyncAt == 0
+                || !scopeJql.equals(current.scopeJql)
+                || !mappingVersion.equals(current.mappingVersion)
+                || startedAt - current.lastFullSyncAt >= fullSyncMillis;
+        if (full) {
+            Map<String, Map<String, Object>> issues = search.apply(scopeJql);
+            try {
+                Set<String> removed = new HashSet<>();
+                store.forEach((key, value) -> {
+                    if (!issues.containsKey(key)) {
+                        removed.add(key);
+                    }
+                });
+                for (String key : removed) {
+                    store.delete(key);
+                    changes.put(key, null);
+                }
+                storeChanged(issues, changes);
+            } finally {
+                closeResult(issues);
+            }
+            next.lastFullSyncAt = startedAt;
+        } else {
+            long minutes = TimeUnit.MILLISECONDS.toMinutes(startedAt - current.lastPollStartedAt + POLL_OVERLAP_MILLIS) + 1;
+            Map<String, Map<String, Object>> issues = search.apply("(" + scopeJql + ") AND updated >= \"-" + minutes + "m\"");
+            try {
+                storeChanged(issues, changes);
+            } finally {
+                closeResult(issues);
+            }
+            next.lastFullSyncAt = current.lastFullSyncAt;
+        }
+        store.sync();
+        next.lastSyncAt = System.currentTimeMillis();
+        saveState(next);
+        state = next;
+        store.compact(0.5);
+        for (BiConsumer<String, Map<String, Object>> listener : listeners) {
+            changes.forEach(listener);
+        }
+        return changes.size();
+    }
+
+    private void storeChanged(Map<String, Map<String, Object>> issues, Map<String, Map<String, Object>> changes) {
+        for (Map.Entry<String, Map<String, Object>> issue : issues.entrySet()) {
+            byte[] value = encode(issue.getValue());
+            if (!Arrays.equals(value, store.get(issue.getKey()))) {
+                store.put(issue.getKey(), value);
+                changes.put(issue.getKey(), issue.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    /**
+     * Deletes the spill file of a search result that spilled to disk, now that it has been stored.
+     */
+    private static void closeResult(Map<String, Map<String, Object>> issues) {
+        if (issues instanceof Closeable) {
+            try {
+                ((Closeable) issues).close();
+            } catch (IOException e) {
+                // Only a temporary file is left behind.
+            }
+        }
+    }
+
+    private byte[] encode(Map<String, Object> issue) {
+        try {
+            return objectMapper.writeValueAsBytes(issue);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode replicated issue", e);
+        }
+    }
+
+    private Map<String, Object> decode(byte[] value) {
+        try {
+            return objectMapper.readValue(value, ISSUE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decode replicated issue", e);
+        }
+    }
+
+    private State loadState() {
+        if (Files.exists(stateFile)) {
+            try {
+                return objectMapper.readValue(stateFile.toFile(), State.class);
+            } catch (IOException e) {
+                // An unreadable state forces a full sync.
+            }
+        }
+        return new State();
+    }
+
+    private void saveState(State next) {
+        try {
+            Path temp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), next);
+            Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write replica state " + stateFile, e);
+        }
+    }
+}
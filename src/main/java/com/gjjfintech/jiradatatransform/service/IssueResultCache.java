@@ -0,0 +1,314 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches flattened JQL search results for a fixed time, bounded by their estimated memory weight.
+ *
+ * Results are held in a compact, immutable column form ({@link CompactIssues}) and every read
+ * rebuilds fresh maps, so callers may modify what they get. Each entry remembers the issue keys
+ * it contains; writing an issue drops every entry of the same instance containing it, and
+ * creating an issue drops every entry of the instance, since the new issue may match any query.
+ * Entries are otherwise dropped once their time to live passes or, least recently used first,
+ * when the total weight exceeds the limit.
+ */
+class IssueResultCache {
+
+    public static final String REQUESTS = "jira.result.cache.requests";
+    public static final String WEIGHT = "jira.result.cache.weight";
+    public static final String ENTRIES = "jira.result.cache.entries";
+    public static final String HIT_RATIO = "jira.result.cache.hit.ratio";
+
+    private static class Entry {
+        private final String instance;
+        private final CompactIssues issues;
+        private final long expiresAt;
+
+        private Entry(String instance, CompactIssues issues, long expiresAt) {
+            this.instance = instance;
+            this.issues = issues;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final long ttlNanos;
+    private final long maxWeight;
+
+    // Access-ordered, so iteration starts at the least recently used entry.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // "instance|issueKey" -> keys of the entries containing that issue.
+    private final Map<String, Set<String>> entriesByIssue = new HashMap<>();
+    // Bumped on every invalidation, so results computed across one are not cached.
+    private final Map<String, Long> generations = new HashMap<>();
+    private long weight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param ttlMillis time an entry is served for after it is stored.
+     * @param maxWeight upper bound on the estimated bytes held by all entries.
+     */
+    IssueResultCache(long ttlMillis, long maxWeight) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Registers the hit/miss counters and the hit ratio, weight and entry count gauges.
+     */
+    void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(REQUESTS, hits, AtomicLong::get).tag("result", "hit").register(registry);
+        FunctionCounter.builder(REQUESTS, misses, AtomicLong::get).tag("result", "miss").register(registry);
+        Gauge.builder(HIT_RATIO, this, IssueResultCache::hitRatio).register(registry);
+        Gauge.builder(WEIGHT, this, IssueResultCache::weight).baseUnit("bytes").register(registry);
+        Gauge.builder(ENTRIES, this, IssueResultCache::size).register(registry);
+    }
+
+    /**
+     * Returns the cached result for the key, or null if it is absent or expired.
+     */
+    synchronized CompactIssues get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.expiresAt >= 0) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.issues;
+    }
+
+    /**
+     * Returns the instance's invalidation generation; pass it to {@link #put} for a result
+     * computed after this call.
+     */
+    synchronized long generation(String instance) {
+        return generations.getOrDefault(instance, 0L);
+    }
+
+    /**
+     * Stores a result, unless the instance was invalidated since the given generation was read
+     * or the result alone is heavier than the limit.
+     */
+    synchronized void put(String key, String instance, long generation, CompactIssues issues) {
+        if (generation != generation(instance) || issues.weight() > maxWeight) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(instance, issues, System.nanoTime() + ttlNanos));
+        weight += issues.weight();
+        for (String issueKey : issues.issueKeys()) {
+            entriesByIssue.computeIfAbsent(instance + "|" + issueKey, k -> new HashSet<>()).add(key);
+        }
+        evict();
+    }
+
+    /**
+     * Drops every entry of the instance that contains the issue.
+     */
+    synchronized void invalidateIssue(String instance, String issueKey) {
+        generations.merge(instance, 1L, Long::sum);
+        Set<String> keys = entriesByIssue.get(instance + "|" + issueKey);
+        if (keys != null) {
+            for (String key : new ArrayList<>(keys)) {
+                remove(key);
+            }
+        }
+    }
+
+    /**
+     * Drops every entry of the instance.
+     */
+    synchronized void invalidateInstance(String instance) {
+        generations.merge(instance, 1L, Long::sum);
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().instance.equals(instance)) {
+                keys.add(entry.getKey());
+            }
+        }
+        keys.forEach(this::remove);
+    }
+
+    synchronized long weight() {
+        return weight;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        List<String> expired = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (now - entry.getValue().expiresAt >= 0) {
+                expired.add(entry.getKey());
+            }
+        }
+        expired.forEach(this::remove);
+        Iterator<Map.Entry<String, Entry>> leastRecentlyUsed = entries.entrySet().iterator();
+        while (weight > maxWeight && leastRecentlyUsed.hasNext()) {
+            Map.Entry<String, Entry> entry = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            unindex(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(String key, Entry entry) {
+        weight -= entry.issues.weight();
+        for (String issueKey : entry.issues.issueKeys()) {
+            String indexKey = entry.instance + "|" + issueKey;
+            Set<String> keys = entriesByIssue.get(indexKey);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                entriesByIssue.remove(indexKey);
+            }
+        }
+    }
+
+    /**
+     * Flattened issues keyed by issue key, stored column-wise: one shared array of field names
+     * and one value array per issue, with equal strings shared and string lists held as arrays.
+     */
+    static final class CompactIssues {
+        // Marks a field an issue does not have, as opposed to one mapped to null.
+        private static final Object ABSENT = new Object();
+
+        private final String[] issueKeys;
+        private final String[] fields;
+        private final Object[][] rows;
+        private final long weight;
+
+        private CompactIssues(String[] issueKeys, String[] fields, Object[][] rows, long weight) {
+            this.issueKeys = issueKeys;
+            this.fields = fields;
+            this.rows = rows;
+            this.weight = weight;
+        }
+
+        static CompactIssues of(Map<String, Map<String, Object>> issues) {
+            Map<String, Integer> fieldIndex = new LinkedHashMap<>();
+            for (Map<String, Object> issue : issues.values()) {
+                for (String field : issue.keySet()) {
+                    fieldIndex.putIfAbsent(field, fieldIndex.size());
+                }
+            }
+            Map<String, String> strings = new HashMap<>();
+            long weight = 64;
+            String[] fields = fieldIndex.keySet().toArray(new String[0]);
+            for (String field : fields) {
+                weight += stringWeight(field);
+            }
+            String[] issueKeys = new String[issues.size()];
+            Object[][] rows = new Object[issues.size()][];
+            int i = 0;
+            for (Map.Entry<String, Map<String, Object>> issue : issues.entrySet()) {
+                Object[] row = new Object[fields.length];
+                Arrays.fill(row, ABSENT);
+                for (Map.Entry<String, Object> field : issue.getValue().entrySet()) {
+                    Object value = field.getValue();
+                    if (value instanceof String) {
+                        value = share(strings, (String) value);
+                    } else if (value instanceof Collection && allStrings((Collection<?>) value)) {
+                        String[] values = new String[((Collection<?>) value).size()];
+                        int v = 0;
+                        for (Object element : (Collection<?>) value) {
+                            values[v++] = share(strings, (String) element);
+                        }
+                        weight += 16 + 4L * values.length;
+                        value = values;
+                    }
+                    row[fieldIndex.get(field.getKey())] = value;
+                }
+                issueKeys[i] = issue.getKey();
+                rows[i++] = row;
+                weight += stringWeight(issue.getKey()) + 16 + 4L * row.length;
+            }
+            for (String value : strings.keySet()) {
+                weight += stringWeight(value);
+            }
+            return new CompactIssues(issueKeys, fields, rows, weight);
+        }
+
+        /**
+         * Rebuilds the flattened issues as new, modifiable maps keyed by issue key.
+         */
+        Map<String, Map<String, Object>> toIssues() {
+            Map<String, Map<String, Object>> issues = new LinkedHashMap<>(issueKeys.length * 4 / 3 + 1);
+            for (int i = 0; i < issueKeys.length; i++) {
+                Map<String, Object> issue = new HashMap<>(fields.length * 4 / 3 + 1);
+                Object[] row = rows[i];
+                for (int f = 0; f < fields.length; f++) {
+                    Object value = row[f];
+                    if (value == ABSENT) {
+                        continue;
+                    }
+                    issue.put(fields[f], value instanceof String[] ? new ArrayList<>(Arrays.asList((String[]) value)) : value);
+                }
+                issues.put(issueKeys[i], issue);
+            }
+            return issues;
+        }
+
+        List<String> issueKeys() {
+            return Arrays.asList(issueKeys);
+        }
+
+        /**
+         * Estimated bytes held by this result.
+         */
+        long weight() {
+            return weight;
+        }
+
+        private static boolean allStrings(Collection<?> values) {
+            for (Object value : values) {
+                if (!(value instanceof String)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String share(Map<String, String> strings, String value) {
+            String shared = strings.putIfAbsent(value, value);
+            return shared != null ? shared : value;
+        }
+
+        // Object header, fields and backing array of a mostly Latin-1 string.
+        private static long stringWeight(String value) {
+            return 56 + value.length();
+        }
+    }
+}
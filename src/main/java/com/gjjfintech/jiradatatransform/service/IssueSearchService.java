@@ -0,0 +1,133 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.model.IssueSearchHit;
+import com.gjjfintech.jiradatatransform.util.FullTextIndex;
+import com.gjjfintech.jiradatatransform.util.RefreshingCache;
+import com.gjjfintech.jiradatatransform.util.StringUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full-text search over issue summaries (and other configured text fields), served from
+ * in-process inverted indexes instead of Jira "text ~" queries.
+ *
+ * A replicated instance has one index over its replica, filled from the replica and then
+ * updated issue by issue as polls change it. A search with an explicit JQL uses an index over
+ * that search's issues, built once and refreshed in the background like {@link IssueIndexService}.
+ */
+@Service
+public class IssueSearchService {
+
+    private final JiraIssueService jiraIssueService;
+    private final List<String> textFields = new ArrayList<>();
+    private final Map<String, FullTextIndex> replicaIndexes = new ConcurrentHashMap<>();
+    private final RefreshingCache<String, FullTextIndex> jqlIndexes;
+
+    public IssueSearchService(JiraIssueService jiraIssueService,
+                              @Value("${jira.search.fields:summary,labels}") String fields,
+                              @Value("${jira.search.ttl-seconds:120}") long ttlSeconds,
+                              @Value("${jira.search.max-stale-seconds:900}") long maxStaleSeconds,
+                              @Value("${jira.search.max-entries:32}") int maxEntries) {
+        this.jiraIssueService = jiraIssueService;
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                textFields.add(field.trim());
+            }
+        }
+        this.jqlIndexes = new RefreshingCache<>("issue-text-index", this::buildIndex,
+                Math.max(1, ttlSeconds) * 1000, maxStaleSeconds * 1000, 1, maxEntries);
+    }
+
+    /**
+     * Starts following the replicated instances.
+     */
+    @PostConstruct
+    void subscribe() {
+        for (boolean useSource : new boolean[]{true, false}) {
+            FullTextIndex index = new FullTextIndex();
+            if (jiraIssueService.subscribeToReplica(useSource, (key, issue) -> apply(index, key, issue))) {
+                replicaIndexes.put(instance(useSource), index);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jqlIndexes.close();
+    }
+
+    /**
+     * Returns the issues whose text contains every word of the query, best match first. The last
+     * word also matches as a prefix unless the query ends with a space.
+     *
+     * @param useSource if true, search the source instance; otherwise, the destination instance.
+     * @param jql       the issues to search; null for the instance's replica.
+     * @throws IllegalArgumentException if no JQL is given and the instance is not replicated.
+     */
+    public List<IssueSearchHit> search(boolean useSource, String jql, String query, int limit) {
+        FullTextIndex index;
+        if (jql == null || jql.isBlank()) {
+            index = replicaIndexes.get(instance(useSource));
+            if (index == null) {
+                throw new IllegalArgumentException("A jql parameter is required when the instance is not replicated");
+            }
+        } else {
+            index = jqlIndexes.get(instance(useSource) + "|" + StringUtils.normalizeJql(jql));
+        }
+        List<IssueSearchHit> hits = new ArrayList<>();
+        for (FullTextIndex.Hit hit : index.search(query, limit)) {
+            hits.add(new IssueSearchHit(hit.getKey(), hit.getTitle(), hit.getScore()));
+        }
+        return hits;
+    }
+
+    private FullTextIndex buildIndex(String key) {
+        int separator = key.indexOf('|');
+        boolean useSource = key.substring(0, separator).equals("source");
+        FullTextIndex index = new FullTextIndex();
+        Collection<Map<String, Object>> issues = jiraIssueService.getIssuesByJql(key.substring(separator + 1), useSource);
+        try {
+            for (Map<String, Object> issue : issues) {
+                Object issueKey = issue.get("issueKey");
+                if (issueKey instanceof String) {
+                    apply(index, (String) issueKey, issue);
+                }
+            }
+        } finally {
+            jiraIssueService.releaseIssues(issues);
+        }
+        return index;
+    }
+
+    private void apply(FullTextIndex index, String issueKey, Map<String, Object> issue) {
+        if (issue == null) {
+            index.remove(issueKey);
+            return;
+        }
+        List<String> texts = new ArrayList<>();
+        for (String field : textFields) {
+            Object value = issue.get(field);
+            if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) {
+                    texts.add(String.valueOf(element));
+                }
+            } else if (value != null) {
+                texts.add(value.toString());
+            }
+        }
+        Object summary = issue.get("summary");
+        index.put(issueKey, summary != null ? summary.toString() : null, texts);
+    }
+
+    private static String instance(boolean useSource) {
+        return useSource ? "source" : "destination";
+    }
+}
@@ -1,27 +1,56 @@
 package com.gjjfintech.jiradatatransform.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gjjfintech.jiradatatransform.client.JiraApiClient;
 import com.gjjfintech.jiradatatransform.client.JiraCsvClient;
 import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
 import com.gjjfintech.jiradatatransform.util.FileUtils;
+import com.gjjfintech.jiradatatransform.util.IssueBuffer;
 import com.gjjfintech.jiradatatransform.util.JsonNodeUtils;
+import com.gjjfintech.jiradatatransform.util.ParentFirstScheduler;
+import com.gjjfintech.jiradatatransform.util.SingleFlight;
 import com.gjjfintech.jiradatatransform.util.StringUtils;
+import com.gjjfintech.jiradatatransform.util.SyncJournal;
+import com.gjjfintech.jiradatatransform.util.TransformEvents;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 @Service
 public class JiraIssueService {
 
+    // Formatters for "DateAsString[pattern]" data types, keyed by the full dataType.
+    private static final Map<String, DateTimeFormatter> DATE_FORMATTERS = new ConcurrentHashMap<>();
+
     // Client and mapping for source instance
     private final JiraApiClient sourceJiraApiClient;
     private final JiraMappingProperties sourceMappingProperties;
@@ -34,6 +63,8 @@ public class JiraIssueService {
 
     private final ObjectMapper objectMapper;
 
+    private final SyncJournalService syncJournalService;
+
     // Data folder paths injected from configuration
     @Value("${jira.source.data-folder:}")
     private String sourceDataFolder;
@@ -41,18 +72,245 @@ public class JiraIssueService {
     @Value("${jira.destination.data-folder:}")
     private String destinationDataFolder;
 
+    // Flatten search results straight from the response stream instead of building a JSON tree.
+    @Value("${jira.client.streaming-extraction:true}")
+    private boolean streamingExtraction = true;
+
+    // Upper bound on concurrent Jira requests made by multi-search calls.
+    @Value("${jira.client.max-concurrent-requests:8}")
+    private int maxConcurrentRequests = 8;
+
+    // Compiled streaming flatteners, one per mapping configuration.
+    private final Map<JiraMappingProperties, StreamingIssueFlattener> streamingFlatteners = new IdentityHashMap<>();
+
+    // Identical searches running at the same time share one computation, keyed like the result cache.
+    // Each flight yields a supplier of the callers' own copies of the result.
+    private final SingleFlight<String, Supplier<Map<String, Map<String, Object>>>> searchFlights = new SingleFlight<>();
+
+    // Recent search results; null (the default outside Spring) disables caching.
+    private volatile IssueResultCache resultCache;
+
+    // Serialized search results kept on the heap before the rest is spilled to disk; 0 never spills.
+    @Value("${jira.buffer.memory-mb:64}")
+    private long issueBufferMemoryMb = 64;
+
+    // Folder for spilled search results; the system temp folder when empty.
+    @Value("${jira.buffer.folder:}")
+    private String issueBufferFolder;
+
+    // Folder for local issue replicas; replication is disabled when empty.
+    @Value("${jira.replica.folder:}")
+    private String replicaFolder;
+
+    // JQL selecting the issues replicated from each instance; an instance without one is not replicated.
+    @Value("${jira.replica.source-jql:}")
+    private String sourceReplicaJql;
+
+    @Value("${jira.replica.destination-jql:}")
+    private String destinationReplicaJql;
+
+    @Value("${jira.replica.poll-seconds:60}")
+    private long replicaPollSeconds = 60;
+
+    @Value("${jira.replica.full-sync-hours:24}")
+    private long replicaFullSyncHours = 24;
+
+    // Reads fall back to Jira once a replica's last successful poll is older than this.
+    @Value("${jira.replica.max-staleness-seconds:300}")
+    private long replicaMaxStalenessSeconds = 300;
+
+    @Value("${jira.replica.segment-mb:64}")
+    private long replicaSegmentMb = 64;
+
+    // Answer searches that the replica fully covers from an index over it, without asking Jira.
+    @Value("${jira.replica.local-jql:true}")
+    private boolean replicaLocalJql = true;
+
+    // Replicas by instance ("source", "destination").
+    private final Map<String, IssueReplica> replicas = new ConcurrentHashMap<>();
+    // Per replica, whether a write has asked for a poll that has not started yet.
+    private final Map<String, AtomicBoolean> replicaPollRequests = new ConcurrentHashMap<>();
+    // Index over each replica's issues, updated with the changes each poll reports.
+    private final Map<String, IssueIndex> replicaIndexes = new ConcurrentHashMap<>();
+    // Changes reported to each replica index since it was last updated; used on the poller only.
+    private final Map<String, Map<String, Map<String, Object>>> replicaIndexChanges = new ConcurrentHashMap<>();
+    private final Map<JiraMappingProperties, LocalJqlPlanner> jqlPlanners = new IdentityHashMap<>();
+    private ScheduledExecutorService replicaPoller;
+
+    private final Map<JiraMappingProperties, String> mappingVersions = new IdentityHashMap<>();
+
     @Autowired
     public JiraIssueService(
             @Qualifier("sourceJiraApiClient") JiraApiClient sourceJiraApiClient,
             @Qualifier("sourceMappingProperties") JiraMappingProperties sourceMappingProperties,
             @Qualifier("destinationJiraApiClient") JiraApiClient destinationJiraApiClient,
             @Qualifier("destinationMappingProperties") JiraMappingProperties destinationMappingProperties,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            SyncJournalService syncJournalService) {
         this.sourceJiraApiClient = sourceJiraApiClient;
         this.sourceMappingProperties = sourceMappingProperties;
         this.destinationJiraApiClient = destinationJiraApiClient;
         this.destinationMappingProperties = destinationMappingProperties;
         this.objectMapper = objectMapper;
+        this.syncJournalService = syncJournalService;
+    }
+
+    /**
+     * Enables the search result cache. A non-positive TTL or weight leaves caching disabled.
+     */
+    @Autowired
+    void configureResultCache(@Value("${jira.cache.ttl-seconds:120}") long ttlSeconds,
+                              @Value("${jira.cache.max-weight-mb:64}") long maxWeightMb,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        if (ttlSeconds <= 0 || maxWeightMb <= 0) {
+            resultCache = null;
+            return;
+        }
+        IssueResultCache cache = new IssueResultCache(TimeUnit.SECONDS.toMillis(ttlSeconds), maxWeightMb * 1024 * 1024);
+        meterRegistry.ifAvailable(cache::bindTo);
+        resultCache = cache;
+    }
+
+    /**
+     * Opens the configured issue replicas and starts polling Jira to keep them current.
+     */
+    @PostConstruct
+    void startReplicas() {
+        if (replicaFolder == null || replicaFolder.trim().isEmpty()) {
+            return;
+        }
+        openReplica("source", sourceReplicaJql, sourceJiraApiClient, sourceMappingProperties);
+        openReplica("destination", destinationReplicaJql, destinationJiraApiClient, destinationMappingProperties);
+        if (replicas.isEmpty()) {
+            return;
+        }
+        replicaPoller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jira-replica-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Map.Entry<String, IssueReplica> replica : replicas.entrySet()) {
+            replicaPoller.scheduleWithFixedDelay(() -> pollReplica(replica.getKey(), replica.getValue()), 0,
+                    Math.max(1, replicaPollSeconds), TimeUnit.SECONDS);
+        }
+    }
+
+    private void openReplica(String instance, String scopeJql, JiraApiClient client, JiraMappingProperties mappingProps) {
+        if (scopeJql == null || scopeJql.trim().isEmpty()) {
+            return;
+        }
+        Path folder = Paths.get(replicaFolder.trim(), instance);
+        replicas.put(instance, new IssueReplica(folder, replicaSegmentMb * 1024 * 1024, objectMapper, scopeJql.trim(),
+                mappingVersion(mappingProps), TimeUnit.HOURS.toMillis(replicaFullSyncHours),
+                jql -> searchFlattenedIssues(client, mappingProps, jql)));
+    }
+
+    private void pollReplica(String instance, IssueReplica replica) {
+        // This poll picks up every write made so far, so later writes must request another one.
+        replicaPollRequests.computeIfAbsent(instance, key -> new AtomicBoolean()).set(false);
+        try {
+            // Cached results may have been computed from the replica, so drop them when it changes.
+            IssueResultCache cache = resultCache;
+            int changed;
+            try {
+                changed = replica.poll();
+            } catch (RuntimeException e) {
+                // Changes stored before the failure were not reported, so rebuild the index next time.
+                replicaIndexes.remove(instance);
+                throw e;
+            }
+            if (replicaLocalJql) {
+                updateReplicaIndex(instance, replica);
+            }
+            if (changed > 0 && cache != null) {
+                cache.invalidateInstance(instance);
+            }
+        } catch (RuntimeException e) {
+            // Keep serving the replica until it exceeds the staleness bound; the next poll retries.
+        }
+    }
+
+    /**
+     * Builds the index over the instance's replica on the first poll, and afterwards applies the
+     * changes each poll reports to it, as IssueSearchService does for its text index. Runs on the
+     * replica poller, which also delivers the changes.
+     */
+    private void updateReplicaIndex(String instance, IssueReplica replica) {
+        JiraMappingProperties mappingProps = instance.equals("source") ? sourceMappingProperties : destinationMappingProperties;
+        Collection<String> fields = getJqlPlanner(mappingProps).indexedFields();
+        Map<String, Map<String, Object>> changes = replicaIndexChanges.computeIfAbsent(instance, key -> {
+            Map<String, Map<String, Object>> pending = new LinkedHashMap<>();
+            replica.addListener((issueKey, issue) -> pending.put(issueKey, issue != null ? indexedFields(issue, fields) : null));
+            return pending;
+        });
+        IssueIndex index = replicaIndexes.get(instance);
+        if (index == null) {
+            changes.clear();
+            List<Map<String, Object>> issues = new ArrayList<>();
+            replica.forEach((issueKey, issue) -> issues.add(indexedFields(issue, fields)));
+            replicaIndexes.put(instance, IssueIndex.build(issues, fields));
+        } else if (!changes.isEmpty()) {
+            index.update(changes);
+            changes.clear();
+        }
+    }
+
+    /**
+     * Returns the indexed fields of an issue; the index needs nothing else, and searches read the
+     * issues themselves from the replica.
+     */
+    private static Map<String, Object> indexedFields(Map<String, Object> issue, Collection<String> fields) {
+        Map<String, Object> indexed = new HashMap<>(fields.size() * 4 / 3 + 2);
+        indexed.put("issueKey", issue.get("issueKey"));
+        for (String field : fields) {
+            Object value = issue.get(field);
+            if (value != null) {
+                indexed.put(field, value);
+            }
+        }
+        return indexed;
+    }
+
+    @PreDestroy
+    void stopReplicas() {
+        if (replicaPoller != null) {
+            replicaPoller.shutdownNow();
+        }
+        replicas.values().forEach(IssueReplica::close);
+        replicas.clear();
+        replicaIndexes.clear();
+        replicaIndexChanges.clear();
+    }
+
+    /**
+     * Replays every issue in the instance's replica to the listener, then keeps calling it with
+     * each issue a poll adds or changes, and with a null issue for each one removed. Replay and
+     * updates run on the replica poller, in order. The issue maps must not be modified.
+     *
+     * @return false if the instance is not replicated.
+     */
+    public boolean subscribeToReplica(boolean useSource, BiConsumer<String, Map<String, Object>> listener) {
+        IssueReplica replica = replicas.get(useSource ? "source" : "destination");
+        if (replica == null || replicaPoller == null) {
+            return false;
+        }
+        replicaPoller.execute(() -> {
+            try {
+                replica.forEach(listener);
+            } catch (RuntimeException e) {
+                // A replica that cannot be read still delivers its later changes.
+            }
+            replica.addListener(listener);
+        });
+        return true;
+    }
+
+    /**
+     * Returns the scope JQL of the instance's issue replica, or null if it is not replicated.
+     */
+    public String getReplicaScopeJql(boolean useSource) {
+        IssueReplica replica = replicas.get(useSource ? "source" : "destination");
+        return replica != null ? replica.getScopeJql() : null;
     }
 
     public String getMyProfileDisplayName(boolean isSource) {
@@ -65,82 +323,466 @@ public class JiraIssueService {
     }
 
     public Collection<Map<String, Object>> getIssuesByFile(boolean useSource, boolean latestFile, String filename) {
+        JiraMappingProperties mappingProps = useSource ? sourceMappingProperties : destinationMappingProperties;
+        return jiraCsvClient.getIssuesByFile(resolveDataFile(useSource, latestFile, filename), mappingProps);
+    }
+
+    /**
+     * Returns the full path of the CSV file that {@link #getIssuesByFile} reads for the same arguments.
+     */
+    public String resolveDataFile(boolean useSource, boolean latestFile, String filename) {
         // Determine which data folder to use.
         String folder = useSource ? sourceDataFolder : destinationDataFolder;
-        JiraMappingProperties mappingProps = useSource ? sourceMappingProperties : destinationMappingProperties;
         if (folder == null || folder.trim().isEmpty()) {
             throw new IllegalStateException("Data folder is not configured for " + (useSource ? "source" : "destination"));
         }
         // Determine full path to CSV file.
-        String filePath = FileUtils.determineCsvFilePath(folder, latestFile, filename);
-
-        return jiraCsvClient.getIssuesByFile(filePath, mappingProps);
+        return FileUtils.determineCsvFilePath(folder, latestFile, filename);
     }
 
     /**
      * Searches for issues using the provided JQL in the chosen Jira instance and returns
      * a collection of flattened issues.
+     *
+     * Results are served from the result cache while fresh. Otherwise concurrent calls for the
+     * same instance and (normalized) JQL run the search and link expansion once. Each caller
+     * receives its own copy of the flattened issues; a result that spilled to disk is shared
+     * read-only, but each issue read from it is still a new map. Release the result with
+     * {@link #releaseIssues(Collection)} once it has been consumed.
      */
     public Collection<Map<String, Object>> getIssuesByJql(String jql, boolean useSource) {
-        Map<String, Map<String, Object>> allIssues = new HashMap<>();
+        return sharedResult("expanded", jql, useSource, () -> searchAndExpand(jql, useSource)).values();
+    }
+
+    /**
+     * Releases a search result once it has been consumed, deleting its spill file if it spilled
+     * to disk. Results held on the heap are left to the garbage collector, so this is a no-op
+     * for them, and releasing a result twice is harmless.
+     *
+     * Spilled results otherwise keep their files until they are garbage collected, which may be
+     * long after they were used, since they take little heap.
+     */
+    public void releaseIssues(Collection<Map<String, Object>> issues) {
+        if (issues instanceof Closeable) {
+            try {
+                ((Closeable) issues).close();
+            } catch (IOException e) {
+                // Closing only deletes a temporary file; nothing else can be done about it here.
+            }
+        }
+    }
 
+    /**
+     * Releases every search result of {@link #getIssuesByJql(Map, boolean)}.
+     */
+    public void releaseIssues(Map<String, Collection<Map<String, Object>>> issuesByName) {
+        issuesByName.values().forEach(this::releaseIssues);
+    }
+
+    private Map<String, Map<String, Object>> searchAndExpand(String jql, boolean useSource) {
         // Choose the appropriate Jira API client and mapping properties based on the flag.
         JiraApiClient client = useSource ? sourceJiraApiClient : destinationJiraApiClient;
         JiraMappingProperties mappingProps = useSource ? sourceMappingProperties : destinationMappingProperties;
 
         // 1. Fetch initial issues using the provided JQL.
-        JsonNode searchResult = client.searchIssues(jql);
-        JsonNode issuesArray = searchResult.get("issues");
-        if (issuesArray != null && issuesArray.isArray()) {
-            for (JsonNode issueNode : issuesArray) {
-                String issueKey = issueNode.get("key").asText();
-                Map<String, Object> flatIssue = flattenIssue(issueNode, mappingProps);
-                allIssues.put(issueKey, flatIssue);
-            }
-        }
-
-        // 2. Process each flattened issue for Parent Link and Dependant Issues.
-        Set<String> keysToProcess = new HashSet<>(allIssues.keySet());
-        for (String key : keysToProcess) {
-            Map<String, Object> flatIssue = allIssues.get(key);
-
-            // Process Parent Link (if present)
-            if (flatIssue.containsKey("parentLink")) {
-                String parentKey = (String) flatIssue.get("parentLink");
-                if (parentKey != null && !parentKey.isEmpty() && !allIssues.containsKey(parentKey)) {
-                    JsonNode parentIssueNode = client.getIssue(parentKey);
-                    if (parentIssueNode != null) {
-                        Map<String, Object> flatParent = flattenIssue(parentIssueNode, mappingProps);
-                        allIssues.put(parentKey, flatParent);
+        Map<String, Map<String, Object>> allIssues = searchIssues(client, mappingProps, jql, useSource);
+
+        // 2. Fetch the Parent Link and Dependant Issues that the search did not return.
+        TransformEvents.LinkExpansion event = new TransformEvents.LinkExpansion();
+        event.begin();
+        int searchedIssues = allIssues.size();
+        Set<String> missingKeys = new LinkedHashSet<>();
+        for (Map<String, Object> flatIssue : allIssues.values()) {
+            for (String linkedKey : linkedIssueKeys(flatIssue)) {
+                if (!allIssues.containsKey(linkedKey)) {
+                    missingKeys.add(linkedKey);
+                }
+            }
+        }
+        for (String linkedKey : missingKeys) {
+            Map<String, Object> flatLinked = fetchIssue(client, mappingProps, linkedKey, useSource);
+            if (flatLinked != null) {
+                allIssues.put(linkedKey, flatLinked);
+            }
+        }
+        commitLinkExpansion(event, useSource, searchedIssues, allIssues.size() - searchedIssues);
+        return allIssues;
+    }
+
+    /**
+     * Runs several JQL searches concurrently against the chosen Jira instance and returns the
+     * flattened issues of each search under the same name it was given with.
+     *
+     * Parent links and dependant issues are resolved once across all searches: an issue returned
+     * by any of the searches is reused, and every other linked issue is fetched exactly once,
+     * no matter how many searches refer to it.
+     *
+     * @param jqlByName the searches to run, keyed by a caller-chosen name (e.g. the quarter).
+     * @param useSource if true, search the source instance; otherwise, the destination instance.
+     * @return the flattened issues per search, in the iteration order of jqlByName; release them
+     *         with {@link #releaseIssues(Map)} once consumed.
+     */
+    public Map<String, Collection<Map<String, Object>>> getIssuesByJql(Map<String, String> jqlByName, boolean useSource) {
+        JiraApiClient client = useSource ? sourceJiraApiClient : destinationJiraApiClient;
+        JiraMappingProperties mappingProps = useSource ? sourceMappingProperties : destinationMappingProperties;
+        Map<String, Collection<Map<String, Object>>> results = new LinkedHashMap<>();
+        if (jqlByName.isEmpty()) {
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentRequests));
+        Map<String, Map<String, Map<String, Object>>> searchResults = new LinkedHashMap<>();
+        try {
+            // 1. Run every search concurrently.
+            Map<String, CompletableFuture<Map<String, Map<String, Object>>>> searches = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entry : jqlByName.entrySet()) {
+                searches.put(entry.getKey(), CompletableFuture.supplyAsync(
+                        () -> sharedSearch(client, mappingProps, entry.getValue(), useSource), executor));
+            }
+            // Only the keys of the searched issues are kept, so spilled results stay on disk.
+            Set<String> searchedKeys = new HashSet<>();
+            for (Map.Entry<String, CompletableFuture<Map<String, Map<String, Object>>>> search : searches.entrySet()) {
+                Map<String, Map<String, Object>> issues = join(search.getValue());
+                searchResults.put(search.getKey(), issues);
+                searchedKeys.addAll(issues.keySet());
+            }
+
+            // 2. Fetch each linked issue that no search returned, once, concurrently.
+            TransformEvents.LinkExpansion event = new TransformEvents.LinkExpansion();
+            event.begin();
+            Set<String> missingKeys = new LinkedHashSet<>();
+            for (Map<String, Map<String, Object>> issues : searchResults.values()) {
+                for (Map<String, Object> flatIssue : issues.values()) {
+                    for (String linkedKey : linkedIssueKeys(flatIssue)) {
+                        if (!searchedKeys.contains(linkedKey)) {
+                            missingKeys.add(linkedKey);
+                        }
                     }
                 }
             }
+            Map<String, CompletableFuture<Map<String, Object>>> fetches = new HashMap<>();
+            for (String key : missingKeys) {
+                fetches.put(key, CompletableFuture.supplyAsync(() -> fetchIssue(client, mappingProps, key, useSource), executor));
+            }
+            Map<String, Map<String, Object>> fetchedIssues = new HashMap<>();
+            for (Map.Entry<String, CompletableFuture<Map<String, Object>>> fetch : fetches.entrySet()) {
+                Map<String, Object> flatLinked = join(fetch.getValue());
+                if (flatLinked != null) {
+                    fetchedIssues.put(fetch.getKey(), flatLinked);
+                }
+            }
+            commitLinkExpansion(event, useSource, searchedKeys.size(), fetchedIssues.size());
 
-            // Process Dependant Issues (if present)
-            if (flatIssue.containsKey("dependantIssues")) {
-                Object depsObj = flatIssue.get("dependantIssues");
-                if (depsObj instanceof List) {
-                    List<String> depKeys = (List<String>) depsObj;
-                    for (String depKey : depKeys) {
-                        if (!allIssues.containsKey(depKey)) {
-                            JsonNode depIssueNode = client.getIssue(depKey);
-                            if (depIssueNode != null) {
-                                Map<String, Object> flatDep = flattenIssue(depIssueNode, mappingProps);
-                                allIssues.put(depKey, flatDep);
-                            }
+            // 3. Follow each search's results with its linked issues. Search results may be shared
+            // with other callers, so the linked issues are collected separately rather than added.
+            for (Map.Entry<String, Map<String, Map<String, Object>>> search : searchResults.entrySet()) {
+                Map<String, Map<String, Object>> issues = search.getValue();
+                Map<String, Map<String, Object>> linkedIssues = new LinkedHashMap<>();
+                for (Map<String, Object> flatIssue : issues.values()) {
+                    for (String linkedKey : linkedIssueKeys(flatIssue)) {
+                        if (issues.containsKey(linkedKey) || linkedIssues.containsKey(linkedKey)) {
+                            continue;
+                        }
+                        Map<String, Object> flatLinked = fetchedIssues.get(linkedKey);
+                        for (Iterator<Map<String, Map<String, Object>>> other = searchResults.values().iterator();
+                             flatLinked == null && other.hasNext(); ) {
+                            flatLinked = other.next().get(linkedKey);
+                        }
+                        if (flatLinked != null) {
+                            linkedIssues.put(linkedKey, flatLinked);
                         }
                     }
                 }
+                results.put(search.getKey(), linkedIssues.isEmpty() ? issues.values()
+                        : new SearchWithLinks(issues.values(), linkedIssues.values()));
+            }
+            return results;
+        } catch (RuntimeException e) {
+            searchResults.values().forEach(issues -> releaseIssues(issues.values()));
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a JQL search (without link expansion), sharing cached and in-flight results like
+     * {@link #getIssuesByJql(String, boolean)}. The result is a private copy of the flattened
+     * issues, or a read-only view of them when they spilled to disk.
+     */
+    private Map<String, Map<String, Object>> sharedSearch(JiraApiClient client, JiraMappingProperties mappingProps,
+                                                          String jql, boolean useSource) {
+        return sharedResult("search", jql, useSource, () -> searchIssues(client, mappingProps, jql, useSource));
+    }
+
+    /**
+     * Returns the cached result for the search, or computes it once for all concurrent callers
+     * and caches it. Keys combine the kind of result, the instance, the mapping version and the
+     * normalized JQL.
+     *
+     * A result that spilled to disk is neither cached nor copied: each concurrent caller gets its
+     * own read-only view of the {@link IssueBuffer}, whose reads already return new maps. The
+     * spill file is deleted once every caller has released its view.
+     */
+    private Map<String, Map<String, Object>> sharedResult(String kind, String jql, boolean useSource,
+                                                          Supplier<Map<String, Map<String, Object>>> search) {
+        String instance = useSource ? "source" : "destination";
+        JiraMappingProperties mappingProps = useSource ? sourceMappingProperties : destinationMappingProperties;
+        String key = kind + "|" + instance + "|" + mappingVersion(mappingProps) + "|" + StringUtils.normalizeJql(jql);
+        IssueResultCache cache = resultCache;
+        IssueResultCache.CompactIssues cached = cache != null ? cache.get(key) : null;
+        if (cached != null) {
+            return cached.toIssues();
+        }
+        return searchFlights.execute(key, () -> {
+            long generation = cache != null ? cache.generation(instance) : 0;
+            Map<String, Map<String, Object>> result = search.get();
+            if (result instanceof IssueBuffer && ((IssueBuffer) result).isSpilled()) {
+                return new SpilledResult((IssueBuffer) result);
+            }
+            IssueResultCache.CompactIssues issues = IssueResultCache.CompactIssues.of(result);
+            if (cache != null) {
+                cache.put(key, instance, generation, issues);
+            }
+            return issues::toIssues;
+        }, (result, callers) -> {
+            if (result instanceof SpilledResult) {
+                ((SpilledResult) result).share(callers);
+            }
+        }).get();
+    }
+
+    /**
+     * Returns a fingerprint of the mapping configuration, so results flattened under a different
+     * mapping are never served from the cache.
+     */
+    private String mappingVersion(JiraMappingProperties mappingProps) {
+        if (mappingProps == null) {
+            return "none";
+        }
+        synchronized (mappingVersions) {
+            return mappingVersions.computeIfAbsent(mappingProps, props -> {
+                try {
+                    return Integer.toHexString(objectMapper.writeValueAsString(props).hashCode());
+                } catch (JsonProcessingException e) {
+                    return Integer.toHexString(System.identityHashCode(props));
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the flattened issues for the JQL, from the instance's replica when the replica is
+     * within the staleness bound and either the JQL is the replica's scope or the local planner
+     * can answer it, and from Jira otherwise.
+     */
+    private Map<String, Map<String, Object>> searchIssues(JiraApiClient client, JiraMappingProperties mappingProps,
+                                                          String jql, boolean useSource) {
+        TransformEvents.Search event = new TransformEvents.Search();
+        event.begin();
+        IssueReplica replica = freshReplica(useSource);
+        if (replica != null && StringUtils.normalizeJql(jql).equals(StringUtils.normalizeJql(replica.getScopeJql()))) {
+            // The whole scope: stream it into a buffer, which spills to disk past its memory budget.
+            IssueBuffer issues = newIssueBuffer();
+            try {
+                replica.forEach(issues::put);
+            } catch (RuntimeException e) {
+                issues.close();
+                throw e;
+            }
+            return commitSearch(event, useSource, jql, "replica", issues);
+        }
+        IssueIndex index = replica != null && replicaLocalJql ? replicaIndexes.get(useSource ? "source" : "destination") : null;
+        List<String> localKeys = index != null
+                ? index.read(() -> getJqlPlanner(mappingProps).search(jql, replica.getScopeJql(), index)) : null;
+        if (localKeys != null) {
+            // Read from the replica rather than the index, so callers get their own copies.
+            Map<String, Map<String, Object>> issues = new LinkedHashMap<>(localKeys.size() * 4 / 3 + 1);
+            for (String key : localKeys) {
+                Map<String, Object> issue = replica.get(key);
+                if (issue != null) {
+                    issues.put(key, issue);
+                }
+            }
+            return commitSearch(event, useSource, jql, "local-jql", issues);
+        }
+        return commitSearch(event, useSource, jql, "jira", searchFlattenedIssues(client, mappingProps, jql));
+    }
+
+    private static Map<String, Map<String, Object>> commitSearch(TransformEvents.Search event, boolean useSource,
+                                                                 String jql, String answeredBy,
+                                                                 Map<String, Map<String, Object>> issues) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.instance = useSource ? "source" : "destination";
+            event.jql = jql;
+            event.answeredBy = answeredBy;
+            event.issues = issues.size();
+            event.commit();
+        }
+        return issues;
+    }
+
+    private IssueBuffer newIssueBuffer() {
+        return new IssueBuffer(issueBufferMemoryMb * 1024 * 1024,
+                issueBufferFolder != null && !issueBufferFolder.trim().isEmpty() ? Paths.get(issueBufferFolder.trim()) : null);
+    }
+
+    private LocalJqlPlanner getJqlPlanner(JiraMappingProperties mappingProps) {
+        synchronized (jqlPlanners) {
+            return jqlPlanners.computeIfAbsent(mappingProps, LocalJqlPlanner::new);
+        }
+    }
+
+    /**
+     * Returns a single flattened issue, from the instance's replica when it holds the issue and
+     * is within the staleness bound, and from Jira otherwise.
+     */
+    private Map<String, Object> fetchIssue(JiraApiClient client, JiraMappingProperties mappingProps, String issueKey,
+                                           boolean useSource) {
+        TransformEvents.IssueFetch event = new TransformEvents.IssueFetch();
+        event.begin();
+        IssueReplica replica = freshReplica(useSource);
+        Map<String, Object> replicated = replica != null ? replica.get(issueKey) : null;
+        Map<String, Object> issue = replicated != null ? replicated : fetchFlattenedIssue(client, mappingProps, issueKey);
+        event.end();
+        if (event.shouldCommit()) {
+            event.instance = useSource ? "source" : "destination";
+            event.issueKey = issueKey;
+            event.fromReplica = replicated != null;
+            event.found = issue != null;
+            event.commit();
+        }
+        return issue;
+    }
+
+    private static void commitLinkExpansion(TransformEvents.LinkExpansion event, boolean useSource, int searchedIssues,
+                                            int fetchedIssues) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.instance = useSource ? "source" : "destination";
+            event.searchedIssues = searchedIssues;
+            event.fetchedIssues = fetchedIssues;
+            event.commit();
+        }
+    }
+
+    private IssueReplica freshReplica(boolean useSource) {
+        IssueReplica replica = replicas.get(useSource ? "source" : "destination");
+        return replica != null && replica.isFresh(TimeUnit.SECONDS.toMillis(replicaMaxStalenessSeconds)) ? replica : null;
+    }
+
+    /**
+     * Runs a JQL search and returns the flattened issues keyed by issue key, in a buffer that
+     * spills to disk beyond jira.buffer.memory-mb.
+     */
+    private Map<String, Map<String, Object>> searchFlattenedIssues(JiraApiClient client, JiraMappingProperties mappingProps,
+                                                                   String jql) {
+        Map<String, Map<String, Object>> allIssues = newIssueBuffer();
+        if (streamingExtraction) {
+            StreamingIssueFlattener flattener = getStreamingFlattener(mappingProps);
+            client.searchIssues(jql, parser -> {
+                Map.Entry<String, Map<String, Object>> issue = flattenStreamed(flattener, parser);
+                allIssues.put(issue.getKey(), issue.getValue());
+                return null;
+            });
+        } else {
+            JsonNode searchResult = client.searchIssues(jql);
+            JsonNode issuesArray = searchResult.get("issues");
+            if (issuesArray != null && issuesArray.isArray()) {
+                for (JsonNode issueNode : issuesArray) {
+                    String issueKey = issueNode.get("key").asText();
+                    Map<String, Object> flatIssue = flattenTimed(issueKey, issueNode, mappingProps);
+                    allIssues.put(issueKey, flatIssue);
+                }
             }
         }
-        return allIssues.values();
+        return allIssues;
+    }
+
+    /**
+     * Returns the keys of the Parent Link and Dependant Issues of a flattened issue, in that order.
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> linkedIssueKeys(Map<String, Object> flatIssue) {
+        List<String> keys = new ArrayList<>();
+        Object parentKey = flatIssue.get("parentLink");
+        if (parentKey instanceof String && !((String) parentKey).isEmpty()) {
+            keys.add((String) parentKey);
+        }
+        Object depsObj = flatIssue.get("dependantIssues");
+        if (depsObj instanceof List) {
+            keys.addAll((List<String>) depsObj);
+        }
+        return keys;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Fetches a single issue by key and flattens it, using the streaming path when enabled.
+     */
+    private Map<String, Object> fetchFlattenedIssue(JiraApiClient client, JiraMappingProperties mappingProps, String issueKey) {
+        if (streamingExtraction) {
+            StreamingIssueFlattener flattener = getStreamingFlattener(mappingProps);
+            return client.getIssue(issueKey, parser -> flattenStreamed(flattener, parser).getValue());
+        }
+        JsonNode issueNode = client.getIssue(issueKey);
+        return issueNode != null ? flattenTimed(issueKey, issueNode, mappingProps) : null;
     }
 
+    /**
+     * Reads and flattens one issue from a response stream, emitting an IssueFlatten event.
+     */
+    private static Map.Entry<String, Map<String, Object>> flattenStreamed(StreamingIssueFlattener flattener,
+                                                                         JsonParser parser) throws IOException {
+        TransformEvents.IssueFlatten event = new TransformEvents.IssueFlatten();
+        event.begin();
+        Map.Entry<String, Map<String, Object>> issue = flattener.flatten(parser);
+        event.end();
+        if (event.shouldCommit()) {
+            event.issueKey = issue.getKey();
+            event.fields = issue.getValue().size();
+            event.commit();
+        }
+        return issue;
+    }
+
+    /**
+     * Flattens one issue tree, emitting an IssueFlatten event.
+     */
+    private Map<String, Object> flattenTimed(String issueKey, JsonNode issueNode, JiraMappingProperties mappingProps) {
+        TransformEvents.IssueFlatten event = new TransformEvents.IssueFlatten();
+        event.begin();
+        Map<String, Object> flatIssue = flattenIssue(issueNode, mappingProps);
+        event.end();
+        if (event.shouldCommit()) {
+            event.issueKey = issueKey;
+            event.fields = flatIssue.size();
+            event.commit();
+        }
+        return flatIssue;
+    }
+
+    private StreamingIssueFlattener getStreamingFlattener(JiraMappingProperties mappingProps) {
+        synchronized (streamingFlatteners) {
+            return streamingFlatteners.computeIfAbsent(mappingProps, StreamingIssueFlattener::new);
+        }
+    }
 
     /**
      * Flattens a single Jira issue using the provided mapping configuration.
      */
-    private Map<String, Object> flattenIssue(JsonNode issue, JiraMappingProperties mappingProps) {
+    Map<String, Object> flattenIssue(JsonNode issue, JiraMappingProperties mappingProps) {
         Map<String, Object> flat = new HashMap<>();
         for (Map.Entry<String, JiraMappingProperties.FieldMapping> entry : mappingProps.getJiraFieldMappings().entrySet()) {
             String displayName = entry.getKey();
@@ -180,8 +822,19 @@ public class JiraIssueService {
      *
      * @param isSource if true, operate on the source instance; otherwise, operate on the destination instance.
      * @param issueData a flattened map of the key fields.
+     * @return the key of the updated or newly created issue.
+     */
+    public String updateOrCreateIssue(boolean isSource, Map<String, Object> issueData) {
+        return updateOrCreateIssue(isSource, issueData, null);
+    }
+
+    /**
+     * Updates or creates a single Jira issue, as {@link #updateOrCreateIssue(boolean, Map)}, and
+     * sets its parent to the given issue key unless that is null.
      */
-    public void updateOrCreateIssue(boolean isSource, Map<String, Object> issueData) {
+    String updateOrCreateIssue(boolean isSource, Map<String, Object> issueData, String parentKey) {
+        TransformEvents.IssueWrite event = new TransformEvents.IssueWrite();
+        event.begin();
         // Choose the appropriate Jira API client and mapping configuration.
         JiraApiClient client = isSource ? sourceJiraApiClient : destinationJiraApiClient;
         JiraMappingProperties mappingProps = isSource ? sourceMappingProperties : destinationMappingProperties;
@@ -192,6 +845,17 @@ public class JiraIssueService {
             String displayName = entry.getKey();
             JiraMappingProperties.FieldMapping mapping = entry.getValue();
             // Skip special fields: linking IDs, parent links, or issue links.
+            if (parentKey != null && mapping.getIsParentLink() != null && mapping.getIsParentLink()
+                    && mapping.getIssueAttributeName() != null) {
+                // The parent is written as a nested object, e.g. fields.parent.key -> {"parent": {"key": ...}}.
+                String[] path = mapping.getIssueAttributeName().replaceFirst("^fields\\.", "").split("\\.");
+                Object value = parentKey;
+                for (int i = path.length - 1; i > 0; i--) {
+                    value = Collections.singletonMap(path[i], value);
+                }
+                fieldsPayload.put(path[0], value);
+                continue;
+            }
             if ((mapping.getIsLinkingId() != null && mapping.getIsLinkingId()) ||
                     (mapping.getIsParentLink() != null && mapping.getIsParentLink()) ||
                     mapping.getIssueLink() != null) {
@@ -223,6 +887,8 @@ public class JiraIssueService {
             payload.put("fields", fieldsPayload);
             payloadNode = objectMapper.valueToTree(payload);
             client.updateIssue(issueKey, payloadNode);
+            invalidateCachedResults(isSource, issueKey);
+            return commitWrite(event, isSource, "update", issueKey, parentKey);
         } else {
             // Creation scenario: require a "projectKey" in the flattened data.
             String projectKey = (String) issueData.get("projectKey");
@@ -244,7 +910,47 @@ public class JiraIssueService {
 
             payload.put("fields", fieldsPayload);
             payloadNode = objectMapper.valueToTree(payload);
-            client.createIssue(payloadNode);
+            JsonNode created = client.createIssue(payloadNode);
+            invalidateCachedResults(isSource, null);
+            JsonNode createdKey = created != null ? created.get("key") : null;
+            return commitWrite(event, isSource, "create", createdKey != null ? createdKey.asText() : null, parentKey);
+        }
+    }
+
+    private static String commitWrite(TransformEvents.IssueWrite event, boolean isSource, String operation,
+                                      String issueKey, String parentKey) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.instance = isSource ? "source" : "destination";
+            event.operation = operation;
+            event.issueKey = issueKey;
+            event.parentKey = parentKey;
+            event.commit();
+        }
+        return issueKey;
+    }
+
+    /**
+     * Drops cached search results containing the written issue, or every cached result of the
+     * instance after a creation (issueKey null), since a new issue may match any query.
+     */
+    private void invalidateCachedResults(boolean isSource, String issueKey) {
+        String instance = isSource ? "source" : "destination";
+        IssueReplica replica = replicas.get(instance);
+        if (replica != null && replicaPoller != null
+                && replicaPollRequests.computeIfAbsent(instance, key -> new AtomicBoolean()).compareAndSet(false, true)) {
+            // Pick the write up in the replica now rather than at the next scheduled poll. Writes
+            // made before that poll starts share it, so a sync queues one poll rather than one per issue.
+            replicaPoller.execute(() -> pollReplica(instance, replica));
+        }
+        IssueResultCache cache = resultCache;
+        if (cache == null) {
+            return;
+        }
+        if (issueKey != null) {
+            cache.invalidateIssue(instance, issueKey);
+        } else {
+            cache.invalidateInstance(instance);
         }
     }
 
@@ -257,26 +963,108 @@ public class JiraIssueService {
      * @param sourceIssues the collection of flattened source issues.
      */
     public void synchronizeIssuesToDestination(Collection<Map<String, Object>> sourceIssues) {
-        for (Map<String, Object> sourceIssue : sourceIssues) {
-            // Check the External Linking ID field.
+        synchronizeIssuesToDestination(sourceIssues, null);
+    }
+
+    /**
+     * Synchronizes a collection of source issues to the destination Jira instance, recording
+     * each outcome in the job's sync journal (when journaling is configured).
+     *
+     * Issues already recorded by an earlier, interrupted run of the same job are skipped, so a
+     * restarted job does not repeat updates or create duplicate destination issues. The journal
+     * is removed once the job runs to completion.
+     *
+     * Up to jira.client.max-concurrent-requests writes run at once. An issue whose source parent
+     * is also being synced is written only after its parent, and is linked to the parent's
+     * destination issue. After a failed write no new writes start; the failure is thrown once
+     * the running ones finish. A journal that cannot be written fails the sync the same way,
+     * since a later run could not resume from it.
+     *
+     * @param sourceIssues the collection of flattened source issues.
+     * @param jobId        identifies the job for resumption; null disables journaling.
+     */
+    public void synchronizeIssuesToDestination(Collection<Map<String, Object>> sourceIssues, String jobId) {
+        TransformEvents.Sync event = new TransformEvents.Sync();
+        event.begin();
+        SyncJournal journal = syncJournalService.open(jobId);
+        Map<String, String> written = Collections.emptyMap();
+        boolean completed = false;
+        // Select the issues to write, keyed by source key, with their source parents.
+        IssueBuffer pending = newIssueBuffer();
+        try {
             String extLinkKey = StringUtils.toCamelCase("External Linking ID");
-            String externalLinkingId = (String) sourceIssue.get(extLinkKey);
-            if (externalLinkingId == null || externalLinkingId.trim().isEmpty()) {
-                // Skip this issue if no External Linking ID.
-                continue;
-            }
-            // If the External Linking ID is not "[New]", then override the "issueKey"
-            // so that the destination issue key is used.
-            if (!externalLinkingId.trim().startsWith("[")) {
-                sourceIssue.put("issueKey", externalLinkingId.trim());
-            } else {
-                sourceIssue.remove("issueKey");
-                sourceIssue.put("projectKey", externalLinkingId.trim().substring(1, externalLinkingId.trim().length()-1));
+            Map<String, String> parents = new LinkedHashMap<>();
+            for (Map<String, Object> sourceIssue : sourceIssues) {
+                // Capture the source key before it is replaced by the destination key below.
+                String sourceKey = (String) sourceIssue.get("issueKey");
+                if (journal != null && sourceKey != null && journal.isCompleted(sourceKey)) {
+                    continue;
+                }
+
+                // Check the External Linking ID field.
+                String externalLinkingId = (String) sourceIssue.get(extLinkKey);
+                if (externalLinkingId == null || externalLinkingId.trim().isEmpty()) {
+                    // Skip this issue if no External Linking ID.
+                    continue;
+                }
+                String item = sourceKey != null ? sourceKey : "#" + pending.size();
+                pending.put(item, sourceIssue);
+                Object parentKey = sourceIssue.get("parentLink");
+                parents.put(item, parentKey instanceof String && !((String) parentKey).isEmpty() ? (String) parentKey : null);
             }
-            sourceIssue.remove(extLinkKey);
 
-            // Now process the issue.
-            updateOrCreateIssue(false, sourceIssue);
+            // Write parents before their children, and unrelated issues in parallel. A child is
+            // pointed at its parent's destination issue when the parent was written by this job,
+            // now or in an interrupted earlier run.
+            written = ParentFirstScheduler.run(parents, maxConcurrentRequests, (String item, String parentDestinationKey) -> {
+                Map<String, Object> sourceIssue = pending.get(item);
+                String sourceKey = (String) sourceIssue.get("issueKey");
+                if (parentDestinationKey == null && journal != null && parents.get(item) != null) {
+                    SyncJournal.Entry parentEntry = journal.getCompleted(parents.get(item));
+                    parentDestinationKey = parentEntry != null ? parentEntry.getDestinationKey() : null;
+                }
+                // If the External Linking ID is not "[New]", then override the "issueKey"
+                // so that the destination issue key is used.
+                String externalLinkingId = ((String) sourceIssue.get(extLinkKey)).trim();
+                boolean isCreate = externalLinkingId.startsWith("[");
+                if (!isCreate) {
+                    sourceIssue.put("issueKey", externalLinkingId);
+                } else {
+                    sourceIssue.remove("issueKey");
+                    sourceIssue.put("projectKey", externalLinkingId.substring(1, externalLinkingId.length() - 1));
+                }
+                sourceIssue.remove(extLinkKey);
+
+                // Now process the issue.
+                String destinationKey = updateOrCreateIssue(false, sourceIssue, parentDestinationKey);
+                if (journal != null && sourceKey != null) {
+                    journal.append(sourceKey, isCreate ? SyncJournal.Outcome.CREATED : SyncJournal.Outcome.UPDATED,
+                            destinationKey);
+                }
+                return destinationKey;
+            });
+            if (journal != null) {
+                // Appends fail once a commit has failed; this also catches one failing in the last batch.
+                journal.flush();
+            }
+            completed = true;
+        } finally {
+            pending.close();
+            if (journal != null) {
+                if (completed) {
+                    journal.delete();
+                } else {
+                    journal.close();
+                }
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.jobId = jobId;
+                event.sourceIssues = sourceIssues.size();
+                event.writtenIssues = written.size();
+                event.completed = completed;
+                event.commit();
+            }
         }
     }
 
@@ -285,20 +1073,27 @@ public class JiraIssueService {
      * - For "String" or "String[IssueKey]", simply return the text.
      * - For "DateAsString[pattern]", verify/format the date.
      */
-    private String processValue(JsonNode valueNode, String dataType) {
+    String processValue(JsonNode valueNode, String dataType) {
+        return processTextValue(valueNode.asText(), dataType);
+    }
+
+    /**
+     * Processes the text of a value based on its dataType; shared by the tree and streaming flatteners.
+     */
+    static String processTextValue(String text, String dataType) {
         if (dataType == null || (dataType.startsWith("String") && !dataType.startsWith("String["))) {
-            return valueNode.asText();
+            return text;
         } else if (dataType.startsWith("DateAsString")) {
-            String pattern = dataType.substring(dataType.indexOf('[') + 1, dataType.indexOf(']'));
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+            DateTimeFormatter formatter = DATE_FORMATTERS.computeIfAbsent(dataType, type ->
+                    DateTimeFormatter.ofPattern(type.substring(type.indexOf('[') + 1, type.indexOf(']'))));
             try {
-                LocalDate date = LocalDate.parse(valueNode.asText(), formatter);
+                LocalDate date = LocalDate.parse(text, formatter);
                 return date.format(formatter);
             } catch (Exception e) {
-                return valueNode.asText();
+                return text;
             }
         }
-        return valueNode.asText();
+        return text;
     }
 
     /**
@@ -334,4 +1129,72 @@ public class JiraIssueService {
         }
         return linkedIssueKeys;
     }
+
+    /**
+     * The issues of a search followed by the linked issues it does not contain, without copying
+     * the search result.
+     */
+    private static final class SearchWithLinks extends AbstractCollection<Map<String, Object>> implements Closeable {
+        private final Collection<Map<String, Object>> searched;
+        private final Collection<Map<String, Object>> linked;
+
+        private SearchWithLinks(Collection<Map<String, Object>> searched, Collection<Map<String, Object>> linked) {
+            this.searched = searched;
+            this.linked = linked;
+        }
+
+        @Override
+        public Iterator<Map<String, Object>> iterator() {
+            Iterator<Map<String, Object>> first = searched.iterator();
+            Iterator<Map<String, Object>> second = linked.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return first.hasNext() || second.hasNext();
+                }
+
+                @Override
+                public Map<String, Object> next() {
+                    return first.hasNext() ? first.next() : second.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return searched.size() + linked.size();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (searched instanceof Closeable) {
+                ((Closeable) searched).close();
+            }
+        }
+    }
+
+    /**
+     * A spilled search result shared by the callers of one search flight. Each caller takes a
+     * view of its own, and the buffer is closed once every view is.
+     */
+    private static final class SpilledResult implements Supplier<Map<String, Map<String, Object>>> {
+        private final IssueBuffer buffer;
+        private final Queue<IssueBuffer.View> views = new ConcurrentLinkedQueue<>();
+
+        private SpilledResult(IssueBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private void share(int callers) {
+            for (int i = 0; i < callers; i++) {
+                views.add(buffer.view());
+            }
+            buffer.close();
+        }
+
+        @Override
+        public Map<String, Map<String, Object>> get() {
+            return views.remove();
+        }
+    }
 }
@@ -0,0 +1,443 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.util.Postings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * A parsed query in the subset of JQL that can be answered from local indexes: {@code field = value}
+ * and {@code field in (value, ...)} clauses combined with AND, OR and parentheses, optionally
+ * followed by {@code ORDER BY key [ASC|DESC]}.
+ *
+ * Field names and keywords are case-insensitive, as in Jira. Anything outside the subset (other
+ * operators, functions, EMPTY, other sort fields) makes {@link #parse(String)} return null, so
+ * the caller can send the query to Jira instead.
+ */
+final class JqlQuery {
+
+    /**
+     * A node of the query's condition.
+     */
+    interface Condition {
+    }
+
+    /**
+     * Matches issues whose field has any of the values. Names are lowercased; cf[N] becomes
+     * customfield_N.
+     */
+    static final class Clause implements Condition {
+        final String field;
+        final List<String> values;
+
+        private Clause(String field, List<String> values) {
+            this.field = field;
+            this.values = values;
+        }
+
+        // A canonical form, so clauses written differently can be compared.
+        @Override
+        public String toString() {
+            TreeSet<String> sorted = new TreeSet<>();
+            for (String value : values) {
+                sorted.add(value.toLowerCase(Locale.ROOT));
+            }
+            return field + " in " + sorted;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Clause && toString().equals(other.toString());
+        }
+
+        @Override
+        public int hashCode() {
+            return toString().hashCode();
+        }
+    }
+
+    static final class And implements Condition {
+        final List<Condition> operands;
+
+        private And(List<Condition> operands) {
+            this.operands = operands;
+        }
+    }
+
+    static final class Or implements Condition {
+        final List<Condition> operands;
+
+        private Or(List<Condition> operands) {
+            this.operands = operands;
+        }
+    }
+
+    // Null matches every issue.
+    private final Condition condition;
+    // True for ORDER BY key DESC; null when there is no ORDER BY.
+    private final Boolean orderByKeyDescending;
+
+    private JqlQuery(Condition condition, Boolean orderByKeyDescending) {
+        this.condition = condition;
+        this.orderByKeyDescending = orderByKeyDescending;
+    }
+
+    /**
+     * Parses the JQL, or returns null if it is outside the supported subset.
+     */
+    static JqlQuery parse(String jql) {
+        if (jql == null) {
+            return null;
+        }
+        try {
+            return new Parser(jql).query();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns this query without the given required clauses, for evaluation over a set of issues
+     * already known to satisfy them.
+     */
+    JqlQuery without(Collection<Clause> satisfied) {
+        if (condition instanceof Clause) {
+            return new JqlQuery(satisfied.contains(condition) ? null : condition, orderByKeyDescending);
+        }
+        if (!(condition instanceof And)) {
+            return this;
+        }
+        List<Condition> remaining = new ArrayList<>(((And) condition).operands);
+        remaining.removeIf(operand -> operand instanceof Clause && satisfied.contains(operand));
+        Condition residual = remaining.isEmpty() ? null : remaining.size() == 1 ? remaining.get(0) : new And(remaining);
+        return new JqlQuery(residual, orderByKeyDescending);
+    }
+
+    /**
+     * Returns true if the condition is nothing but required clauses, with no OR.
+     */
+    boolean isConjunction() {
+        return condition == null || requiredClauses().size() == (condition instanceof And ? ((And) condition).operands.size() : 1);
+    }
+
+    /**
+     * Returns the clauses that every match must satisfy: the top-level AND operands that are
+     * clauses, or the condition itself if it is a clause.
+     */
+    List<Clause> requiredClauses() {
+        List<Clause> clauses = new ArrayList<>();
+        if (condition instanceof Clause) {
+            clauses.add((Clause) condition);
+        } else if (condition instanceof And) {
+            for (Condition operand : ((And) condition).operands) {
+                if (operand instanceof Clause) {
+                    clauses.add((Clause) operand);
+                }
+            }
+        }
+        return clauses;
+    }
+
+    /**
+     * Returns every clause of the condition, required or not.
+     */
+    List<Clause> clauses() {
+        List<Clause> clauses = new ArrayList<>();
+        if (condition != null) {
+            collectClauses(condition, clauses);
+        }
+        return clauses;
+    }
+
+    /**
+     * Evaluates the condition against an index.
+     *
+     * @param flatFields maps a JQL field name to the indexed flattened field; must cover the fields of
+     *                   {@link #clauses()}.
+     */
+    Postings evaluate(IssueIndex index, Function<String, String> flatFields) {
+        return condition != null ? evaluate(condition, index, flatFields) : index.all();
+    }
+
+    /**
+     * Sorts the issue keys as the ORDER BY requires; leaves them as they are without one.
+     */
+    void sort(List<String> issueKeys) {
+        if (orderByKeyDescending == null) {
+            return;
+        }
+        Comparator<String> byKey = JqlQuery::compareIssueKeys;
+        issueKeys.sort(orderByKeyDescending ? byKey.reversed() : byKey);
+    }
+
+    /**
+     * Orders issue keys as Jira does: by project key, then numerically by issue number.
+     */
+    static int compareIssueKeys(String a, String b) {
+        int dashA = a.lastIndexOf('-');
+        int dashB = b.lastIndexOf('-');
+        if (dashA < 0 || dashB < 0) {
+            return a.compareToIgnoreCase(b);
+        }
+        int project = a.substring(0, dashA).compareToIgnoreCase(b.substring(0, dashB));
+        if (project != 0) {
+            return project;
+        }
+        String numberA = a.substring(dashA + 1);
+        String numberB = b.substring(dashB + 1);
+        return numberA.length() != numberB.length()
+                ? Integer.compare(numberA.length(), numberB.length())
+                : numberA.compareTo(numberB);
+    }
+
+    private static Postings evaluate(Condition condition, IssueIndex index, Function<String, String> flatFields) {
+        if (condition instanceof Clause) {
+            Clause clause = (Clause) condition;
+            return index.anyOf(flatFields.apply(clause.field), clause.values);
+        }
+        List<Postings> operands = new ArrayList<>();
+        boolean and = condition instanceof And;
+        for (Condition operand : and ? ((And) condition).operands : ((Or) condition).operands) {
+            operands.add(evaluate(operand, index, flatFields));
+        }
+        if (and) {
+            // Intersect the most selective operands first, as IssueIndex.query does.
+            operands.sort(Comparator.comparingInt(Postings::cardinality));
+            Postings result = operands.get(0);
+            for (int i = 1; i < operands.size() && !result.isEmpty(); i++) {
+                result = result.and(operands.get(i));
+            }
+            return result;
+        }
+        Postings result = operands.get(0);
+        for (int i = 1; i < operands.size(); i++) {
+            result = result.or(operands.get(i));
+        }
+        return result;
+    }
+
+    private static void collectClauses(Condition condition, List<Clause> clauses) {
+        if (condition instanceof Clause) {
+            clauses.add((Clause) condition);
+        } else {
+            for (Condition operand : condition instanceof And ? ((And) condition).operands : ((Or) condition).operands) {
+                collectClauses(operand, clauses);
+            }
+        }
+    }
+
+    /**
+     * Recursive descent parser over a hand-rolled tokenizer. Any unsupported construct throws
+     * IllegalArgumentException.
+     */
+    private static final class Parser {
+        private final String jql;
+        private int position;
+
+        private Parser(String jql) {
+            this.jql = jql;
+        }
+
+        private JqlQuery query() {
+            Condition condition = or();
+            Boolean descending = null;
+            if (keyword("order")) {
+                expectKeyword("by");
+                if (!field().equals("key")) {
+                    throw new IllegalArgumentException("Only ORDER BY key is supported");
+                }
+                descending = keyword("desc");
+                if (!descending) {
+                    keyword("asc");
+                }
+            }
+            skipWhitespace();
+            if (position < jql.length()) {
+                throw new IllegalArgumentException("Unexpected input at " + position);
+            }
+            return new JqlQuery(condition, descending);
+        }
+
+        private Condition or() {
+            List<Condition> operands = new ArrayList<>();
+            operands.add(and());
+            while (keyword("or")) {
+                operands.add(and());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands);
+        }
+
+        private Condition and() {
+            List<Condition> operands = new ArrayList<>();
+            operands.add(operand());
+            while (keyword("and")) {
+                operands.add(operand());
+            }
+            if (operands.size() == 1) {
+                return operands.get(0);
+            }
+            // Flatten nested ANDs, so "(a and b) and c" exposes all three as required clauses.
+            List<Condition> flat = new ArrayList<>();
+            for (Condition operand : operands) {
+                if (operand instanceof And) {
+                    flat.addAll(((And) operand).operands);
+                } else {
+                    flat.add(operand);
+                }
+            }
+            return new And(flat);
+        }
+
+        private Condition operand() {
+            if (symbol('(')) {
+                Condition condition = or();
+                expectSymbol(')');
+                return condition;
+            }
+            String field = field();
+            if (symbol('=')) {
+                return new Clause(field, Collections.singletonList(value()));
+            }
+            expectKeyword("in");
+            expectSymbol('(');
+            List<String> values = new ArrayList<>();
+            do {
+                values.add(value());
+            } while (symbol(','));
+            expectSymbol(')');
+            return new Clause(field, values);
+        }
+
+        private String field() {
+            skipWhitespace();
+            String name;
+            if (position < jql.length() && jql.charAt(position) == '"') {
+                name = quoted();
+            } else {
+                name = word();
+                if (name.equalsIgnoreCase("cf") && symbol('[')) {
+                    String id = word();
+                    expectSymbol(']');
+                    return "customfield_" + id;
+                }
+                if (isReserved(name)) {
+                    throw new IllegalArgumentException("Expected a field at " + position);
+                }
+            }
+            return name.toLowerCase(Locale.ROOT);
+        }
+
+        private String value() {
+            skipWhitespace();
+            String value = position < jql.length() && (jql.charAt(position) == '"' || jql.charAt(position) == '\'')
+                    ? quoted()
+                    : word();
+            // EMPTY, NULL and keywords have special meanings that the indexes do not model.
+            if (value.isEmpty() || (!isQuotedAt(position - 1) && isReserved(value))) {
+                throw new IllegalArgumentException("Unsupported value at " + position);
+            }
+            return value;
+        }
+
+        private boolean isQuotedAt(int index) {
+            return index >= 0 && (jql.charAt(index) == '"' || jql.charAt(index) == '\'');
+        }
+
+        private String quoted() {
+            char quote = jql.charAt(position++);
+            StringBuilder value = new StringBuilder();
+            while (position < jql.length() && jql.charAt(position) != quote) {
+                char c = jql.charAt(position++);
+                if (c == '\\' && position < jql.length()) {
+                    c = jql.charAt(position++);
+                }
+                value.append(c);
+            }
+            if (position >= jql.length()) {
+                throw new IllegalArgumentException("Unterminated string");
+            }
+            position++;
+            return value.toString();
+        }
+
+        // A bare word: letters, digits and the punctuation found in keys and names.
+        private String word() {
+            skipWhitespace();
+            int start = position;
+            while (position < jql.length()) {
+                char c = jql.charAt(position);
+                if (!Character.isLetterOrDigit(c) && c != '-' && c != '_' && c != '.') {
+                    break;
+                }
+                position++;
+            }
+            if (start == position) {
+                throw new IllegalArgumentException("Expected a word at " + position);
+            }
+            return jql.substring(start, position);
+        }
+
+        private boolean keyword(String keyword) {
+            skipWhitespace();
+            int end = position + keyword.length();
+            if (end <= jql.length() && jql.regionMatches(true, position, keyword, 0, keyword.length())
+                    && (end == jql.length() || !Character.isLetterOrDigit(jql.charAt(end)))) {
+                position = end;
+                return true;
+            }
+            return false;
+        }
+
+        private void expectKeyword(String keyword) {
+            if (!keyword(keyword)) {
+                throw new IllegalArgumentException("Expected " + keyword + " at " + position);
+            }
+        }
+
+        private boolean symbol(char symbol) {
+            skipWhitespace();
+            if (position < jql.length() && jql.charAt(position) == symbol) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expectSymbol(char symbol) {
+            if (!symbol(symbol)) {
+                throw new IllegalArgumentException("Expected " + symbol + " at " + position);
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < jql.length() && Character.isWhitespace(jql.charAt(position))) {
+                position++;
+            }
+        }
+
+        private static boolean isReserved(String word) {
+            switch (word.toLowerCase(Locale.ROOT)) {
+                case "and":
+                case "or":
+                case "not":
+                case "in":
+                case "is":
+                case "was":
+                case "changed":
+                case "empty":
+                case "null":
+                case "order":
+                case "by":
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+}
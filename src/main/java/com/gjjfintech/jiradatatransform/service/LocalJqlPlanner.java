@@ -0,0 +1,157 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
+import com.gjjfintech.jiradatatransform.util.Postings;
+import com.gjjfintech.jiradatatransform.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides whether a JQL search can be answered from an index over a replica, and answers it if
+ * so.
+ *
+ * A search is answered locally when it parses as a {@link JqlQuery}, and all of its matches are
+ * known to be in the replica. That is the case when the search requires every clause of the
+ * replica's scope (e.g. the scope {@code project = X} and the search
+ * {@code project = X AND issuetype = Epic}), or requires a key from a list of keys that are all
+ * replicated. The remaining clauses must refer to fields the mapping flattens as plain strings.
+ * Jira also accepts ids for the key and for fields the mapping flattens to a key, name or value
+ * (e.g. {@code status = 3}); the index only holds the flattened text, so numeric values for those
+ * fields are left to Jira too. Anything else is left to Jira.
+ */
+class LocalJqlPlanner {
+
+    private static final String ISSUE_KEY = "issueKey";
+
+    // JQL field name (lowercased, cf[N] as customfield_N) to flattened field.
+    private final Map<String, String> flatFields = new HashMap<>();
+    // JQL field names that also match by id, which the index cannot answer.
+    private final Set<String> idFields = new HashSet<>();
+
+    LocalJqlPlanner(JiraMappingProperties mappingProps) {
+        flatFields.put("key", ISSUE_KEY);
+        flatFields.put("issuekey", ISSUE_KEY);
+        idFields.add("key");
+        idFields.add("issuekey");
+        if (mappingProps == null || mappingProps.getJiraFieldMappings() == null) {
+            return;
+        }
+        for (Map.Entry<String, JiraMappingProperties.FieldMapping> entry : mappingProps.getJiraFieldMappings().entrySet()) {
+            JiraMappingProperties.FieldMapping mapping = entry.getValue();
+            String jqlField = jqlField(mapping);
+            if (jqlField != null) {
+                flatFields.putIfAbsent(jqlField, StringUtils.toCamelCase(entry.getKey()));
+                if (jqlField.equals("issuetype")) {
+                    flatFields.putIfAbsent("type", StringUtils.toCamelCase(entry.getKey()));
+                }
+                if (mapping.getIssueAttributeName().indexOf('.', "fields.".length()) >= 0) {
+                    idFields.add(jqlField);
+                    if (jqlField.equals("issuetype")) {
+                        idFields.add("type");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the flattened fields the replica index must hold.
+     */
+    Collection<String> indexedFields() {
+        return new LinkedHashSet<>(flatFields.values());
+    }
+
+    /**
+     * Returns the keys of the replicated issues matching the JQL, in the order it asks for, or
+     * null if the search must go to Jira.
+     */
+    List<String> search(String jql, String scopeJql, IssueIndex index) {
+        JqlQuery query = JqlQuery.parse(jql);
+        if (query == null) {
+            return null;
+        }
+        JqlQuery residual = null;
+        JqlQuery scope = JqlQuery.parse(scopeJql);
+        if (scope != null && scope.isConjunction() && query.requiredClauses().containsAll(scope.requiredClauses())) {
+            // Every replicated issue satisfies the scope's clauses, so only the rest need checking.
+            residual = query.without(scope.requiredClauses());
+        } else if (requiresReplicatedKey(query, index)) {
+            residual = query;
+        }
+        if (residual == null) {
+            return null;
+        }
+        for (JqlQuery.Clause clause : residual.clauses()) {
+            if (!flatFields.containsKey(clause.field)) {
+                return null;
+            }
+            if (idFields.contains(clause.field)) {
+                for (String value : clause.values) {
+                    if (isNumeric(value)) {
+                        return null;
+                    }
+                }
+            }
+        }
+        Postings matches = residual.evaluate(index, flatFields::get);
+        List<String> keys = new ArrayList<>(matches.cardinality());
+        matches.forEach(id -> keys.add((String) index.issue(id).get(ISSUE_KEY)));
+        residual.sort(keys);
+        return keys;
+    }
+
+    // True if a required clause restricts the key to issues that are all in the replica.
+    private boolean requiresReplicatedKey(JqlQuery query, IssueIndex index) {
+        for (JqlQuery.Clause clause : query.requiredClauses()) {
+            if (!ISSUE_KEY.equals(flatFields.get(clause.field))) {
+                continue;
+            }
+            boolean allReplicated = true;
+            for (String key : clause.values) {
+                allReplicated &= !index.lookup(ISSUE_KEY, key).isEmpty();
+            }
+            if (allReplicated) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNumeric(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return !value.isEmpty();
+    }
+
+    /**
+     * Returns the JQL name of a mapped field, or null if the field cannot be matched locally:
+     * links, non-string values (such as reformatted dates) and attributes JQL does not compare by.
+     */
+    private static String jqlField(JiraMappingProperties.FieldMapping mapping) {
+        String attribute = mapping.getIssueAttributeName();
+        if (mapping.getIssueLink() != null || attribute == null
+                || (mapping.getDataType() != null && !mapping.getDataType().startsWith("String"))) {
+            return null;
+        }
+        if (!attribute.startsWith("fields.")) {
+            return null;
+        }
+        String[] path = attribute.substring("fields.".length()).split("\\.");
+        if (path.length == 1
+                || (path.length == 2 && (path[1].equals("key") || path[1].equals("name") || path[1].equals("value")))) {
+            return path[0].toLowerCase(Locale.ROOT);
+        }
+        return null;
+    }
+}
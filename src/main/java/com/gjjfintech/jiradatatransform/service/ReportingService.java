@@ -1,28 +1,61 @@
 package com.gjjfintech.jiradatatransform.service;
 
 import com.gjjfintech.jiradatatransform.client.ConfluenceApiClient;
-import com.gjjfintech.jiradatatransform.client.ServiceNowApiClient;
 import com.gjjfintech.jiradatatransform.model.CreateConfluencePageRequestBody;
 import com.gjjfintech.jiradatatransform.model.ServiceNowIncident;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 @Service
 public class ReportingService {
 
-    private final ServiceNowApiClient serviceNowApiClient;
+    private final ServiceNowIncidentCache serviceNowIncidentCache;
     private final ConfluenceApiClient confluenceApiClient;
 
-    public ReportingService(ServiceNowApiClient serviceNowApiClient, ConfluenceApiClient confluenceApiClient) {
-        this.serviceNowApiClient = serviceNowApiClient;
+    // Update the existing page with the same title instead of always creating a new one.
+    @Value("${confluence.update-existing-pages:true}")
+    private boolean updateExistingPages = true;
+
+    // Per-page budgets; a report that exceeds either is split into child pages.
+    @Value("${confluence.report.max-rows-per-page:1000}")
+    private int maxRowsPerPage = 1000;
+
+    @Value("${confluence.report.max-chars-per-page:2000000}")
+    private int maxCharsPerPage = 2_000_000;
+
+    // Child pages published at once; also bounds the rendered parts held in memory.
+    @Value("${confluence.report.publish-concurrency:4}")
+    private int publishConcurrency = 4;
+
+    public ReportingService(ServiceNowIncidentCache serviceNowIncidentCache, ConfluenceApiClient confluenceApiClient) {
+        this.serviceNowIncidentCache = serviceNowIncidentCache;
         this.confluenceApiClient = confluenceApiClient;
     }
 
     /**
      * Creates a Confluence page containing a table of incidents retrieved from ServiceNow.
+     * With confluence.update-existing-pages set, an existing page with the same title is updated
+     * instead, and only if the rendered table changed.
+     *
+     * Rows are rendered as they are read. Once the table passes the configured row or character
+     * budget per page, the report is split: each part becomes a child page titled
+     * "&lt;title&gt; (part N)", parts are published concurrently while later rows are still being
+     * rendered, and the page itself becomes a summary linking to its parts. Split reports are
+     * always published in place, and parts left over from an earlier, longer run are deleted;
+     * all of them are, when a report that shrank to one page updates its page.
      *
      * @param sysparmQuery the filter query for ServiceNow (e.g., "active=true")
      * @param title        the title for the Confluence page
@@ -30,47 +63,136 @@ public class ReportingService {
      * @param parentPageId the parent page id under which the new page will be created
      */
     public void createIncidentsPage(String sysparmQuery, String title, String spaceKey, String parentPageId) {
-        // 1. Retrieve incidents from ServiceNow.
-        List<ServiceNowIncident> incidents = serviceNowApiClient.getIncidents(sysparmQuery);
+        // 1. Stream incidents from ServiceNow (or the refreshed cache).
+        Iterator<ServiceNowIncident> incidents = serviceNowIncidentCache.iterateIncidents(sysparmQuery);
+        HtmlTableRenderer<ServiceNowIncident> renderer = HtmlTableRenderer.forClass(ServiceNowIncident.class);
 
-        // 2. Build the HTML string for the table.
-        StringBuilder htmlBuilder = new StringBuilder();
-        htmlBuilder.append("<table border='1' style='border-collapse: collapse;'>");
+        ExecutorService executor = null;
+        try {
+            // 2. Render rows into the current part, handing each full part off for publishing.
+            List<CompletableFuture<String>> parts = new ArrayList<>();
+            List<Integer> partEnds = new ArrayList<>();
+            Semaphore inFlight = new Semaphore(Math.max(1, publishConcurrency));
+            String reportPageId = null;
+            StringBuilder part = new StringBuilder();
+            renderer.appendTableStart(part);
+            int rowsInPart = 0;
+            int rows = 0;
+            while (incidents.hasNext()) {
+                ServiceNowIncident incident = incidents.next();
+                if (rowsInPart > 0 && (rowsInPart >= maxRowsPerPage || part.length() >= maxCharsPerPage)) {
+                    if (reportPageId == null) {
+                        // First split: make sure the summary page exists to parent the parts.
+                        reportPageId = confluenceApiClient.ensurePage(
+                                pageRequest(title, spaceKey, parentPageId, "<p>Report is being generated.</p>"));
+                        executor = Executors.newFixedThreadPool(Math.max(1, publishConcurrency));
+                    }
+                    renderer.appendTableEnd(part);
+                    partEnds.add(rows);
+                    parts.add(publishPart(executor, inFlight, pageRequest(partTitle(title, parts.size() + 1),
+                            spaceKey, reportPageId, part.toString())));
+                    part = new StringBuilder(part.length());
+                    renderer.appendTableStart(part);
+                    rowsInPart = 0;
+                }
+                renderer.appendRow(part, incident);
+                rowsInPart++;
+                rows++;
+            }
+            renderer.appendTableEnd(part);
 
-        // Retrieve all declared fields from IncidentDto.
-        Field[] fields = ServiceNowIncident.class.getDeclaredFields();
-        for (Field field : fields) {
-            field.setAccessible(true);
-        }
+            // 3. A report that fits on one page is published as before. When that changes the page,
+            //    the parts of an earlier run that needed splitting are removed; an unchanged page
+            //    was already a single page last run, and must cost no more than one GET.
+            if (reportPageId == null) {
+                CreateConfluencePageRequestBody createPageDTO = pageRequest(title, spaceKey, parentPageId, part.toString());
+                if (updateExistingPages) {
+                    ConfluenceApiClient.PublishResult published = confluenceApiClient.publishPage(createPageDTO);
+                    if (published.getOutcome() == ConfluenceApiClient.PublishOutcome.UPDATED) {
+                        deleteStaleParts(published.getPageId(), title, Collections.emptySet());
+                    }
+                } else {
+                    confluenceApiClient.createPage(createPageDTO);
+                }
+                return;
+            }
+
+            // 4. Otherwise publish the last part, then the summary once every part is in place.
+            partEnds.add(rows);
+            parts.add(publishPart(executor, inFlight, pageRequest(partTitle(title, parts.size() + 1),
+                    spaceKey, reportPageId, part.toString())));
+            Set<String> partIds = new HashSet<>();
+            for (CompletableFuture<String> published : parts) {
+                partIds.add(join(published));
+            }
+            confluenceApiClient.publishPage(pageRequest(title, spaceKey, parentPageId, summary(title, partEnds)));
 
-        // Create header row.
-        htmlBuilder.append("<tr>");
-        for (Field field : fields) {
-            String headerName = standardiseColumnName(field.getName());
-            htmlBuilder.append("<th>").append(headerName).append("</th>");
+            // 5. Remove parts of an earlier run that had more parts than this one.
+            deleteStaleParts(reportPageId, title, partIds);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
         }
-        htmlBuilder.append("</tr>");
+    }
 
-        // Create a row for each incident.
-        for (ServiceNowIncident incident : incidents) {
-            htmlBuilder.append("<tr>");
-            for (Field field : fields) {
+    /**
+     * Publishes one part on the executor, blocking first while the maximum number of parts are
+     * already being published, so at most that many rendered parts are held in memory.
+     */
+    private CompletableFuture<String> publishPart(ExecutorService executor, Semaphore inFlight,
+                                                  CreateConfluencePageRequestBody page) {
+        inFlight.acquireUninterruptibly();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
                 try {
-                    Object value = field.get(incident);
-                    htmlBuilder.append("<td>")
-                            .append(value != null ? value.toString() : "")
-                            .append("</td>");
-                } catch (IllegalAccessException e) {
-                    htmlBuilder.append("<td></td>");
+                    return confluenceApiClient.publishPage(page).getPageId();
+                } finally {
+                    inFlight.release();
                 }
+            }, executor);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes the child pages of the report page that are parts of the report but not among the
+     * given ones.
+     */
+    private void deleteStaleParts(String reportPageId, String title, Set<String> partIds) {
+        String partPrefix = title + " (part ";
+        for (Map.Entry<String, String> child : confluenceApiClient.getChildPages(reportPageId).entrySet()) {
+            if (child.getValue().startsWith(partPrefix) && !partIds.contains(child.getKey())) {
+                confluenceApiClient.deletePage(child.getKey());
             }
-            htmlBuilder.append("</tr>");
         }
-        htmlBuilder.append("</table>");
+    }
 
-        String htmlContent = htmlBuilder.toString();
+    private static String partTitle(String title, int part) {
+        return title + " (part " + part + ")";
+    }
 
-        // 3. Create a Confluence page with the generated HTML.
+    /**
+     * Renders the summary page: the incident count and a link to each part with its row range.
+     */
+    private static String summary(String title, List<Integer> partEnds) {
+        StringBuilder html = new StringBuilder();
+        html.append("<p>").append(partEnds.get(partEnds.size() - 1)).append(" incidents in ")
+                .append(partEnds.size()).append(" parts.</p><ul>");
+        int first = 1;
+        for (int i = 0; i < partEnds.size(); i++) {
+            html.append("<li><ac:link><ri:page ri:content-title=\"");
+            HtmlTableRenderer.appendEscaped(html, partTitle(title, i + 1));
+            html.append("\"/></ac:link> (rows ").append(first).append("-").append(partEnds.get(i)).append(")</li>");
+            first = partEnds.get(i) + 1;
+        }
+        return html.append("</ul>").toString();
+    }
+
+    private static CreateConfluencePageRequestBody pageRequest(String title, String spaceKey, String parentPageId,
+                                                               String htmlContent) {
         CreateConfluencePageRequestBody.Ancestor ancestor = new CreateConfluencePageRequestBody.Ancestor(parentPageId);
         CreateConfluencePageRequestBody.Space space = new CreateConfluencePageRequestBody.Space(spaceKey);
         CreateConfluencePageRequestBody.Body.Storage storage = new CreateConfluencePageRequestBody.Body.Storage(htmlContent, "storage");
@@ -82,9 +204,18 @@ public class ReportingService {
         createPageDTO.setAncestors(Collections.singletonList(ancestor));
         createPageDTO.setSpace(space);
         createPageDTO.setBody(body);
+        return createPageDTO;
+    }
 
-        // 4. Call the Confluence API to create the page.
-        confluenceApiClient.createPage(createPageDTO);
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
     }
 
     /**
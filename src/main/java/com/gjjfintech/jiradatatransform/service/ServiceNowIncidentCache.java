@@ -0,0 +1,372 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gjjfintech.jiradatatransform.client.ServiceNowApiClient;
+import com.gjjfintech.jiradatatransform.model.ServiceNowIncident;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the incidents matching each sysparm query, refreshing them incrementally.
+ *
+ * The first request for a query loads every matching incident and records the highest
+ * sys_updated_on seen as the query's watermark. Later requests only fetch incidents updated
+ * since the watermark: those still matching the query are merged into the cached set, and
+ * those that no longer match are dropped from it. Deleted incidents cannot be seen in a delta,
+ * so each query is reloaded in full once its last full load is older than the full-refresh age.
+ * Queries combining conditions with ^NQ cannot be narrowed by one watermark clause, so they are
+ * always loaded in full.
+ *
+ * A query with more incidents than servicenow.cache.max-incidents is not cached, which bounds the
+ * memory the cache holds; it is streamed from ServiceNow until its next full-refresh age, when its
+ * size is checked again.
+ *
+ * When a cache folder is configured, each query's incidents and watermark are also written to
+ * disk, so the cache survives restarts.
+ */
+@Service
+public class ServiceNowIncidentCache {
+
+    /**
+     * The cached state of one query, also its on-disk form.
+     */
+    static class Snapshot {
+        public String query;
+        // Highest sys_updated_on seen; values are "yyyy-MM-dd HH:mm:ss" in UTC, so they order as strings.
+        public String watermark;
+        public long fullLoadAt;
+        public boolean oversized;
+        public List<ServiceNowIncident> incidents = new ArrayList<>();
+    }
+
+    private static class Entry {
+        // Replaced rather than modified once set, so an iteration can run without the entry's lock.
+        private Map<String, ServiceNowIncident> incidents = Collections.emptyMap();
+        private String watermark;
+        private long fullLoadAt;
+        // The last full load found more than max-incidents incidents, so none are cached.
+        private boolean oversized;
+    }
+
+    private final ServiceNowApiClient serviceNowApiClient;
+    private final ObjectMapper objectMapper;
+    // Keyed by query; the empty query stands for a null one, as both match every incident.
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${servicenow.cache.enabled:true}")
+    private boolean enabled = true;
+
+    // Folder for persisted snapshots; the cache is memory-only when empty.
+    @Value("${servicenow.cache.folder:}")
+    private String cacheFolder;
+
+    @Value("${servicenow.cache.full-refresh-hours:24}")
+    private long fullRefreshHours = 24;
+
+    @Value("${servicenow.cache.max-incidents:100000}")
+    private int maxIncidents = 100_000;
+
+    public ServiceNowIncidentCache(ServiceNowApiClient serviceNowApiClient, ObjectMapper objectMapper) {
+        this.serviceNowApiClient = serviceNowApiClient;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the incidents currently matching the sysparm query, fetching only what changed
+     * since the previous call for the same query.
+     *
+     * @param sysparmQuery the filter query for ServiceNow (e.g., "active=true")
+     * @return the matching incidents
+     */
+    public List<ServiceNowIncident> getIncidents(String sysparmQuery) {
+        if (!enabled) {
+            return serviceNowApiClient.getIncidents(sysparmQuery);
+        }
+        String query = sysparmQuery != null ? sysparmQuery : "";
+        Entry entry = entries.computeIfAbsent(query, this::loadSnapshot);
+        synchronized (entry) {
+            long now = System.currentTimeMillis();
+            if (needsFullLoad(query, entry, now)) {
+                List<ServiceNowIncident> incidents = serviceNowApiClient.getIncidents(query);
+                if (incidents.size() > maxIncidents) {
+                    setOversized(query, entry, now);
+                    return incidents;
+                }
+                Map<String, ServiceNowIncident> loaded = new LinkedHashMap<>();
+                String watermark = null;
+                for (ServiceNowIncident incident : incidents) {
+                    watermark = add(loaded, incident, watermark);
+                }
+                setFullLoad(query, entry, loaded, watermark, now);
+            } else if (entry.oversized) {
+                return serviceNowApiClient.getIncidents(query);
+            } else {
+                deltaLoad(entry, query);
+                saveSnapshot(query, entry);
+            }
+            return new ArrayList<>(entry.incidents.values());
+        }
+    }
+
+    /**
+     * Iterates over the incidents matching the sysparm query, as {@link #getIncidents} returns
+     * them, without copying them into a list. A refreshed cached set is iterated in place.
+     * Without one, incidents are streamed from ServiceNow a page at a time, and cached once the
+     * iteration completes unless there are more than max-incidents of them. With caching
+     * disabled, incidents are always streamed.
+     *
+     * @param sysparmQuery the filter query for ServiceNow (e.g., "active=true")
+     */
+    public Iterator<ServiceNowIncident> iterateIncidents(String sysparmQuery) {
+        if (!enabled) {
+            return serviceNowApiClient.iterateIncidents(sysparmQuery);
+        }
+        String query = sysparmQuery != null ? sysparmQuery : "";
+        Entry entry = entries.computeIfAbsent(query, this::loadSnapshot);
+        long now = System.currentTimeMillis();
+        synchronized (entry) {
+            if (!needsFullLoad(query, entry, now)) {
+                if (entry.oversized) {
+                    return serviceNowApiClient.iterateIncidents(query);
+                }
+                deltaLoad(entry, query);
+                saveSnapshot(query, entry);
+                return Collections.unmodifiableCollection(entry.incidents.values()).iterator();
+            }
+        }
+        return new LoadingIterator(query, entry, now, serviceNowApiClient.iterateIncidents(query));
+    }
+
+    /**
+     * Discards the cached incidents of every query, in memory and on disk.
+     */
+    public void clear() {
+        for (String query : new ArrayList<>(entries.keySet())) {
+            entries.remove(query);
+            Path path = snapshotPath(query);
+            if (path != null) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to delete incident cache file " + path, e);
+                }
+            }
+        }
+    }
+
+    private boolean needsFullLoad(String query, Entry entry, long now) {
+        if (now - entry.fullLoadAt >= TimeUnit.HOURS.toMillis(fullRefreshHours)) {
+            return true;
+        }
+        return !entry.oversized && (entry.watermark == null || query.contains("^NQ"));
+    }
+
+    /**
+     * Replaces the cached set with a full load, unless a newer full load got there first.
+     */
+    private void setFullLoad(String query, Entry entry, Map<String, ServiceNowIncident> incidents, String watermark,
+                             long startedAt) {
+        if (entry.fullLoadAt > startedAt) {
+            return;
+        }
+        entry.incidents = incidents;
+        entry.watermark = watermark;
+        entry.fullLoadAt = startedAt;
+        entry.oversized = false;
+        saveSnapshot(query, entry);
+    }
+
+    private void setOversized(String query, Entry entry, long startedAt) {
+        if (entry.fullLoadAt > startedAt) {
+            return;
+        }
+        entry.incidents = Collections.emptyMap();
+        entry.watermark = null;
+        entry.fullLoadAt = startedAt;
+        entry.oversized = true;
+        saveSnapshot(query, entry);
+    }
+
+    private void deltaLoad(Entry entry, String sysparmQuery) {
+        String since = "sys_updated_on>=" + entry.watermark;
+        // Everything updated since the watermark, matching or not; only the ids are needed.
+        List<ServiceNowIncident> updated = serviceNowApiClient.getIncidents(since, "sys_id");
+        // The updated incidents that still match the query.
+        List<ServiceNowIncident> changed = serviceNowApiClient.getIncidents(withCondition(sysparmQuery, since));
+
+        Set<String> stillMatching = new HashSet<>();
+        for (ServiceNowIncident incident : changed) {
+            stillMatching.add(incident.getSys_id());
+        }
+        Map<String, ServiceNowIncident> incidents = new LinkedHashMap<>(entry.incidents);
+        for (ServiceNowIncident incident : updated) {
+            if (!stillMatching.contains(incident.getSys_id())) {
+                incidents.remove(incident.getSys_id());
+            }
+        }
+        String watermark = entry.watermark;
+        for (ServiceNowIncident incident : changed) {
+            watermark = add(incidents, incident, watermark);
+        }
+        entry.incidents = incidents;
+        entry.watermark = watermark;
+    }
+
+    /**
+     * Adds a condition to an encoded query, ahead of its ORDERBY clauses, which must stay last.
+     * The query must not contain ^NQ, as the condition would only apply to its last part.
+     */
+    static String withCondition(String sysparmQuery, String condition) {
+        if (sysparmQuery.isEmpty()) {
+            return condition;
+        }
+        int order = sysparmQuery.startsWith("ORDERBY") ? 0 : sysparmQuery.indexOf("^ORDERBY");
+        if (order < 0) {
+            return sysparmQuery + "^" + condition;
+        }
+        if (order == 0) {
+            return condition + "^" + sysparmQuery;
+        }
+        return sysparmQuery.substring(0, order) + "^" + condition + sysparmQuery.substring(order);
+    }
+
+    /**
+     * Adds the incident to the set and returns the watermark raised to its sys_updated_on.
+     */
+    private static String add(Map<String, ServiceNowIncident> incidents, ServiceNowIncident incident, String watermark) {
+        if (incident.getSys_id() == null) {
+            return watermark;
+        }
+        // Replacing an existing key keeps its position, so the cached order stays stable.
+        incidents.put(incident.getSys_id(), incident);
+        String updatedOn = incident.getSys_updated_on();
+        return updatedOn != null && (watermark == null || updatedOn.compareTo(watermark) > 0) ? updatedOn : watermark;
+    }
+
+    private Entry loadSnapshot(String sysparmQuery) {
+        Entry entry = new Entry();
+        Path path = snapshotPath(sysparmQuery);
+        if (path == null || !Files.exists(path)) {
+            return entry;
+        }
+        try {
+            Snapshot snapshot = objectMapper.readValue(path.toFile(), Snapshot.class);
+            if (snapshot.query != null && snapshot.query.equals(sysparmQuery)) {
+                Map<String, ServiceNowIncident> incidents = new LinkedHashMap<>();
+                for (ServiceNowIncident incident : snapshot.incidents) {
+                    incidents.put(incident.getSys_id(), incident);
+                }
+                entry.incidents = incidents;
+                entry.watermark = snapshot.watermark;
+                entry.fullLoadAt = snapshot.fullLoadAt;
+                entry.oversized = snapshot.oversized;
+            }
+        } catch (IOException e) {
+            // An unreadable snapshot is discarded; the next request reloads the query in full.
+        }
+        return entry;
+    }
+
+    private void saveSnapshot(String sysparmQuery, Entry entry) {
+        Path path = snapshotPath(sysparmQuery);
+        if (path == null) {
+            return;
+        }
+        Snapshot snapshot = new Snapshot();
+        snapshot.query = sysparmQuery;
+        snapshot.watermark = entry.watermark;
+        snapshot.fullLoadAt = entry.fullLoadAt;
+        snapshot.oversized = entry.oversized;
+        snapshot.incidents = new ArrayList<>(entry.incidents.values());
+        try {
+            Files.createDirectories(path.getParent());
+            // Write to a temporary file and move it into place so a crash never leaves a torn snapshot.
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write incident cache file " + path, e);
+        }
+    }
+
+    private Path snapshotPath(String sysparmQuery) {
+        if (cacheFolder == null || cacheFolder.trim().isEmpty()) {
+            return null;
+        }
+        String name = UUID.nameUUIDFromBytes(sysparmQuery.getBytes(StandardCharsets.UTF_8)) + ".json";
+        return Paths.get(cacheFolder.trim(), name);
+    }
+
+    /**
+     * Streams a full load from ServiceNow to the caller, collecting the incidents as they pass
+     * and caching them once the iteration completes. Collection stops past max-incidents, and the
+     * query is then marked as too large to cache. An abandoned iteration caches nothing.
+     */
+    private final class LoadingIterator implements Iterator<ServiceNowIncident> {
+        private final String query;
+        private final Entry entry;
+        private final long startedAt;
+        private final Iterator<ServiceNowIncident> source;
+        private Map<String, ServiceNowIncident> loaded = new LinkedHashMap<>();
+        private String watermark;
+        private boolean oversized;
+        private boolean finished;
+
+        private LoadingIterator(String query, Entry entry, long startedAt, Iterator<ServiceNowIncident> source) {
+            this.query = query;
+            this.entry = entry;
+            this.startedAt = startedAt;
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (source.hasNext()) {
+                return true;
+            }
+            if (!finished) {
+                finished = true;
+                synchronized (entry) {
+                    if (oversized) {
+                        setOversized(query, entry, startedAt);
+                    } else {
+                        setFullLoad(query, entry, loaded, watermark, startedAt);
+                    }
+                }
+                loaded = null;
+            }
+            return false;
+        }
+
+        @Override
+        public ServiceNowIncident next() {
+            ServiceNowIncident incident = source.next();
+            if (!oversized) {
+                watermark = add(loaded, incident, watermark);
+                if (loaded.size() > maxIncidents) {
+                    oversized = true;
+                    loaded = null;
+                }
+            }
+            return incident;
+        }
+    }
+}
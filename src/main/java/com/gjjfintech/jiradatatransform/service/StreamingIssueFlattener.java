@@ -0,0 +1,271 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
+import com.gjjfintech.jiradatatransform.util.StringUtils;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flattens Jira issues directly from a JSON token stream.
+ *
+ * The mapping's attribute paths (e.g. "fields.parent.key") are compiled once into a path trie.
+ * While reading an issue object, only fields on a mapped path are descended into; every other
+ * subtree is skipped at the token level without being materialised. Issue links are read from
+ * "fields.issuelinks" whenever the mapping declares an issueLink field.
+ *
+ * The output matches {@link JiraIssueService#flattenIssue} for the same issue.
+ */
+class StreamingIssueFlattener {
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Leaf> leaves = new ArrayList<>();
+        private boolean issueLinks;
+    }
+
+    private static final class Leaf {
+        private final String flatKey;
+        private final String dataType;
+        private final boolean stringArray;
+
+        private Leaf(String flatKey, String dataType) {
+            this.flatKey = flatKey;
+            this.dataType = dataType;
+            this.stringArray = dataType != null && dataType.startsWith("String[]");
+        }
+    }
+
+    private static final class LinkField {
+        private final String flatKey;
+        private final JiraMappingProperties.IssueLinkMapping mapping;
+
+        private LinkField(String flatKey, JiraMappingProperties.IssueLinkMapping mapping) {
+            this.flatKey = flatKey;
+            this.mapping = mapping;
+        }
+    }
+
+    // The parts of a single issue link needed by the link mappings.
+    private static final class Link {
+        private String inwardType;
+        private String outwardType;
+        private String inwardKey;
+        private String outwardKey;
+        private boolean hasType;
+    }
+
+    private final Node root = new Node();
+    private final List<LinkField> linkFields = new ArrayList<>();
+
+    StreamingIssueFlattener(JiraMappingProperties mappingProps) {
+        for (Map.Entry<String, JiraMappingProperties.FieldMapping> entry : mappingProps.getJiraFieldMappings().entrySet()) {
+            String flatKey = StringUtils.toCamelCase(entry.getKey());
+            JiraMappingProperties.FieldMapping mapping = entry.getValue();
+            if (mapping.getIssueLink() != null) {
+                linkFields.add(new LinkField(flatKey, mapping.getIssueLink()));
+            } else if (mapping.getIssueAttributeName() != null) {
+                Node node = root;
+                for (String segment : mapping.getIssueAttributeName().split("\\.")) {
+                    node = node.children.computeIfAbsent(segment, s -> new Node());
+                }
+                node.leaves.add(new Leaf(flatKey, mapping.getDataType()));
+            }
+        }
+        if (!linkFields.isEmpty()) {
+            root.children.computeIfAbsent("fields", s -> new Node())
+                    .children.computeIfAbsent("issuelinks", s -> new Node()).issueLinks = true;
+        }
+        // Always visit the top-level key so it can be returned with the flattened issue.
+        root.children.computeIfAbsent("key", s -> new Node());
+    }
+
+    /**
+     * Reads one issue object from the parser and flattens it.
+     * The parser must be positioned on the issue's START_OBJECT; on return it is positioned
+     * on the matching END_OBJECT.
+     *
+     * @return the issue's key paired with its flattened fields.
+     */
+    Map.Entry<String, Map<String, Object>> flatten(JsonParser parser) throws IOException {
+        Map<String, Object> flat = new HashMap<>();
+        List<Link> links = linkFields.isEmpty() ? null : new ArrayList<>();
+        String key = readObject(parser, root, flat, links, true);
+        for (LinkField linkField : linkFields) {
+            flat.put(linkField.flatKey, linkedIssueKeys(links, linkField.mapping));
+        }
+        return new AbstractMap.SimpleImmutableEntry<>(key, flat);
+    }
+
+    private String readObject(JsonParser parser, Node node, Map<String, Object> flat, List<Link> links,
+                              boolean isRoot) throws IOException {
+        String key = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            Node child = node.children.get(name);
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+            if (isRoot && "key".equals(name) && token.isScalarValue()) {
+                key = parser.getText();
+            }
+            if (child.issueLinks && token == JsonToken.START_ARRAY) {
+                readIssueLinks(parser, links);
+            } else if (token == JsonToken.START_OBJECT && !child.children.isEmpty()) {
+                // A container value of a mapped scalar flattens to an empty string, as JsonNode.asText() does.
+                putContainerValue(child, flat);
+                readObject(parser, child, flat, links, false);
+            } else if (!child.leaves.isEmpty()) {
+                readLeafValue(parser, token, child, flat);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return key;
+    }
+
+    private void readLeafValue(JsonParser parser, JsonToken token, Node node, Map<String, Object> flat) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (token == JsonToken.START_ARRAY) {
+            List<String> values = new ArrayList<>();
+            JsonToken element;
+            while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                values.add(element.isScalarValue() ? text(parser, element) : skipContainer(parser));
+            }
+            for (Leaf leaf : node.leaves) {
+                flat.put(leaf.flatKey, leaf.stringArray ? new ArrayList<>(values) : JiraIssueService.processTextValue("", leaf.dataType));
+            }
+        } else if (token == JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            putContainerValue(node, flat);
+        } else {
+            String text = text(parser, token);
+            for (Leaf leaf : node.leaves) {
+                if (leaf.stringArray) {
+                    List<String> single = new ArrayList<>(1);
+                    single.add(text);
+                    flat.put(leaf.flatKey, single);
+                } else {
+                    flat.put(leaf.flatKey, JiraIssueService.processTextValue(text, leaf.dataType));
+                }
+            }
+        }
+    }
+
+    private void putContainerValue(Node node, Map<String, Object> flat) {
+        for (Leaf leaf : node.leaves) {
+            if (leaf.stringArray) {
+                List<String> single = new ArrayList<>(1);
+                single.add("");
+                flat.put(leaf.flatKey, single);
+            } else {
+                flat.put(leaf.flatKey, JiraIssueService.processTextValue("", leaf.dataType));
+            }
+        }
+    }
+
+    private void readIssueLinks(JsonParser parser, List<Link> links) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            Link link = new Link();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                } else if ("type".equals(name)) {
+                    link.hasType = true;
+                    readLinkType(parser, link);
+                } else if ("inwardIssue".equals(name)) {
+                    link.inwardKey = readKey(parser);
+                } else if ("outwardIssue".equals(name)) {
+                    link.outwardKey = readKey(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            links.add(link);
+        }
+    }
+
+    private void readLinkType(JsonParser parser, Link link) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("inward".equals(name) && value.isScalarValue()) {
+                link.inwardType = text(parser, value);
+            } else if ("outward".equals(name) && value.isScalarValue()) {
+                link.outwardType = text(parser, value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private String readKey(JsonParser parser) throws IOException {
+        String key = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("key".equals(name) && value.isScalarValue()) {
+                key = text(parser, value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return key;
+    }
+
+    private List<String> linkedIssueKeys(List<Link> links, JiraMappingProperties.IssueLinkMapping linkMapping) {
+        List<String> linkedIssueKeys = new ArrayList<>();
+        if (links == null) {
+            return linkedIssueKeys;
+        }
+        for (Link link : links) {
+            if (!link.hasType) {
+                continue;
+            }
+            if (linkMapping.isInward()) {
+                if (link.inwardKey != null && linkMapping.getLinkTypes().contains(link.inwardType)) {
+                    linkedIssueKeys.add(link.inwardKey);
+                }
+            } else if (link.outwardKey != null && linkMapping.getLinkTypes().contains(link.outwardType)) {
+                linkedIssueKeys.add(link.outwardKey);
+            }
+        }
+        return linkedIssueKeys;
+    }
+
+    private static String skipContainer(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        return "";
+    }
+
+    /**
+     * Returns the text of a scalar token the way JsonNode.asText() would render it.
+     */
+    private static String text(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_NULL:
+                return "null";
+            case VALUE_NUMBER_FLOAT:
+                return String.valueOf(parser.getDoubleValue());
+            default:
+                return parser.getText();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.util.SyncJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+@Service
+public class SyncJournalService {
+
+    // Folder holding one journal file per sync job. Journaling is disabled when empty.
+    @Value("${jira.sync.journal-folder:}")
+    private String journalFolder;
+
+    @Value("${jira.sync.journal-max-batch:256}")
+    private int maxBatchSize;
+
+    @Value("${jira.sync.journal-commit-window-ms:20}")
+    private long commitWindowMillis;
+
+    // Journals left behind longer than this are discarded instead of resumed. 0 keeps them forever.
+    @Value("${jira.sync.journal-max-age-hours:12}")
+    private long maxAgeHours;
+
+    public boolean isEnabled() {
+        return journalFolder != null && !journalFolder.trim().isEmpty();
+    }
+
+    /**
+     * Opens the journal for the given job, replaying outcomes recorded by an earlier
+     * run of the same job that did not complete. A journal older than the configured maximum
+     * age is discarded first, so a sync started long after the failed one starts over.
+     *
+     * @param jobId the sync job identifier.
+     * @return the journal, or null if journaling is disabled or no job id was given.
+     */
+    public SyncJournal open(String jobId) {
+        if (!isEnabled() || jobId == null || jobId.trim().isEmpty()) {
+            return null;
+        }
+        Path path = journalPath(jobId);
+        try {
+            if (maxAgeHours > 0 && Files.exists(path) && Files.getLastModifiedTime(path).toInstant()
+                    .isBefore(Instant.now().minus(Duration.ofHours(maxAgeHours)))) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to discard expired sync journal: " + path, e);
+        }
+        return SyncJournal.open(path, maxBatchSize, commitWindowMillis);
+    }
+
+    /**
+     * Returns a stable job id for a sync of the given JQL or file, so re-running an interrupted
+     * sync with the same arguments resumes its journal. A file is identified by its path, size
+     * and modification time, so a new export, even one under the same name, starts a new job.
+     *
+     * @param jql  the JQL of the sync, or null for a file sync.
+     * @param file the resolved source file, used when no JQL is given.
+     */
+    public static String deriveJobId(String jql, Path file) {
+        String signature;
+        if (jql != null && !jql.isEmpty()) {
+            signature = "jql:" + jql;
+        } else {
+            try {
+                signature = "file:" + file.toAbsolutePath() + ":" + Files.size(file) + ":"
+                        + Files.getLastModifiedTime(file).toMillis();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read source file: " + file, e);
+            }
+        }
+        return "sync-" + UUID.nameUUIDFromBytes(signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path journalPath(String jobId) {
+        // Keep the file name safe regardless of what the caller used as a job id.
+        String fileName = jobId.trim().replaceAll("[^A-Za-z0-9._-]", "_") + ".journal";
+        return Paths.get(journalFolder, fileName);
+    }
+}
@@ -0,0 +1,248 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.model.WorkItem;
+import com.gjjfintech.jiradatatransform.model.WorkItemTotals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Sums work item effort (DevOps, Engineering, Architecture, Other) grouped by any combination
+ * of feature, status and planned/unplanned, in a single pass over the work items.
+ *
+ * Each distinct dimension value is interned to a small integer id, the ids of a work item's
+ * dimensions are packed into one long group key, and the sums live in primitive arrays indexed
+ * by group. Large inputs are split across a parallel reduction and the partial results merged.
+ */
+public final class WorkItemRollup {
+
+    /**
+     * A dimension work items can be grouped by.
+     */
+    public enum Dimension {
+        FEATURE(WorkItem::getFeatureName),
+        STATUS(WorkItem::getStatus),
+        PLANNED(workItem -> workItem.isPlanned() ? "Planned" : "Unplanned");
+
+        private final Function<WorkItem, String> extractor;
+
+        Dimension(Function<WorkItem, String> extractor) {
+            this.extractor = extractor;
+        }
+
+        /**
+         * Parses a dimension name case-insensitively, e.g. "feature" or "status".
+         *
+         * @throws IllegalArgumentException if the name is not a dimension.
+         */
+        public static Dimension fromName(String name) {
+            return Dimension.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    // Inputs at least this large are reduced in parallel.
+    static final int PARALLEL_THRESHOLD = 20_000;
+
+    // Bits per dimension id in a packed group key; three dimensions fit in a long.
+    private static final int ID_BITS = 21;
+    private static final int MAX_IDS = 1 << ID_BITS;
+
+    private WorkItemRollup() {
+    }
+
+    /**
+     * Returns the totals per group, ordered by the grouped dimension values.
+     *
+     * @param workItems  the work items to total.
+     * @param dimensions the dimensions to group by, in order; empty for a single grand total.
+     */
+    public static List<WorkItemTotals> rollup(List<WorkItem> workItems, List<Dimension> dimensions) {
+        Dimension[] dims = dimensions.stream().distinct().toArray(Dimension[]::new);
+        Accumulator result = workItems.size() >= PARALLEL_THRESHOLD
+                ? workItems.parallelStream().collect(() -> new Accumulator(dims), Accumulator::add, Accumulator::merge)
+                : workItems.stream().collect(() -> new Accumulator(dims), Accumulator::add, Accumulator::merge);
+        return result.toTotals();
+    }
+
+    private static final class Accumulator {
+        private static final int SUMS = 4;
+
+        private final Dimension[] dimensions;
+        // Per dimension: value -> id and id -> value.
+        private final List<Map<String, Integer>> ids = new ArrayList<>();
+        private final List<List<String>> values = new ArrayList<>();
+
+        // Open-addressing table from packed group key to group index.
+        private long[] slotKeys = new long[64];
+        private int[] slotGroups = new int[64];
+        private int slotCount;
+
+        // Per group: the packed key, the item count and the four sums.
+        private long[] groupKeys = new long[16];
+        private long[] counts = new long[16];
+        private double[] sums = new double[16 * SUMS];
+        private int groupCount;
+
+        private Accumulator(Dimension[] dimensions) {
+            this.dimensions = dimensions;
+            for (int i = 0; i < dimensions.length; i++) {
+                ids.add(new HashMap<>());
+                values.add(new ArrayList<>());
+            }
+        }
+
+        private void add(WorkItem workItem) {
+            long key = 0;
+            for (int d = 0; d < dimensions.length; d++) {
+                key = (key << ID_BITS) | intern(d, dimensions[d].extractor.apply(workItem));
+            }
+            int group = group(key);
+            counts[group]++;
+            int base = group * SUMS;
+            sums[base] += workItem.getDevOps();
+            sums[base + 1] += workItem.getEngineering();
+            sums[base + 2] += workItem.getArchitecture();
+            sums[base + 3] += workItem.getOther();
+        }
+
+        private void merge(Accumulator other) {
+            for (int g = 0; g < other.groupCount; g++) {
+                // Ids are local to each accumulator, so re-intern the other's values.
+                String[] groupValues = other.groupValues(g);
+                long key = 0;
+                for (int d = 0; d < dimensions.length; d++) {
+                    key = (key << ID_BITS) | intern(d, groupValues[d]);
+                }
+                int group = group(key);
+                counts[group] += other.counts[g];
+                for (int i = 0; i < SUMS; i++) {
+                    sums[group * SUMS + i] += other.sums[g * SUMS + i];
+                }
+            }
+        }
+
+        private int intern(int dimension, String value) {
+            Integer id = ids.get(dimension).get(value);
+            if (id == null) {
+                List<String> dimensionValues = values.get(dimension);
+                if (dimensionValues.size() == MAX_IDS) {
+                    throw new IllegalStateException("Too many distinct values for " + dimensions[dimension]);
+                }
+                id = dimensionValues.size();
+                dimensionValues.add(value);
+                ids.get(dimension).put(value, id);
+            }
+            return id;
+        }
+
+        private int group(long key) {
+            int mask = slotKeys.length - 1;
+            int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while (slotGroups[slot] != 0) {
+                if (slotKeys[slot] == key) {
+                    return slotGroups[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // Slot groups are stored off by one so that zero marks an empty slot.
+            int group = newGroup(key);
+            slotKeys[slot] = key;
+            slotGroups[slot] = group + 1;
+            if (++slotCount * 2 > slotKeys.length) {
+                rehash();
+            }
+            return group;
+        }
+
+        private int newGroup(long key) {
+            if (groupCount == groupKeys.length) {
+                int capacity = groupKeys.length * 2;
+                groupKeys = Arrays.copyOf(groupKeys, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                sums = Arrays.copyOf(sums, capacity * SUMS);
+            }
+            groupKeys[groupCount] = key;
+            return groupCount++;
+        }
+
+        private void rehash() {
+            long[] oldKeys = slotKeys;
+            int[] oldGroups = slotGroups;
+            slotKeys = new long[oldKeys.length * 2];
+            slotGroups = new int[oldGroups.length * 2];
+            int mask = slotKeys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldGroups[i] != 0) {
+                    int slot = Long.hashCode(oldKeys[i] * 0x9E3779B97F4A7C15L) & mask;
+                    while (slotGroups[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slotKeys[slot] = oldKeys[i];
+                    slotGroups[slot] = oldGroups[i];
+                }
+            }
+        }
+
+        private String[] groupValues(int group) {
+            String[] groupValues = new String[dimensions.length];
+            long key = groupKeys[group];
+            for (int d = dimensions.length - 1; d >= 0; d--) {
+                groupValues[d] = values.get(d).get((int) (key & (MAX_IDS - 1)));
+                key >>>= ID_BITS;
+            }
+            return groupValues;
+        }
+
+        private List<WorkItemTotals> toTotals() {
+            List<String[]> keys = new ArrayList<>(groupCount);
+            List<WorkItemTotals> totals = new ArrayList<>(groupCount);
+            for (int g = 0; g < groupCount; g++) {
+                String[] groupValues = groupValues(g);
+                WorkItemTotals row = new WorkItemTotals();
+                for (int d = 0; d < dimensions.length; d++) {
+                    switch (dimensions[d]) {
+                        case FEATURE -> row.setFeatureName(groupValues[d]);
+                        case STATUS -> row.setStatus(groupValues[d]);
+                        case PLANNED -> row.setPlanned(groupValues[d]);
+                    }
+                }
+                row.setCount(counts[g]);
+                row.setDevOps(sums[g * SUMS]);
+                row.setEngineering(sums[g * SUMS + 1]);
+                row.setArchitecture(sums[g * SUMS + 2]);
+                row.setOther(sums[g * SUMS + 3]);
+                keys.add(groupValues);
+                totals.add(row);
+            }
+
+            // Order rows by their dimension values so the output is stable.
+            Integer[] order = new Integer[groupCount];
+            for (int g = 0; g < groupCount; g++) {
+                order[g] = g;
+            }
+            Comparator<String> byValue = Comparator.nullsFirst(Comparator.naturalOrder());
+            Arrays.sort(order, (a, b) -> {
+                String[] left = keys.get(a);
+                String[] right = keys.get(b);
+                for (int d = 0; d < left.length; d++) {
+                    int cmp = byValue.compare(left[d], right[d]);
+                    if (cmp != 0) {
+                        return cmp;
+                    }
+                }
+                return 0;
+            });
+            List<WorkItemTotals> sorted = new ArrayList<>(groupCount);
+            for (Integer g : order) {
+                sorted.add(totals.get(g));
+            }
+            return sorted;
+        }
+    }
+}
@@ -3,9 +3,13 @@ package com.gjjfintech.jiradatatransform.service;
 import com.gjjfintech.jiradatatransform.client.JiraApiClient;
 import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
 import com.gjjfintech.jiradatatransform.model.WorkItem;
+import com.gjjfintech.jiradatatransform.model.WorkItemTotals;
+import com.gjjfintech.jiradatatransform.util.RefreshingCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -17,22 +21,100 @@ public class WorkItemService {
     // Assume we need the destination Jira base URL to build epic URLs.
     // In a real application, consider reading this from configuration.
     private String destinationJiraBaseUrl;
+    // Per-quarter results; null when caching is disabled.
+    private final RefreshingCache<String, List<WorkItem>> quarterCache;
 
 
     @Autowired
     public WorkItemService(JiraIssueService jiraIssueService,
-                           @Qualifier("destinationJiraApiClient") JiraApiClient destinationJiraApiClient) {
+                           @Qualifier("destinationJiraApiClient") JiraApiClient destinationJiraApiClient,
+                           @Value("${work-items.cache.ttl-seconds:300}") long cacheTtlSeconds,
+                           @Value("${work-items.cache.max-stale-seconds:3600}") long cacheMaxStaleSeconds,
+                           @Value("${work-items.cache.refresh-threads:2}") int cacheRefreshThreads) {
         this.jiraIssueService = jiraIssueService;
         this.destinationJiraBaseUrl = destinationJiraApiClient.getBaseUrl();
+        this.quarterCache = cacheTtlSeconds > 0
+                ? new RefreshingCache<>("work-items", this::buildWorkItemsForQuarter,
+                        cacheTtlSeconds * 1000, cacheMaxStaleSeconds * 1000, cacheRefreshThreads)
+                : null;
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (quarterCache != null) {
+            quarterCache.close();
+        }
+    }
+
+    /**
+     * Returns the work items for a quarter, served from the per-quarter cache when enabled.
+     * The returned list is shared between callers and must not be modified.
+     */
     public List<WorkItem> getWorkItemsForQuarter(String quarter) {
-        // Build the JQL string. Adjust "cf[12345]" as needed.
-        String jql = "project=ELSALUCRO and issuetype = Epic and cf[12345] = " + quarter;
+        return quarterCache != null ? quarterCache.get(quarter) : buildWorkItemsForQuarter(quarter);
+    }
+
+    /**
+     * Returns the work items for several quarters, keyed by quarter in the order given.
+     *
+     * Quarters that are not cached are searched concurrently, and the Feature parents of their
+     * epics are fetched once across all of them rather than once per quarter.
+     */
+    public Map<String, List<WorkItem>> getWorkItemsForQuarters(Collection<String> quarters) {
+        Map<String, List<WorkItem>> workItemsByQuarter = new LinkedHashMap<>();
+        Map<String, String> jqlByQuarter = new LinkedHashMap<>();
+        for (String quarter : quarters) {
+            List<WorkItem> cached = quarterCache != null ? quarterCache.getIfPresent(quarter) : null;
+            // Reserve the slot so the result keeps the requested order.
+            workItemsByQuarter.put(quarter, cached);
+            if (cached == null) {
+                jqlByQuarter.put(quarter, quarterJql(quarter));
+            }
+        }
 
         // Get all issues (epics and their potential parent features) from the destination instance.
-        Collection<Map<String, Object>> allIssues = jiraIssueService.getIssuesByJql(jql, false);
+        Map<String, Collection<Map<String, Object>>> issuesByQuarter = jiraIssueService.getIssuesByJql(jqlByQuarter, false);
+        try {
+            for (Map.Entry<String, Collection<Map<String, Object>>> entry : issuesByQuarter.entrySet()) {
+                List<WorkItem> workItems = toWorkItems(entry.getValue());
+                if (quarterCache != null) {
+                    quarterCache.put(entry.getKey(), workItems);
+                }
+                workItemsByQuarter.put(entry.getKey(), workItems);
+            }
+        } finally {
+            jiraIssueService.releaseIssues(issuesByQuarter);
+        }
+        return workItemsByQuarter;
+    }
+
+    /**
+     * Totals the work items of the given quarters, grouped by the given dimensions.
+     */
+    public List<WorkItemTotals> rollupWorkItems(Collection<String> quarters, List<WorkItemRollup.Dimension> groupBy) {
+        List<WorkItem> workItems = new ArrayList<>();
+        for (List<WorkItem> quarterItems : getWorkItemsForQuarters(quarters).values()) {
+            workItems.addAll(quarterItems);
+        }
+        return WorkItemRollup.rollup(workItems, groupBy);
+    }
+
+    private List<WorkItem> buildWorkItemsForQuarter(String quarter) {
+        // Get all issues (epics and their potential parent features) from the destination instance.
+        Collection<Map<String, Object>> issues = jiraIssueService.getIssuesByJql(quarterJql(quarter), false);
+        try {
+            return toWorkItems(issues);
+        } finally {
+            jiraIssueService.releaseIssues(issues);
+        }
+    }
+
+    private static String quarterJql(String quarter) {
+        // Build the JQL string. Adjust "cf[12345]" as needed.
+        return "project=ELSALUCRO and issuetype = Epic and cf[12345] = " + quarter;
+    }
 
+    private List<WorkItem> toWorkItems(Collection<Map<String, Object>> allIssues) {
         // Build a map for feature issues (where issueType equals "Feature").
         Map<String, Map<String, Object>> parentKeyToFeatureIssue = new HashMap<>();
         List<Map<String, Object>> epicIssues = new ArrayList<>();
@@ -116,7 +198,7 @@ public class WorkItemService {
             workItems.add(workItem);
         }
 
-        return workItems;
+        return Collections.unmodifiableList(workItems);
     }
 
     /**
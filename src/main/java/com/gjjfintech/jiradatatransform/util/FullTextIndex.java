@@ -0,0 +1,430 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory inverted index over short texts, ranked with BM25, for typeahead search.
+ *
+ * Each document gets an ascending int id. A term's posting list is a byte array of varint pairs
+ * (id delta, term frequency), so most postings take two bytes. Updating a document marks its
+ * old id deleted and appends it under a new id, which keeps every list sorted and append-only;
+ * once deleted ids outnumber live ones, the lists are rewritten without them.
+ *
+ * Every query term must match. The last term also matches as a prefix unless the query ends in
+ * whitespace, so results appear while the user is still typing a word. The index is safe for
+ * concurrent use: searches share a read lock and updates take the write lock.
+ */
+public final class FullTextIndex {
+
+    /**
+     * A ranked match.
+     */
+    public static final class Hit {
+        private final String key;
+        private final String title;
+        private final double score;
+
+        private Hit(String key, String title, double score) {
+            this.key = key;
+            this.title = title;
+            this.score = score;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private static final class Term {
+        private byte[] data = new byte[4];
+        private int length;
+        private int docFreq;
+        private int lastDoc = -1;
+
+        private void add(int doc, int frequency) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+            }
+            length = writeVarint(data, length, doc - lastDoc);
+            length = writeVarint(data, length, frequency);
+            lastDoc = doc;
+            docFreq++;
+        }
+    }
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final int MAX_TERM_LENGTH = 64;
+    // Cap on the terms a prefix expands to, bounding the cost of one- and two-letter prefixes.
+    private static final int MAX_PREFIX_EXPANSIONS = 512;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Term> terms = new TreeMap<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] keys = new String[64];
+    private String[] titles = new String[64];
+    private int[] lengths = new int[64];
+    private long[] deleted = new long[1];
+    private int docCount;
+    private int deletedCount;
+    private long totalLength;
+
+    /**
+     * Adds the document, replacing any document with the same key.
+     *
+     * @param title returned with hits, typically the text shown to the user.
+     * @param texts the texts to index.
+     */
+    public void put(String key, String title, Collection<String> texts) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String text : texts) {
+            for (String token : tokenize(text)) {
+                frequencies.merge(token, 1, Integer::sum);
+                length++;
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            int id = docCount++;
+            if (id == keys.length) {
+                keys = Arrays.copyOf(keys, id * 2);
+                titles = Arrays.copyOf(titles, id * 2);
+                lengths = Arrays.copyOf(lengths, id * 2);
+            }
+            if ((id >>> 6) >= deleted.length) {
+                deleted = Arrays.copyOf(deleted, deleted.length * 2);
+            }
+            keys[id] = key;
+            titles[id] = title;
+            lengths[id] = length;
+            totalLength += length;
+            ids.put(key, id);
+            for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+                terms.computeIfAbsent(frequency.getKey(), term -> new Term()).add(id, frequency.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the document; returns false if it was not indexed.
+     */
+    public boolean remove(String key) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the estimated bytes held by the index.
+     */
+    public long weight() {
+        lock.readLock().lock();
+        try {
+            long weight = 64 + 20L * keys.length + 8L * deleted.length;
+            for (Map.Entry<String, Term> term : terms.entrySet()) {
+                weight += 96 + 2L * term.getKey().length() + term.getValue().data.length;
+            }
+            return weight;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit documents containing every term of the query, best match first.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        if (tokens.size() > MAX_QUERY_TERMS) {
+            tokens = tokens.subList(0, MAX_QUERY_TERMS);
+        }
+        boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+        lock.readLock().lock();
+        try {
+            // The terms each query token matches, rarest token first.
+            List<List<Term>> matches = new ArrayList<>(tokens.size());
+            int[] frequencies = new int[tokens.size()];
+            for (int i = 0; i < tokens.size(); i++) {
+                List<Term> matching = new ArrayList<>(1);
+                if (prefixLast && i == tokens.size() - 1) {
+                    for (Term term : terms.subMap(tokens.get(i), true, tokens.get(i) + Character.MAX_VALUE, false).values()) {
+                        matching.add(term);
+                        if (matching.size() == MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                    }
+                } else if (terms.containsKey(tokens.get(i))) {
+                    matching.add(terms.get(tokens.get(i)));
+                }
+                if (matching.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                for (Term term : matching) {
+                    frequencies[matches.size()] += term.docFreq;
+                }
+                matches.add(matching);
+            }
+            Integer[] order = new Integer[matches.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(frequencies[a], frequencies[b]));
+            return score(matches, order, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lowercase runs of letters and digits.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, Math.min(i, start + MAX_TERM_LENGTH)).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Term-at-a-time scoring: a document stays a candidate only while it has matched every token so far.
+    private List<Hit> score(List<List<Term>> matches, Integer[] order, int limit) {
+        int live = Math.max(1, docCount - deletedCount);
+        float averageLength = Math.max(1f, (float) totalLength / live);
+        float[] scores = new float[docCount];
+        byte[] matched = new byte[docCount];
+        int[] candidates = null;
+        int candidateCount = 0;
+        for (int step = 0; step < order.length; step++) {
+            for (Term term : matches.get(order[step])) {
+                double idf = Math.log(1 + (live - Math.min(term.docFreq, live) + 0.5) / (Math.min(term.docFreq, live) + 0.5));
+                int position = 0;
+                int doc = -1;
+                // Varints are decoded inline: this is the hot loop of a search.
+                while (position < term.length) {
+                    int delta = 0;
+                    for (int shift = 0; ; shift += 7) {
+                        byte b = term.data[position++];
+                        delta |= (b & 0x7f) << shift;
+                        if (b >= 0) {
+                            break;
+                        }
+                    }
+                    int frequency = 0;
+                    for (int shift = 0; ; shift += 7) {
+                        byte b = term.data[position++];
+                        frequency |= (b & 0x7f) << shift;
+                        if (b >= 0) {
+                            break;
+                        }
+                    }
+                    doc += delta;
+                    if (matched[doc] < step || matched[doc] > step + 1 || (deleted[doc >>> 6] & (1L << doc)) != 0) {
+                        continue;
+                    }
+                    if (step == 0 && matched[doc] == 0) {
+                        if (candidates == null) {
+                            candidates = new int[Math.min(docCount, 1024)];
+                        } else if (candidateCount == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, Math.min(docCount, candidateCount * 2));
+                        }
+                        candidates[candidateCount++] = doc;
+                    }
+                    matched[doc] = (byte) (step + 1);
+                    scores[doc] += (float) (idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * lengths[doc] / averageLength)));
+                }
+            }
+        }
+        // Keep the best matches in a min-heap of ids ordered by score.
+        int[] heap = new int[Math.min(limit, candidateCount)];
+        int heapSize = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int doc = candidates[i];
+            if (matched[doc] != order.length) {
+                continue;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize] = doc;
+                siftUp(heap, heapSize++, scores);
+            } else if (scores[doc] > scores[heap[0]]) {
+                heap[0] = doc;
+                siftDown(heap, heapSize, scores);
+            }
+        }
+        Hit[] hits = new Hit[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            int doc = heap[0];
+            hits[i] = new Hit(keys[doc], titles[doc], scores[doc]);
+            heap[0] = heap[i];
+            siftDown(heap, i, scores);
+        }
+        return new ArrayList<>(Arrays.asList(hits));
+    }
+
+    private static void siftUp(int[] heap, int index, float[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[heap[parent]] <= scores[heap[index]]) {
+                return;
+            }
+            int swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                if (scores[heap[child]] < scores[heap[smallest]]) {
+                    smallest = child;
+                }
+            }
+            if (smallest == index) {
+                return;
+            }
+            int swap = heap[smallest];
+            heap[smallest] = heap[index];
+            heap[index] = swap;
+            index = smallest;
+        }
+    }
+
+    private boolean removeLocked(String key) {
+        Integer id = ids.remove(key);
+        if (id == null) {
+            return false;
+        }
+        deleted[id >>> 6] |= 1L << id;
+        deletedCount++;
+        totalLength -= lengths[id];
+        titles[id] = null;
+        if (deletedCount > 1024 && deletedCount > docCount - deletedCount) {
+            compact();
+        }
+        return true;
+    }
+
+    // Renumbers the live documents densely and rewrites every posting list without deleted ids.
+    private void compact() {
+        int[] newIds = new int[docCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            newIds[doc] = (deleted[doc >>> 6] & (1L << doc)) != 0 ? -1 : live++;
+        }
+        for (Iterator<Term> iterator = terms.values().iterator(); iterator.hasNext(); ) {
+            Term term = iterator.next();
+            Term rewritten = new Term();
+            int position = 0;
+            int doc = -1;
+            int[] pair = new int[2];
+            while (position < term.length) {
+                position = readVarint(term.data, position, pair, 0);
+                position = readVarint(term.data, position, pair, 1);
+                doc += pair[0];
+                if (newIds[doc] >= 0) {
+                    rewritten.add(newIds[doc], pair[1]);
+                }
+            }
+            if (rewritten.docFreq == 0) {
+                iterator.remove();
+            } else {
+                term.data = Arrays.copyOf(rewritten.data, rewritten.length);
+                term.length = rewritten.length;
+                term.docFreq = rewritten.docFreq;
+                term.lastDoc = rewritten.lastDoc;
+            }
+        }
+        String[] newKeys = new String[Math.max(64, live * 2)];
+        String[] newTitles = new String[newKeys.length];
+        int[] newLengths = new int[newKeys.length];
+        for (int doc = 0; doc < docCount; doc++) {
+            if (newIds[doc] >= 0) {
+                newKeys[newIds[doc]] = keys[doc];
+                newTitles[newIds[doc]] = titles[doc];
+                newLengths[newIds[doc]] = lengths[doc];
+                ids.put(keys[doc], newIds[doc]);
+            }
+        }
+        keys = newKeys;
+        titles = newTitles;
+        lengths = newLengths;
+        deleted = new long[(newKeys.length + 63) >>> 6];
+        docCount = live;
+        deletedCount = 0;
+    }
+
+    private static int writeVarint(byte[] data, int position, int value) {
+        while ((value & ~0x7f) != 0) {
+            data[position++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        data[position++] = (byte) value;
+        return position;
+    }
+
+    private static int readVarint(byte[] data, int position, int[] out, int slot) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data[position++];
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                out[slot] = value;
+                return position;
+            }
+        }
+    }
+}
@@ -0,0 +1,611 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Flattened issues keyed by issue key, held as serialized records within a memory budget and
+ * spilled to a temporary file beyond it, so a search of millions of issues is bounded by disk
+ * rather than heap.
+ *
+ * Records are appended to an in-memory tail; once the tail reaches the budget it is written to
+ * the end of the spill file and reused. The only per-issue state on the heap is a compact index:
+ * the key's UTF-8 bytes in a shared arena, its hash, and the position and length of its latest
+ * record, about 30 bytes plus the key per issue. Lookups probe the index and read one record;
+ * iteration visits the issues in insertion order, reading the file through a window.
+ *
+ * Every read decodes a new map, so callers may modify what they get, and changes to a returned
+ * issue are not stored unless it is put back. Putting a key again appends a new record and
+ * leaves the old one unreachable. Keys must not be null; values must be strings, null, or
+ * collections of strings. Removal is not supported.
+ *
+ * The spill file is deleted on {@link #close()}, or once the buffer is no longer reachable. A
+ * buffer handed to several readers gives each a read-only {@link #view()}; it is then closed
+ * once it and every view have been closed.
+ */
+public final class IssueBuffer extends AbstractMap<String, Map<String, Object>> implements Closeable {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int WINDOW_BYTES = 64 * 1024;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LIST = 2;
+    private static final int NULL_LENGTH = -1;
+
+    private final long memoryBudget;
+    private final Path spillFolder;
+
+    // Field names are written as ids into this dictionary.
+    private final List<String> fieldNames = new ArrayList<>();
+    private final Map<String, Integer> fieldIds = new HashMap<>();
+
+    // Index, per entry in insertion order: key bytes keyArena[keyOffsets[i], keyOffsets[i + 1]),
+    // key hash, and the logical position and length of the latest record.
+    private byte[] keyArena = new byte[1024];
+    private int[] keyOffsets = new int[17];
+    private int[] keyHashes = new int[16];
+    private long[] recordPositions = new long[16];
+    private int[] recordLengths = new int[16];
+    private int size;
+    // Open-addressing table of entry index + 1; 0 marks an empty slot.
+    private int[] slots = new int[32];
+
+    // Records at logical positions below spilledBytes are in the file; the rest are in the tail.
+    private byte[] tail = new byte[8192];
+    private int tailSize;
+    private long spilledBytes;
+    private SpillFile spillFile;
+    private Cleaner.Cleanable cleanable;
+    private boolean closed;
+    // Views not yet closed, and whether close() is waiting for them.
+    private int openViews;
+    private boolean closeRequested;
+
+    /**
+     * @param memoryBudget bytes of serialized records kept on the heap before spilling; 0 or less
+     *                     never spills.
+     * @param spillFolder  the folder for the spill file, or null for the system temp folder.
+     */
+    public IssueBuffer(long memoryBudget, Path spillFolder) {
+        this.memoryBudget = memoryBudget;
+        this.spillFolder = spillFolder;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return key instanceof String && find(((String) key).getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    @Override
+    public synchronized Map<String, Object> get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int entry = find(((String) key).getBytes(StandardCharsets.UTF_8));
+        return entry >= 0 ? readRecord(entry, null) : null;
+    }
+
+    /**
+     * Stores the issue, returning null rather than the previous value to avoid reading it back.
+     */
+    @Override
+    public synchronized Map<String, Object> put(String key, Map<String, Object> issue) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(issue, "issue");
+        checkOpen();
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        // Write the record first: if it is rejected, the index must not point at it.
+        long position = spilledBytes + tailSize;
+        int length = writeRecord(issue);
+        int entry = find(keyBytes);
+        if (entry < 0) {
+            entry = addEntry(keyBytes);
+        }
+        recordPositions[entry] = position;
+        recordLengths[entry] = length;
+        if (memoryBudget > 0 && tailSize >= memoryBudget) {
+            spill();
+        }
+        return null;
+    }
+
+    /**
+     * Returns true once any record has been written to disk.
+     */
+    public synchronized boolean isSpilled() {
+        return spilledBytes > 0;
+    }
+
+    /**
+     * Bytes written to the spill file.
+     */
+    public synchronized long spilledBytes() {
+        return spilledBytes;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new EntryIterator<>() {
+                    @Override
+                    String read(int entry) {
+                        return key(entry);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return IssueBuffer.this.size();
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<String, Map<String, Object>>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Map<String, Object>>> iterator() {
+                return new EntryIterator<>() {
+                    @Override
+                    Entry<String, Map<String, Object>> read(int entry) {
+                        return new SimpleEntry<>(key(entry), readRecord(entry, this));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return IssueBuffer.this.size();
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only view of the buffer that keeps it open until the view is closed.
+     */
+    public synchronized View view() {
+        checkOpen();
+        openViews++;
+        return new View();
+    }
+
+    /**
+     * Releases the tail and deletes the spill file, once every view is closed too. The buffer
+     * cannot be used afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        closeRequested = true;
+        if (openViews > 0 || closed) {
+            return;
+        }
+        closed = true;
+        tail = new byte[0];
+        tailSize = 0;
+        if (cleanable != null) {
+            cleanable.clean();
+        }
+    }
+
+    // ---- index ----
+
+    private int find(byte[] keyBytes) {
+        int hash = hash(keyBytes);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (keyHashes[entry] == hash && Arrays.equals(keyArena, keyOffsets[entry], keyOffsets[entry + 1],
+                    keyBytes, 0, keyBytes.length)) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private int addEntry(byte[] keyBytes) {
+        if (size == keyHashes.length) {
+            int capacity = size + (size >> 1);
+            keyOffsets = Arrays.copyOf(keyOffsets, capacity + 1);
+            keyHashes = Arrays.copyOf(keyHashes, capacity);
+            recordPositions = Arrays.copyOf(recordPositions, capacity);
+            recordLengths = Arrays.copyOf(recordLengths, capacity);
+        }
+        int start = keyOffsets[size];
+        if (start + keyBytes.length > keyArena.length) {
+            keyArena = Arrays.copyOf(keyArena, Math.max(start + keyBytes.length, keyArena.length + (keyArena.length >> 1)));
+        }
+        System.arraycopy(keyBytes, 0, keyArena, start, keyBytes.length);
+        int entry = size++;
+        keyOffsets[size] = start + keyBytes.length;
+        keyHashes[entry] = hash(keyBytes);
+        if (size * 2 > slots.length) {
+            slots = new int[slots.length * 2];
+            for (int i = 0; i < size; i++) {
+                insertSlot(i);
+            }
+        } else {
+            insertSlot(entry);
+        }
+        return entry;
+    }
+
+    private void insertSlot(int entry) {
+        int mask = slots.length - 1;
+        int slot = keyHashes[entry] & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = entry + 1;
+    }
+
+    private String key(int entry) {
+        return new String(keyArena, keyOffsets[entry], keyOffsets[entry + 1] - keyOffsets[entry], StandardCharsets.UTF_8);
+    }
+
+    private static int hash(byte[] keyBytes) {
+        int hash = Arrays.hashCode(keyBytes);
+        return hash ^ (hash >>> 16);
+    }
+
+    // ---- records ----
+
+    /**
+     * Appends the issue to the tail as {@code fieldCount, (fieldId, tag, value)*} and returns its length.
+     */
+    private int writeRecord(Map<String, Object> issue) {
+        int start = tailSize;
+        writeVarint(issue.size());
+        for (Map.Entry<String, Object> field : issue.entrySet()) {
+            Integer id = fieldIds.get(field.getKey());
+            if (id == null) {
+                id = fieldNames.size();
+                fieldIds.put(field.getKey(), id);
+                fieldNames.add(field.getKey());
+            }
+            writeVarint(id);
+            Object value = field.getValue();
+            if (value == null) {
+                writeByte(NULL);
+            } else if (value instanceof String) {
+                writeByte(STRING);
+                writeString((String) value);
+            } else if (value instanceof Collection) {
+                writeByte(LIST);
+                writeVarint(((Collection<?>) value).size());
+                for (Object element : (Collection<?>) value) {
+                    if (element != null && !(element instanceof String)) {
+                        tailSize = start;
+                        throw new IllegalArgumentException("Unsupported list element in field " + field.getKey());
+                    }
+                    writeString((String) element);
+                }
+            } else {
+                tailSize = start;
+                throw new IllegalArgumentException("Unsupported value type in field " + field.getKey() + ": "
+                        + value.getClass().getName());
+            }
+        }
+        return tailSize - start;
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            writeVarint(NULL_LENGTH + 1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length + 1);
+        ensureTail(bytes.length);
+        System.arraycopy(bytes, 0, tail, tailSize, bytes.length);
+        tailSize += bytes.length;
+    }
+
+    private void writeVarint(int value) {
+        ensureTail(5);
+        while ((value & ~0x7f) != 0) {
+            tail[tailSize++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        tail[tailSize++] = (byte) value;
+    }
+
+    private void writeByte(byte value) {
+        ensureTail(1);
+        tail[tailSize++] = value;
+    }
+
+    private void ensureTail(int bytes) {
+        if (tailSize + bytes > tail.length) {
+            tail = Arrays.copyOf(tail, Math.max(tailSize + bytes, tail.length * 2));
+        }
+    }
+
+    /**
+     * Writes the tail to the end of the spill file and empties it.
+     */
+    private void spill() {
+        try {
+            if (spillFile == null) {
+                Path folder = spillFolder != null ? spillFolder : Path.of(System.getProperty("java.io.tmpdir"));
+                Files.createDirectories(folder);
+                Path path = Files.createTempFile(folder, "issues-", ".spill");
+                spillFile = new SpillFile(FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE), path);
+                cleanable = CLEANER.register(this, spillFile);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(tail, 0, tailSize);
+            long position = spilledBytes;
+            while (buffer.hasRemaining()) {
+                position += spillFile.channel.write(buffer, position);
+            }
+            spilledBytes = position;
+            tailSize = 0;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to spill issues to disk", e);
+        }
+    }
+
+    /**
+     * Decodes the entry's latest record, reading through the iterator's window when given.
+     */
+    private Map<String, Object> readRecord(int entry, EntryIterator<?> iterator) {
+        checkOpen();
+        long position = recordPositions[entry];
+        int length = recordLengths[entry];
+        if (position >= spilledBytes) {
+            return decode(tail, (int) (position - spilledBytes));
+        }
+        if (iterator != null) {
+            if (position < iterator.windowStart || position + length > iterator.windowStart + iterator.windowLength) {
+                iterator.fill(position, length);
+            }
+            return decode(iterator.window, (int) (position - iterator.windowStart));
+        }
+        byte[] record = new byte[length];
+        readFile(record, position, length);
+        return decode(record, 0);
+    }
+
+    private void readFile(byte[] target, long position, int length) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(target, 0, length);
+            while (buffer.hasRemaining()) {
+                if (spillFile.channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of spill file " + spillFile.path);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read spilled issues", e);
+        }
+    }
+
+    private Map<String, Object> decode(byte[] data, int offset) {
+        int[] position = {offset};
+        int fields = readVarint(data, position);
+        Map<String, Object> issue = new HashMap<>(fields * 4 / 3 + 1);
+        for (int f = 0; f < fields; f++) {
+            String name = fieldNames.get(readVarint(data, position));
+            byte tag = data[position[0]++];
+            if (tag == NULL) {
+                issue.put(name, null);
+            } else if (tag == STRING) {
+                issue.put(name, readString(data, position));
+            } else {
+                int count = readVarint(data, position);
+                List<String> values = new ArrayList<>(count);
+                for (int v = 0; v < count; v++) {
+                    values.add(readString(data, position));
+                }
+                issue.put(name, values);
+            }
+        }
+        return issue;
+    }
+
+    private static String readString(byte[] data, int[] position) {
+        int length = readVarint(data, position) - 1;
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        String value = new String(data, position[0], length, StandardCharsets.UTF_8);
+        position[0] += length;
+        return value;
+    }
+
+    private static int readVarint(byte[] data, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Issue buffer is closed");
+        }
+    }
+
+    /**
+     * A read-only view of the buffer. Its values are a {@link Closeable} collection that closes
+     * the view, so a holder of just the issues can release them.
+     */
+    public final class View extends AbstractMap<String, Map<String, Object>> implements Closeable {
+        private boolean viewClosed;
+
+        private View() {
+        }
+
+        @Override
+        public int size() {
+            return IssueBuffer.this.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return IssueBuffer.this.containsKey(key);
+        }
+
+        @Override
+        public Map<String, Object> get(Object key) {
+            return IssueBuffer.this.get(key);
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return IssueBuffer.this.keySet();
+        }
+
+        @Override
+        public Set<Entry<String, Map<String, Object>>> entrySet() {
+            return IssueBuffer.this.entrySet();
+        }
+
+        @Override
+        public Collection<Map<String, Object>> values() {
+            return new Values();
+        }
+
+        @Override
+        public void close() {
+            synchronized (IssueBuffer.this) {
+                if (viewClosed) {
+                    return;
+                }
+                viewClosed = true;
+                openViews--;
+                if (closeRequested) {
+                    IssueBuffer.this.close();
+                }
+            }
+        }
+
+        private final class Values extends AbstractCollection<Map<String, Object>> implements Closeable {
+            @Override
+            public Iterator<Map<String, Object>> iterator() {
+                Iterator<Entry<String, Map<String, Object>>> entries = entrySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public Map<String, Object> next() {
+                        return entries.next().getValue();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return View.this.size();
+            }
+
+            @Override
+            public void close() {
+                View.this.close();
+            }
+        }
+    }
+
+    /**
+     * Iterates entries in insertion order, including ones added during iteration.
+     */
+    private abstract class EntryIterator<T> implements Iterator<T> {
+        private int next;
+        private byte[] window;
+        private long windowStart;
+        private int windowLength;
+
+        @Override
+        public boolean hasNext() {
+            synchronized (IssueBuffer.this) {
+                return next < size;
+            }
+        }
+
+        @Override
+        public T next() {
+            synchronized (IssueBuffer.this) {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return read(next++);
+            }
+        }
+
+        abstract T read(int entry);
+
+        private void fill(long position, int length) {
+            int bytes = (int) Math.min(Math.max(WINDOW_BYTES, length), spilledBytes - position);
+            if (window == null || window.length < bytes) {
+                window = new byte[Math.max(WINDOW_BYTES, bytes)];
+            }
+            readFile(window, position, bytes);
+            windowStart = position;
+            windowLength = bytes;
+        }
+    }
+
+    /**
+     * Closes the spill file, which deletes it; run on close or once the buffer is unreachable.
+     */
+    private static final class SpillFile implements Runnable {
+        private final FileChannel channel;
+        private final Path path;
+
+        private SpillFile(FileChannel channel, Path path) {
+            this.channel = channel;
+            this.path = path;
+        }
+
+        @Override
+        public void run() {
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // The file is in a temp folder; nothing else can be done about it here.
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * Runs one task per item of a forest in parallel, never starting an item before its parent has
+ * completed. A child is released the moment its own parent finishes rather than when the whole
+ * level above it does, so the only waiting is on the item each task actually depends on.
+ *
+ * Each task receives its parent's result, so a child can refer to what its parent produced (for
+ * example, a newly created issue key). An item whose parent is not among the items is a root and
+ * receives null. Parent links that form a cycle are broken at one item, which runs as a root.
+ */
+public final class ParentFirstScheduler {
+
+    private ParentFirstScheduler() {
+    }
+
+    /**
+     * Runs the task for every item and returns each item's result.
+     *
+     * After the first failure no further tasks start. Tasks already running finish, then the
+     * failure is thrown; the results of completed tasks are lost with it, so tasks should record
+     * their own progress if a retry must skip them.
+     *
+     * @param parents     each item's parent, or null for none; the key set is the set of items.
+     * @param concurrency the maximum number of tasks running at once.
+     * @param task        called with the item and its parent's result.
+     */
+    public static <T> Map<String, T> run(Map<String, String> parents, int concurrency, BiFunction<String, T, T> task) {
+        Map<String, List<String>> children = new HashMap<>();
+        List<String> roots = new ArrayList<>();
+        for (Map.Entry<String, String> item : parents.entrySet()) {
+            String parent = item.getValue();
+            if (parent != null && parents.containsKey(parent) && !parent.equals(item.getKey())) {
+                children.computeIfAbsent(parent, key -> new ArrayList<>()).add(item.getKey());
+            } else {
+                roots.add(item.getKey());
+            }
+        }
+        roots.addAll(cycleBreakers(parents, children, roots));
+
+        Map<String, T> results = Collections.synchronizedMap(new HashMap<>());
+        if (roots.isEmpty()) {
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, parents.size())));
+        try {
+            Run<T> run = new Run<>(executor, children, task, results);
+            for (String root : roots) {
+                run.submit(root, null);
+            }
+            run.done.join();
+            Throwable failure = run.failure.get();
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns one item from each cycle of parent links, detached from its parent, so every item
+     * is reachable from the roots or from these.
+     */
+    private static List<String> cycleBreakers(Map<String, String> parents, Map<String, List<String>> children,
+                                              List<String> roots) {
+        Set<String> reached = new HashSet<>();
+        List<String> pending = new ArrayList<>(roots);
+        while (!pending.isEmpty()) {
+            String item = pending.remove(pending.size() - 1);
+            reached.add(item);
+            pending.addAll(children.getOrDefault(item, List.of()));
+        }
+        List<String> breakers = new ArrayList<>();
+        for (String item : parents.keySet()) {
+            if (reached.contains(item)) {
+                continue;
+            }
+            // Walk up until an item repeats; that item is on the cycle.
+            Set<String> path = new LinkedHashSet<>();
+            String current = item;
+            while (path.add(current)) {
+                current = parents.get(current);
+            }
+            breakers.add(current);
+            children.get(parents.get(current)).remove(current);
+            pending.add(current);
+            while (!pending.isEmpty()) {
+                String reachable = pending.remove(pending.size() - 1);
+                reached.add(reachable);
+                pending.addAll(children.getOrDefault(reachable, List.of()));
+            }
+        }
+        return breakers;
+    }
+
+    private static final class Run<T> {
+        private final ExecutorService executor;
+        private final Map<String, List<String>> children;
+        private final BiFunction<String, T, T> task;
+        private final Map<String, T> results;
+        // Submitted tasks not yet finished; a task submits its children before it finishes, so
+        // this only reaches zero once nothing is left to run.
+        private final AtomicInteger inFlight = new AtomicInteger();
+        // The first exception or error a task threw; a task's BiFunction cannot throw anything else.
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Run(ExecutorService executor, Map<String, List<String>> children, BiFunction<String, T, T> task,
+                    Map<String, T> results) {
+            this.executor = executor;
+            this.children = children;
+            this.task = task;
+            this.results = results;
+        }
+
+        private void submit(String item, T parentResult) {
+            inFlight.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    if (failure.get() == null) {
+                        T result = task.apply(item, parentResult);
+                        results.put(item, result);
+                        for (String child : children.getOrDefault(item, List.of())) {
+                            submit(child, result);
+                        }
+                    }
+                } catch (Throwable e) {
+                    // Any failure, errors included, must fail the run; otherwise the items below
+                    // the failed one would be silently skipped and the run reported complete.
+                    failure.compareAndSet(null, e);
+                } finally {
+                    if (inFlight.decrementAndGet() == 0) {
+                        done.complete(null);
+                    }
+                }
+            });
+        }
+    }
+}
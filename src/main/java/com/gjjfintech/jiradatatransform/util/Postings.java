@@ -0,0 +1,271 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable set of document ids drawn from {@code [0, universe)}, used as the posting list
+ * of an index term.
+ *
+ * Sparse sets are held as a sorted int array and dense ones as a bitmap, whichever is smaller:
+ * a bitmap costs universe / 8 bytes regardless of size, an array 4 bytes per id. Intersections
+ * pick the cheapest strategy for the pair: word-wise AND for two bitmaps, bit probes for an
+ * array against a bitmap, and a merge (galloping when one side is much shorter) for two arrays.
+ */
+public final class Postings {
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final int universe;
+    // Exactly one of ids and words is set.
+    private final int[] ids;
+    private final long[] words;
+    private final int cardinality;
+
+    private Postings(int universe, int[] ids, long[] words, int cardinality) {
+        this.universe = universe;
+        this.ids = ids;
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Creates the set from ids in ascending order, without duplicates.
+     *
+     * @param ids      the ids; only the first count are used, and the array may be kept.
+     * @param count    the number of ids.
+     * @param universe one more than the largest possible id.
+     */
+    public static Postings ofSorted(int[] ids, int count, int universe) {
+        if (useBitmap(count, universe)) {
+            long[] words = new long[wordCount(universe)];
+            for (int i = 0; i < count; i++) {
+                words[ids[i] >>> 6] |= 1L << ids[i];
+            }
+            return new Postings(universe, null, words, count);
+        }
+        return new Postings(universe, count == ids.length ? ids : Arrays.copyOf(ids, count), null, count);
+    }
+
+    public static Postings empty(int universe) {
+        return new Postings(universe, NO_IDS, null, 0);
+    }
+
+    /**
+     * Returns the set of every id in the universe.
+     */
+    public static Postings all(int universe) {
+        long[] words = new long[wordCount(universe)];
+        Arrays.fill(words, -1L);
+        if ((universe & 63) != 0 && words.length > 0) {
+            words[words.length - 1] = (1L << universe) - 1;
+        }
+        return universe == 0 ? empty(0) : new Postings(universe, null, words, universe);
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(int id) {
+        if (words != null) {
+            return id >= 0 && id < universe && (words[id >>> 6] & (1L << id)) != 0;
+        }
+        return Arrays.binarySearch(ids, 0, cardinality, id) >= 0;
+    }
+
+    /**
+     * Returns the ids in both sets.
+     */
+    public Postings and(Postings other) {
+        if (cardinality == 0 || other.cardinality == 0) {
+            return empty(universe);
+        }
+        if (words != null && other.words != null) {
+            long[] result = new long[words.length];
+            int count = 0;
+            for (int i = 0; i < result.length; i++) {
+                result[i] = words[i] & other.words[i];
+                count += Long.bitCount(result[i]);
+            }
+            return compact(result, count);
+        }
+        if (words != null || other.words != null) {
+            Postings list = words == null ? this : other;
+            Postings bitmap = words == null ? other : this;
+            int[] result = new int[list.cardinality];
+            int count = 0;
+            for (int i = 0; i < list.cardinality; i++) {
+                int id = list.ids[i];
+                if ((bitmap.words[id >>> 6] & (1L << id)) != 0) {
+                    result[count++] = id;
+                }
+            }
+            return new Postings(universe, count == result.length ? result : Arrays.copyOf(result, count), null, count);
+        }
+        Postings small = cardinality <= other.cardinality ? this : other;
+        Postings large = small == this ? other : this;
+        int[] result = new int[small.cardinality];
+        int count = 0;
+        if (large.cardinality / small.cardinality >= 16) {
+            // Gallop through the long list, one search per id of the short one.
+            int from = 0;
+            for (int i = 0; i < small.cardinality && from < large.cardinality; i++) {
+                int id = small.ids[i];
+                int step = 1;
+                int to = from;
+                while (to < large.cardinality && large.ids[to] < id) {
+                    from = to + 1;
+                    to += step;
+                    step <<= 1;
+                }
+                int found = Arrays.binarySearch(large.ids, from, Math.min(to + 1, large.cardinality), id);
+                if (found >= 0) {
+                    result[count++] = id;
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < small.cardinality && j < large.cardinality) {
+                int a = small.ids[i];
+                int b = large.ids[j];
+                if (a == b) {
+                    result[count++] = a;
+                    i++;
+                    j++;
+                } else if (a < b) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+        }
+        return new Postings(universe, count == result.length ? result : Arrays.copyOf(result, count), null, count);
+    }
+
+    /**
+     * Returns the ids in either set.
+     */
+    public Postings or(Postings other) {
+        if (other.cardinality == 0) {
+            return this;
+        }
+        if (cardinality == 0) {
+            return other;
+        }
+        long[] result = new long[wordCount(universe)];
+        int count = 0;
+        for (Postings postings : new Postings[]{this, other}) {
+            if (postings.words != null) {
+                for (int i = 0; i < result.length; i++) {
+                    result[i] |= postings.words[i];
+                }
+            } else {
+                for (int i = 0; i < postings.cardinality; i++) {
+                    result[postings.ids[i] >>> 6] |= 1L << postings.ids[i];
+                }
+            }
+        }
+        for (long word : result) {
+            count += Long.bitCount(word);
+        }
+        return compact(result, count);
+    }
+
+    /**
+     * Returns the ids in the universe that are not in this set.
+     */
+    public Postings not() {
+        return all(universe).andNot(this);
+    }
+
+    /**
+     * Returns the ids in this set that are not in the other.
+     */
+    public Postings andNot(Postings other) {
+        if (cardinality == 0 || other.cardinality == 0) {
+            return this;
+        }
+        long[] result = new long[wordCount(universe)];
+        if (words != null) {
+            System.arraycopy(words, 0, result, 0, result.length);
+        } else {
+            for (int i = 0; i < cardinality; i++) {
+                result[ids[i] >>> 6] |= 1L << ids[i];
+            }
+        }
+        if (other.words != null) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] &= ~other.words[i];
+            }
+        } else {
+            for (int i = 0; i < other.cardinality; i++) {
+                result[other.ids[i] >>> 6] &= ~(1L << other.ids[i]);
+            }
+        }
+        int count = 0;
+        for (long word : result) {
+            count += Long.bitCount(word);
+        }
+        return compact(result, count);
+    }
+
+    /**
+     * Calls the action with each id in ascending order.
+     */
+    public void forEach(IntConsumer action) {
+        if (words == null) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(ids[i]);
+            }
+            return;
+        }
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                action.accept((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated bytes held by this set.
+     */
+    public long weight() {
+        return 32 + (words != null ? 8L * words.length : 4L * ids.length);
+    }
+
+    // Converts a bitmap result back to an array when that is smaller.
+    private Postings compact(long[] result, int count) {
+        if (useBitmap(count, universe)) {
+            return new Postings(universe, null, result, count);
+        }
+        int[] list = new int[count];
+        int n = 0;
+        for (int w = 0; w < result.length; w++) {
+            long word = result[w];
+            while (word != 0) {
+                list[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return new Postings(universe, list, null, count);
+    }
+
+    private static boolean useBitmap(int count, int universe) {
+        return (long) count * 32 > universe;
+    }
+
+    private static int wordCount(int universe) {
+        return (universe + 63) >>> 6;
+    }
+}
@@ -0,0 +1,220 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A keyed cache of computed values with a time-to-live and stale-while-revalidate refresh.
+ *
+ * A value younger than the TTL is returned straight from the map. A value older than the TTL,
+ * but still inside the max-stale window, is also returned immediately while a refresh is run in
+ * the background. A missing value, or one past the max-stale window, is computed on the calling
+ * thread. In every case concurrent callers for the same key share a single computation.
+ *
+ * A background sweep refreshes entries that will expire before the next sweep and are still
+ * being read, so regularly polled keys never go stale, and drops entries that have not been
+ * read within the max-stale window.
+ *
+ * A cache may also be bounded to a number of entries, for keys supplied by callers (such as
+ * arbitrary JQL). Storing a value beyond the bound drops the entry that was read least recently.
+ */
+public class RefreshingCache<K, V> implements Closeable {
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+        private volatile long lastReadAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.lastReadAt = loadedAt;
+        }
+    }
+
+    private final Function<K, V> loader;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final long sweepNanos;
+    private final int maxEntries;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param name           name used for the background refresh threads.
+     * @param loader         computes the value for a key.
+     * @param ttlMillis      age after which a value is refreshed.
+     * @param maxStaleMillis age after which a stale value is no longer served, and idle time after which it is dropped.
+     * @param refreshThreads number of threads running background refreshes.
+     */
+    public RefreshingCache(String name, Function<K, V> loader, long ttlMillis, long maxStaleMillis, int refreshThreads) {
+        this(name, loader, ttlMillis, maxStaleMillis, refreshThreads, 0);
+    }
+
+    /**
+     * @param maxEntries number of entries kept before the least recently read is dropped; 0 for no bound.
+     * @see #RefreshingCache(String, Function, long, long, int)
+     */
+    public RefreshingCache(String name, Function<K, V> loader, long ttlMillis, long maxStaleMillis, int refreshThreads,
+                           int maxEntries) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttlMillis must be positive");
+        }
+        this.loader = loader;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxStaleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, maxStaleMillis));
+        this.sweepNanos = Math.max(TimeUnit.SECONDS.toNanos(1), ttlNanos / 2);
+        this.maxEntries = Math.max(0, maxEntries);
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, refreshThreads), runnable -> {
+            Thread thread = new Thread(runnable, name + "-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::sweep, sweepNanos, sweepNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the cached value for the key, computing it if there is no usable value.
+     * Exceptions thrown by the loader are rethrown to every caller waiting on that computation.
+     */
+    public V get(K key) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return load(key).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the cached value for the key if one can be served, without computing it.
+     * A stale value is returned and refreshed in the background, as in {@link #get}.
+     *
+     * @return the value, or null if there is none or it is past the max-stale window.
+     */
+    public V getIfPresent(K key) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry == null || now - entry.loadedAt >= maxStaleNanos) {
+            return null;
+        }
+        entry.lastReadAt = now;
+        if (now - entry.loadedAt >= ttlNanos) {
+            refreshAsync(key);
+        }
+        return entry.value;
+    }
+
+    /**
+     * Stores a value computed outside the cache, e.g. as part of a batch.
+     */
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+        evictIfFull(key);
+    }
+
+    /**
+     * Discards the cached value for the key; the next read computes it again.
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    // Runs the loader unless a computation for the key is already in flight, in which case that one is returned.
+    private CompletableFuture<V> load(K key) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            V value = loader.apply(key);
+            Entry<V> loaded = new Entry<>(value, System.nanoTime());
+            Entry<V> previous = entries.get(key);
+            if (previous != null) {
+                // A refresh is not a read; keep the idle clock running.
+                loaded.lastReadAt = previous.lastReadAt;
+            }
+            entries.put(key, loaded);
+            evictIfFull(key);
+            created.complete(value);
+        } catch (Throwable e) {
+            // Whatever the loader threw, callers waiting on the future must not hang.
+            created.completeExceptionally(e);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        } finally {
+            inFlight.remove(key, created);
+        }
+        return created;
+    }
+
+    private void refreshAsync(K key) {
+        if (inFlight.containsKey(key) || scheduler.isShutdown()) {
+            return;
+        }
+        // A failed refresh leaves the stale value in place until the max-stale window runs out.
+        scheduler.execute(() -> load(key));
+    }
+
+    // Drops the least recently read entries, other than the one just stored, until the bound is met.
+    private void evictIfFull(K stored) {
+        if (maxEntries == 0) {
+            return;
+        }
+        while (entries.size() > maxEntries) {
+            K oldestKey = null;
+            Entry<V> oldest = null;
+            for (Map.Entry<K, Entry<V>> mapEntry : entries.entrySet()) {
+                Entry<V> entry = mapEntry.getValue();
+                if (!mapEntry.getKey().equals(stored) && (oldest == null || entry.lastReadAt - oldest.lastReadAt < 0)) {
+                    oldestKey = mapEntry.getKey();
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldestKey, oldest);
+        }
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Map.Entry<K, Entry<V>> mapEntry : entries.entrySet()) {
+            Entry<V> entry = mapEntry.getValue();
+            if (now - entry.lastReadAt >= maxStaleNanos) {
+                entries.remove(mapEntry.getKey(), entry);
+            } else if (now - entry.lastReadAt < ttlNanos && now - entry.loadedAt + sweepNanos >= ttlNanos) {
+                refreshAsync(mapEntry.getKey());
+            }
+        }
+    }
+}
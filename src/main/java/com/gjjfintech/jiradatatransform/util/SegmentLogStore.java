@@ -0,0 +1,742 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent key-value store made of an append-only segment log and a memory-mapped hash index.
+ *
+ * Every write appends a record ({@code crc32, length, op, key length, key, value}) to the newest
+ * segment; a delete appends a tombstone. Segments roll over at a configured size. The index file
+ * is an open-addressing hash table of 16-byte slots ({@code key hash, segment, offset}) mapped into
+ * memory, so a read is one probe plus one positional read from the segment.
+ *
+ * The index is only trusted if it was closed cleanly; after a crash it is rebuilt by replaying the
+ * log, discarding a torn trailing record. Writes are made durable by {@link #sync()}.
+ *
+ * {@link #compact(double)} reclaims space from overwritten and deleted records by moving the live records
+ * of the oldest segment to the head of the log and deleting that segment. Always compacting the
+ * oldest segment first is what makes dropping its tombstones safe: no older record is left that a
+ * replay could resurrect.
+ */
+public class SegmentLogStore implements Closeable {
+
+    private static final int INDEX_MAGIC = 0x49584c31;
+    private static final int INDEX_HEADER = 64;
+    private static final int SLOT = 16;
+    private static final int RECORD_HEADER = 13;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    // Slots: segment > 0 is live; segment < 0 is a deleted key, pointing at its tombstone in
+    // segment -n; segment 0 is a deleted key whose tombstone was compacted away. All three keep
+    // their hash so probing continues past them.
+
+    private final Path folder;
+    private final long segmentBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, FileChannel> segments = new TreeMap<>();
+    // Bytes of live records per segment; the rest of a segment is reclaimable.
+    private final Map<Integer, Long> liveBytes = new HashMap<>();
+
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int usedSlots;
+    private int liveCount;
+    private int activeSegment;
+    private long activeSize;
+    private boolean closed;
+
+    private SegmentLogStore(Path folder, long segmentBytes) throws IOException {
+        this.folder = folder;
+        this.segmentBytes = Math.max(1024 * 1024, Math.min(segmentBytes, Integer.MAX_VALUE));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "segment-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int number = Integer.parseInt(name.substring("segment-".length(), name.length() - ".log".length()));
+                segments.put(number, FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(1, openSegment(1));
+        }
+        activeSegment = segments.lastKey();
+        activeSize = truncateTornTail(segments.get(activeSegment));
+        if (!openIndex()) {
+            rebuildIndex();
+        }
+        countLiveBytes();
+        // Until closed cleanly, the index cannot be trusted on the next open.
+        index.putInt(12, 0);
+        index.force();
+    }
+
+    /**
+     * Opens (or creates) the store in the given folder.
+     *
+     * @param folder       the folder holding the segments and index; created if missing.
+     * @param segmentBytes the size at which the log rolls over to a new segment.
+     */
+    public static SegmentLogStore open(Path folder, long segmentBytes) {
+        try {
+            Files.createDirectories(folder);
+            return new SegmentLogStore(folder, segmentBytes);
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Failed to open store: " + folder, e);
+        }
+    }
+
+    /**
+     * Returns the value stored for the key, or null if there is none.
+     */
+    public byte[] get(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int slot = findSlot(keyBytes, hash(keyBytes));
+            if (slot < 0 || !isLive(slot)) {
+                return null;
+            }
+            return readRecord(slotSegment(slot), slotOffset(slot)).value;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + key + " from store: " + folder, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores the value for the key, replacing any previous value.
+     */
+    public void put(String key, byte[] value) {
+        write(key, PUT, value);
+    }
+
+    /**
+     * Removes the key, if present.
+     */
+    public void delete(String key) {
+        write(key, DELETE, new byte[0]);
+    }
+
+    /**
+     * Calls the action with every key and value, in log order.
+     */
+    public void forEach(BiConsumer<String, byte[]> action) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            // Visit records in log order so segment reads are sequential.
+            List<long[]> locations = new ArrayList<>(liveCount);
+            for (int slot = 0; slot < capacity; slot++) {
+                if (isLive(slot)) {
+                    locations.add(new long[]{slotSegment(slot), slotOffset(slot)});
+                }
+            }
+            locations.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            for (long[] location : locations) {
+                Record record = readRecord((int) location[0], location[1]);
+                action.accept(record.key, record.value);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read store: " + folder, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of keys in the store.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the bytes held by all segments, live or not.
+     */
+    public long diskBytes() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (FileChannel channel : segments.values()) {
+                total += channel.size();
+            }
+            return total;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to size store: " + folder, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces all appended records to disk.
+     */
+    public void sync() {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            segments.get(activeSegment).force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to sync store: " + folder, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compacts the oldest segments while less than the given fraction of the log is live.
+     *
+     * Records are moved one at a time under the write lock, so reads and writes carry on while
+     * a segment is compacted.
+     *
+     * @return the number of segments removed.
+     */
+    public int compact(double minLiveRatio) {
+        int removed = 0;
+        while (true) {
+            int oldest;
+            lock.readLock().lock();
+            try {
+                checkOpen();
+                long total = 0;
+                long live = 0;
+                for (Map.Entry<Integer, FileChannel> segment : segments.entrySet()) {
+                    total += segment.getKey() == activeSegment ? activeSize : segment.getValue().size();
+                    live += liveBytes.getOrDefault(segment.getKey(), 0L);
+                }
+                if (segments.size() < 2 || total == 0 || (double) live / total >= minLiveRatio) {
+                    return removed;
+                }
+                oldest = segments.firstKey();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to size store: " + folder, e);
+            } finally {
+                lock.readLock().unlock();
+            }
+            compactSegment(oldest);
+            removed++;
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (FileChannel channel : segments.values()) {
+                channel.force(false);
+                channel.close();
+            }
+            index.putInt(12, 1);
+            index.force();
+            indexChannel.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close store: " + folder, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(String key, byte op, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(keyBytes);
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            int slot = findSlot(keyBytes, hash);
+            boolean present = slot >= 0 && isLive(slot);
+            if (op == DELETE && !present) {
+                return;
+            }
+            long[] location = append(op, keyBytes, value);
+            if (present) {
+                releaseLive(slotSegment(slot), slotOffset(slot));
+            }
+            if (op == DELETE) {
+                setSlot(slot, hash, -(int) location[0], (int) location[1]);
+                liveCount--;
+                return;
+            }
+            liveBytes.merge((int) location[0], location[2], Long::sum);
+            if (slot < 0) {
+                slot = insertSlot(hash);
+                liveCount++;
+            } else if (!present) {
+                liveCount++;
+            }
+            setSlot(slot, hash, (int) location[0], (int) location[1]);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write " + key + " to store: " + folder, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a record to the active segment, rolling over first if it would not fit.
+     *
+     * @return the segment, offset and length of the record.
+     */
+    private long[] append(byte op, byte[] key, byte[] value) throws IOException {
+        int length = RECORD_HEADER + key.length + value.length;
+        if (activeSize > 0 && activeSize + length > segmentBytes) {
+            segments.get(activeSegment).force(false);
+            activeSegment++;
+            segments.put(activeSegment, openSegment(activeSegment));
+            activeSize = 0;
+        }
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putInt(0).putInt(length).put(op).putInt(key.length).put(key).put(value);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, length - 4);
+        record.putInt(0, (int) crc.getValue());
+        record.flip();
+        FileChannel channel = segments.get(activeSegment);
+        long offset = activeSize;
+        while (record.hasRemaining()) {
+            channel.write(record, offset + record.position());
+        }
+        activeSize += length;
+        return new long[]{activeSegment, offset, length};
+    }
+
+    private void compactSegment(int segment) {
+        FileChannel channel;
+        long size;
+        lock.readLock().lock();
+        try {
+            channel = segments.get(segment);
+            size = channel.size();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compact store: " + folder, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+        // The segment is sealed, so it can be scanned without the lock; each record is
+        // re-checked against the index under the lock before being moved.
+        int firstTarget = 0;
+        long offset = 0;
+        while (offset < size) {
+            Record record;
+            try {
+                record = readRecord(channel, offset, size);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to compact store: " + folder, e);
+            }
+            if (record == null) {
+                break;
+            }
+            if (record.op == PUT) {
+                int target = moveIfLive(segment, offset, record);
+                if (firstTarget == 0) {
+                    firstTarget = target;
+                }
+            } else {
+                forgetTombstone(segment, offset, record);
+            }
+            offset += record.length;
+        }
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            // The moved records must be on disk before their only other copy is deleted.
+            if (firstTarget != 0) {
+                for (FileChannel target : segments.tailMap(firstTarget).values()) {
+                    target.force(false);
+                }
+            }
+            segments.remove(segment).close();
+            liveBytes.remove(segment);
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compact store: " + folder, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the record to the head of the log if the index still points at it.
+     *
+     * @return the segment the record was moved to, or 0 if it is no longer live.
+     */
+    private int moveIfLive(int segment, long offset, Record record) {
+        byte[] keyBytes = record.key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(keyBytes);
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            int slot = findSlot(keyBytes, hash);
+            if (slot < 0 || slotSegment(slot) != segment || slotOffset(slot) != offset) {
+                return 0;
+            }
+            long[] location = append(PUT, keyBytes, record.value);
+            releaseLive(segment, offset);
+            liveBytes.merge((int) location[0], location[2], Long::sum);
+            setSlot(slot, hash, (int) location[0], (int) location[1]);
+            return (int) location[0];
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compact store: " + folder, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks a deleted slot still pointing at this tombstone as having no record, since the
+     * tombstone is about to be removed with its segment.
+     */
+    private void forgetTombstone(int segment, long offset, Record record) {
+        byte[] keyBytes = record.key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(keyBytes);
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            int slot = findSlot(keyBytes, hash);
+            if (slot >= 0 && slotSegment(slot) == -segment && slotOffset(slot) == offset) {
+                setSlot(slot, hash, 0, 0);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compact store: " + folder, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void releaseLive(int segment, long offset) throws IOException {
+        liveBytes.merge(segment, -(long) recordLength(segment, offset), Long::sum);
+    }
+
+    // Index.
+
+    private boolean openIndex() throws IOException {
+        Path path = folder.resolve("index.map");
+        if (!Files.exists(path) || Files.size(path) < INDEX_HEADER) {
+            return false;
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        int slots = mapped.getInt(4);
+        if (mapped.getInt(0) != INDEX_MAGIC || mapped.getInt(12) != 1 || slots <= 0
+                || channel.size() != INDEX_HEADER + (long) slots * SLOT) {
+            channel.close();
+            return false;
+        }
+        indexChannel = channel;
+        index = mapped;
+        capacity = slots;
+        usedSlots = mapped.getInt(8);
+        for (int slot = 0; slot < capacity; slot++) {
+            if (isLive(slot)) {
+                liveCount++;
+            }
+        }
+        return true;
+    }
+
+    private void rebuildIndex() throws IOException {
+        replaceIndex(1024);
+        liveCount = 0;
+        for (Map.Entry<Integer, FileChannel> segment : segments.entrySet()) {
+            FileChannel channel = segment.getValue();
+            long size = segment.getKey() == activeSegment ? activeSize : channel.size();
+            long offset = 0;
+            while (offset < size) {
+                Record record = readRecord(channel, offset, size);
+                if (record == null) {
+                    break;
+                }
+                byte[] keyBytes = record.key.getBytes(StandardCharsets.UTF_8);
+                long hash = hash(keyBytes);
+                int slot = findSlot(keyBytes, hash);
+                boolean present = slot >= 0 && isLive(slot);
+                if (record.op == DELETE) {
+                    if (present) {
+                        setSlot(slot, hash, -segment.getKey(), (int) offset);
+                        liveCount--;
+                    }
+                } else {
+                    if (slot < 0) {
+                        slot = insertSlot(hash);
+                    }
+                    if (!present) {
+                        liveCount++;
+                    }
+                    setSlot(slot, hash, segment.getKey(), (int) offset);
+                }
+                offset += record.length;
+            }
+        }
+    }
+
+    private void countLiveBytes() throws IOException {
+        liveBytes.clear();
+        for (int slot = 0; slot < capacity; slot++) {
+            if (isLive(slot)) {
+                liveBytes.merge(slotSegment(slot), (long) recordLength(slotSegment(slot), slotOffset(slot)), Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Returns the slot holding the key, or -1 if the key has never been indexed.
+     */
+    private int findSlot(byte[] key, long hash) throws IOException {
+        int mask = capacity - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (true) {
+            long slotHash = slotHash(slot);
+            if (slotHash == 0) {
+                return -1;
+            }
+            // A 64-bit hash match is almost certainly the key, but the record decides.
+            if (slotHash == hash && slotSegment(slot) != 0 && keyEquals(slot, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(int slot, byte[] key) throws IOException {
+        FileChannel channel = segments.get(Math.abs(slotSegment(slot)));
+        ByteBuffer buffer = ByteBuffer.allocate(4 + key.length);
+        readFully(channel, buffer, slotOffset(slot) + 9);
+        buffer.flip();
+        if (buffer.getInt() != key.length) {
+            return false;
+        }
+        for (byte b : key) {
+            if (buffer.get() != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int insertSlot(long hash) throws IOException {
+        if ((usedSlots + 1) * 10L > capacity * 7L) {
+            replaceIndex(capacity * 2);
+        }
+        int mask = capacity - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (slotHash(slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        usedSlots++;
+        index.putInt(8, usedSlots);
+        return slot;
+    }
+
+    /**
+     * Writes a new index file of the given capacity holding the live slots of the current one
+     * (if any) and maps it in its place. Deleted slots are dropped along the way.
+     */
+    private void replaceIndex(int newCapacity) throws IOException {
+        Path path = folder.resolve("index.map");
+        Path temp = folder.resolve("index.map.tmp");
+        Files.deleteIfExists(temp);
+        FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + (long) newCapacity * SLOT);
+        int mask = newCapacity - 1;
+        int used = 0;
+        for (int slot = 0; index != null && slot < capacity; slot++) {
+            long hash = slotHash(slot);
+            if (hash == 0 || !isLive(slot)) {
+                continue;
+            }
+            int target = (int) (hash ^ (hash >>> 32)) & mask;
+            while (mapped.getLong(INDEX_HEADER + target * SLOT) != 0) {
+                target = (target + 1) & mask;
+            }
+            int position = INDEX_HEADER + target * SLOT;
+            mapped.putLong(position, hash);
+            mapped.putInt(position + 8, slotSegment(slot));
+            mapped.putInt(position + 12, slotOffset(slot));
+            used++;
+        }
+        mapped.putInt(0, INDEX_MAGIC);
+        mapped.putInt(4, newCapacity);
+        mapped.putInt(8, used);
+        mapped.putInt(12, 0);
+        mapped.force();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (indexChannel != null) {
+            indexChannel.close();
+        }
+        indexChannel = channel;
+        index = mapped;
+        capacity = newCapacity;
+        usedSlots = used;
+    }
+
+    private int slotPosition(int slot) {
+        return INDEX_HEADER + slot * SLOT;
+    }
+
+    private boolean isLive(int slot) {
+        return slotHash(slot) != 0 && slotSegment(slot) > 0;
+    }
+
+    private long slotHash(int slot) {
+        return index.getLong(slotPosition(slot));
+    }
+
+    private int slotSegment(int slot) {
+        return index.getInt(slotPosition(slot) + 8);
+    }
+
+    private int slotOffset(int slot) {
+        return index.getInt(slotPosition(slot) + 12);
+    }
+
+    private void setSlot(int slot, long hash, int segment, int offset) {
+        int position = slotPosition(slot);
+        index.putLong(position, hash);
+        index.putInt(position + 8, segment);
+        index.putInt(position + 12, offset);
+    }
+
+    // FNV-1a, with zero reserved for empty slots.
+    private static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    // Segments.
+
+    private static final class Record {
+        private final byte op;
+        private final String key;
+        private final byte[] value;
+        private final int length;
+
+        private Record(byte op, String key, byte[] value, int length) {
+            this.op = op;
+            this.key = key;
+            this.value = value;
+            this.length = length;
+        }
+    }
+
+    private Record readRecord(int segment, long offset) throws IOException {
+        FileChannel channel = segments.get(segment);
+        return readRecord(channel, offset, segment == activeSegment ? activeSize : channel.size());
+    }
+
+    /**
+     * Reads and verifies the record at the offset, or returns null if it is torn or corrupt.
+     */
+    private static Record readRecord(FileChannel channel, long offset, long limit) throws IOException {
+        if (offset + RECORD_HEADER > limit) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(8);
+        readFully(channel, header, offset);
+        int crc = header.getInt(0);
+        int length = header.getInt(4);
+        if (length < RECORD_HEADER || offset + length > limit) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length - 4);
+        readFully(channel, body, offset + 4);
+        CRC32 check = new CRC32();
+        check.update(body.array(), 0, body.capacity());
+        if ((int) check.getValue() != crc) {
+            return null;
+        }
+        body.position(4);
+        byte op = body.get();
+        int keyLength = body.getInt();
+        if (keyLength < 0 || keyLength > body.remaining()) {
+            return null;
+        }
+        String key = new String(body.array(), body.position(), keyLength, StandardCharsets.UTF_8);
+        byte[] value = new byte[body.remaining() - keyLength];
+        System.arraycopy(body.array(), body.position() + keyLength, value, 0, value.length);
+        return new Record(op, key, value, length);
+    }
+
+    private int recordLength(int segment, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(segments.get(segment), header, offset + 4);
+        return header.getInt(0);
+    }
+
+    /**
+     * Scans the segment and truncates it after its last valid record.
+     *
+     * @return the valid length of the segment.
+     */
+    private static long truncateTornTail(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long offset = 0;
+        while (offset < size) {
+            Record record = readRecord(channel, offset, size);
+            if (record == null) {
+                break;
+            }
+            offset += record.length;
+        }
+        if (offset < size) {
+            channel.truncate(offset);
+            channel.force(false);
+        }
+        return offset;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment");
+            }
+        }
+    }
+
+    private FileChannel openSegment(int number) throws IOException {
+        return FileChannel.open(segmentPath(number), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(int number) {
+        return folder.resolve(String.format("segment-%06d.log", number));
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Store is closed: " + folder);
+        }
+    }
+}
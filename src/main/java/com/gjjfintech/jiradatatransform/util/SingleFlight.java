@@ -0,0 +1,88 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key: the first caller runs the computation and
+ * every caller arriving while it is running waits for, and receives, that same result (or
+ * exception). Nothing is kept once the computation finishes, so a later call computes afresh.
+ *
+ * Callers share the result object, so it must not be modified unless each caller copies it.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the computation for the key, or joins the one already running for it.
+     */
+    public V execute(K key, Supplier<V> computation) {
+        return execute(key, computation, (value, callers) -> { });
+    }
+
+    /**
+     * Runs the computation for the key, or joins the one already running for it, and passes the
+     * result with the number of callers that will receive it to onShared before any of them
+     * does. A result holding resources can use the count to release them once every caller is
+     * done with it.
+     */
+    public V execute(K key, Supplier<V> computation, ObjIntConsumer<V> onShared) {
+        Flight<V> created = new Flight<>();
+        Flight<V> flight = inFlight.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return created;
+            }
+            existing.callers++;
+            return existing;
+        });
+        if (flight != created) {
+            try {
+                return flight.result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        V value;
+        try {
+            value = computation.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, created);
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+        // Nobody can join once the flight is removed, so the count is final.
+        inFlight.remove(key, created);
+        try {
+            onShared.accept(value, created.callers);
+        } catch (RuntimeException | Error e) {
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+        created.result.complete(value);
+        return value;
+    }
+
+    /**
+     * Returns the number of computations currently running.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * A running computation and the number of callers waiting for it, including the one running
+     * it. The count is only changed inside compute() for the key, while the flight is in the map.
+     */
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile int callers = 1;
+    }
+}
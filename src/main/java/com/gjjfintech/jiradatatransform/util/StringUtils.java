@@ -37,6 +37,42 @@ public class StringUtils {
         return sb.toString();
     }
 
+    /**
+     * Normalizes a JQL query for use as a lookup key: surrounding whitespace is trimmed and every
+     * run of whitespace outside quoted strings is collapsed to a single space. Quoted strings are
+     * kept as they are, since whitespace inside them is significant.
+     */
+    public static String normalizeJql(String jql) {
+        if (jql == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(jql.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < jql.length(); i++) {
+            char c = jql.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            sb.append(c);
+            if (quote != 0) {
+                if (c == '\\' && i + 1 < jql.length()) {
+                    sb.append(jql.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            }
+        }
+        return sb.toString();
+    }
+
     /**
      * Extracts all risk IDs from the given input string.
      * A risk ID is defined as one or more letters followed by a hyphen and one or more digits.
@@ -0,0 +1,409 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of per-issue sync outcomes.
+ *
+ * Each record is a single line of the form {@code crc32<TAB>sourceKey<TAB>outcome<TAB>destinationKey}.
+ * Records are handed to a background writer which collects everything queued within the commit
+ * window into one write followed by a single fsync (group commit), so the cost of durability is
+ * shared by every record in the batch rather than paid once per issue.
+ *
+ * On open, the existing file is replayed. A torn or corrupt trailing record (e.g. from a crash
+ * mid-write) is discarded and the file truncated back to the last valid record.
+ *
+ * Once a commit fails, the journal can no longer be trusted to resume the job: later appends and
+ * {@link #flush()} throw instead of carrying on without durable records.
+ *
+ * The file is locked while the journal is open, so two runs of the same job, in this process or
+ * another, cannot write over each other's records; opening a locked journal throws
+ * {@link LockedException}.
+ */
+public class SyncJournal implements Closeable {
+
+    public enum Outcome { CREATED, UPDATED }
+
+    /**
+     * A replayed or newly appended journal record.
+     */
+    public static class Entry {
+        private final String sourceKey;
+        private final Outcome outcome;
+        private final String destinationKey;
+
+        public Entry(String sourceKey, Outcome outcome, String destinationKey) {
+            this.sourceKey = sourceKey;
+            this.outcome = outcome;
+            this.destinationKey = destinationKey;
+        }
+
+        public String getSourceKey() {
+            return sourceKey;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public String getDestinationKey() {
+            return destinationKey;
+        }
+    }
+
+    /**
+     * Thrown when the journal is already open in another run of the same job.
+     */
+    public static class LockedException extends RuntimeException {
+        public LockedException(Path file) {
+            super("Sync journal is in use by another run of the same job: " + file);
+        }
+    }
+
+    private static final class Pending {
+        private final byte[] bytes;
+        private final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        private Pending(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    // Marker used to wake the writer thread on close.
+    private static final Pending CLOSE = new Pending(new byte[0]);
+
+    private final Path file;
+    private final FileChannel channel;
+    // Held until the channel is closed.
+    private final FileLock lock;
+    private final int maxBatchSize;
+    private final long commitWindowMillis;
+    private final Map<String, Entry> completed = new ConcurrentHashMap<>();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+    // The first failed commit.
+    private volatile IOException failure;
+
+    private SyncJournal(Path file, int maxBatchSize, long commitWindowMillis) throws IOException {
+        this.file = file;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.commitWindowMillis = Math.max(0, commitWindowMillis);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            this.lock = tryLock(channel);
+            if (lock == null) {
+                throw new LockedException(file);
+            }
+            replay();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.writer = new Thread(this::writeLoop, "sync-journal-" + file.getFileName());
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Opens (or creates) the journal at the given path and replays any records already in it.
+     *
+     * @param file               the journal file.
+     * @param maxBatchSize       the maximum number of records written per fsync.
+     * @param commitWindowMillis how long the writer waits for more records before committing a batch.
+     * @return the opened journal.
+     * @throws LockedException if another run of the same job has the journal open.
+     */
+    public static SyncJournal open(Path file, int maxBatchSize, long commitWindowMillis) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            return new SyncJournal(file, maxBatchSize, commitWindowMillis);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open sync journal: " + file, e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns true if the journal already holds an outcome for the given source issue key.
+     */
+    public boolean isCompleted(String sourceKey) {
+        return completed.containsKey(sourceKey);
+    }
+
+    /**
+     * Returns the recorded outcome for the given source issue key, or null if none.
+     */
+    public Entry getCompleted(String sourceKey) {
+        return completed.get(sourceKey);
+    }
+
+    /**
+     * Returns an unmodifiable view of all recorded outcomes keyed by source issue key.
+     */
+    public Map<String, Entry> getCompletedEntries() {
+        return Collections.unmodifiableMap(completed);
+    }
+
+    /**
+     * Queues an outcome for the next group commit.
+     *
+     * @return a future completed once the record has been forced to disk.
+     */
+    public CompletableFuture<Void> append(String sourceKey, Outcome outcome, String destinationKey) {
+        if (closed) {
+            throw new IllegalStateException("Sync journal is closed: " + file);
+        }
+        checkWritable();
+        Entry entry = new Entry(sourceKey, outcome, destinationKey);
+        completed.put(sourceKey, entry);
+        Pending pending = new Pending(encode(entry));
+        queue.add(pending);
+        return pending.durable;
+    }
+
+    /**
+     * Waits until every record appended so far has been forced to disk.
+     *
+     * @throws RuntimeException if a commit failed.
+     */
+    public void flush() {
+        if (!closed) {
+            Pending marker = new Pending(new byte[0]);
+            queue.add(marker);
+            try {
+                marker.durable.join();
+            } catch (CompletionException e) {
+                // Reported through failure below.
+            }
+        }
+        checkWritable();
+    }
+
+    private void checkWritable() {
+        IOException e = failure;
+        if (e != null) {
+            throw new RuntimeException("Failed to write sync journal: " + file, e);
+        }
+    }
+
+    /**
+     * Commits any queued records, stops the writer and closes the file, releasing its lock.
+     */
+    @Override
+    public void close() {
+        if (stopWriter()) {
+            closeChannel();
+        }
+    }
+
+    /**
+     * Closes the journal and removes its file. Used once a job has run to completion.
+     */
+    public void delete() {
+        if (!stopWriter()) {
+            throw new IllegalStateException("Sync journal is closed: " + file);
+        }
+        // Remove the file before releasing the lock, so it is never deleted under another run.
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete sync journal: " + file, e);
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * Commits any queued records and stops the writer.
+     *
+     * @return false if the journal was already closed.
+     */
+    private boolean stopWriter() {
+        if (closed) {
+            return false;
+        }
+        closed = true;
+        queue.add(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close sync journal: " + file, e);
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held through another channel in this process.
+            return null;
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        boolean stop = false;
+        while (!stop) {
+            try {
+                Pending first = queue.take();
+                if (first == CLOSE) {
+                    stop = true;
+                } else {
+                    batch.add(first);
+                }
+                // Linger for the commit window so concurrent appends share one fsync.
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(commitWindowMillis);
+                while (!stop && batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    } else if (next == CLOSE) {
+                        stop = true;
+                    } else {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                stop = true;
+            }
+            // Pick up anything queued behind the close marker.
+            if (stop) {
+                Pending rest;
+                while ((rest = queue.poll()) != null) {
+                    if (rest != CLOSE) {
+                        batch.add(rest);
+                    }
+                }
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            int size = 0;
+            for (Pending pending : batch) {
+                size += pending.bytes.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            for (Pending pending : batch) {
+                buffer.put(pending.bytes);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            for (Pending pending : batch) {
+                pending.durable.complete(null);
+            }
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+            for (Pending pending : batch) {
+                pending.durable.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void replay() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        channel.read(buffer, 0);
+        byte[] bytes = buffer.array();
+        int lineStart = 0;
+        long validLength = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                Entry entry = decode(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+                if (entry == null) {
+                    break;
+                }
+                completed.put(entry.getSourceKey(), entry);
+                validLength = i + 1;
+                lineStart = i + 1;
+            }
+        }
+        // Drop a torn or corrupt tail so new records start on a clean line.
+        if (validLength < size) {
+            channel.truncate(validLength);
+            channel.force(false);
+        }
+        channel.position(validLength);
+    }
+
+    private static byte[] encode(Entry entry) {
+        String body = entry.getSourceKey() + '\t' + entry.getOutcome().name() + '\t'
+                + (entry.getDestinationKey() != null ? entry.getDestinationKey() : "");
+        return (checksum(body) + '\t' + body + '\n').getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Entry decode(String line) {
+        int tab = line.indexOf('\t');
+        if (tab < 0) {
+            return null;
+        }
+        String body = line.substring(tab + 1);
+        if (!line.substring(0, tab).equals(checksum(body))) {
+            return null;
+        }
+        String[] parts = body.split("\t", -1);
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new Entry(parts[0], Outcome.valueOf(parts[1]), parts[2].isEmpty() ? null : parts[2]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String checksum(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+}
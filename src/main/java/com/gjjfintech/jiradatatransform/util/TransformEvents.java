@@ -0,0 +1,186 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder events marking the stages of the transform pipeline, so a recording shows
+ * where a slow sync spends its time: Jira requests and search pages, link expansion, flattening,
+ * CSV parsing and destination writes.
+ *
+ * Emitters follow the usual JFR pattern: create the event, {@code begin()}, do the work, then
+ * fill in the fields only if {@code shouldCommit()} and {@code commit()}. Without a running
+ * recording shouldCommit() is false, so the fields are never computed and the JIT removes the
+ * rest; the events cost nothing measurable when profiling is off.
+ *
+ * The per-issue events, IssueFlatten and IssueWrite, only record calls that took longer than
+ * their threshold, so a long sync does not flood the recording with one event per issue.
+ */
+public final class TransformEvents {
+
+    private static final String CATEGORY = "Jira Data Transform";
+
+    private TransformEvents() {
+    }
+
+    @Name("com.gjjfintech.jiradatatransform.ApiRequest")
+    @Label("API Request")
+    @Description("One HTTP request of an outbound API client, including reading its response")
+    @Category({CATEGORY, "Client"})
+    @StackTrace(false)
+    public static final class ApiRequest extends Event {
+        @Label("Client")
+        public String client;
+        @Label("Instance")
+        public String instance;
+        @Label("Operation")
+        public String operation;
+        @Label("Status")
+        public String status;
+        @Label("Bytes Received")
+        @DataAmount(DataAmount.BYTES)
+        public long bytesReceived;
+    }
+
+    @Name("com.gjjfintech.jiradatatransform.SearchPage")
+    @Label("Search Page")
+    @Description("One page of a Jira search, fetched and read")
+    @Category({CATEGORY, "Client"})
+    @StackTrace(false)
+    public static final class SearchPage extends Event {
+        @Label("JQL")
+        public String jql;
+        @Label("Start At")
+        public int startAt;
+        @Label("Issues")
+        public int issues;
+        @Label("Total")
+        public int total;
+    }
+
+    @Name("com.gjjfintech.jiradatatransform.Search")
+    @Label("Search")
+    @Description("A JQL search without link expansion, answered by the replica, the local planner or Jira")
+    @Category({CATEGORY, "Extract"})
+    @StackTrace(false)
+    public static final class Search extends Event {
+        @Label("Instance")
+        public String instance;
+        @Label("JQL")
+        public String jql;
+        @Label("Answered By")
+        public String answeredBy;
+        @Label("Issues")
+        public int issues;
+    }
+
+    @Name("com.gjjfintech.jiradatatransform.LinkExpansion")
+    @Label("Link Expansion")
+    @Description("Fetching the parent and dependant issues that the searched issues refer to")
+    @Category({CATEGORY, "Extract"})
+    @StackTrace(false)
+    public static final class LinkExpansion extends Event {
+        @Label("Instance")
+        public String instance;
+        @Label("Searched Issues")
+        public int searchedIssues;
+        @Label("Linked Issues Fetched")
+        public int fetchedIssues;
+    }
+
+    @Name("com.gjjfintech.jiradatatransform.IssueFetch")
+    @Label("Issue Fetch")
+    @Description("A single issue fetched by key, from the replica or from Jira")
+    @Category({CATEGORY, "Extract"})
+    @StackTrace(false)
+    public static final class IssueFetch extends Event {
+        @Label("Instance")
+        public String instance;
+        @Label("Issue Key")
+        public String issueKey;
+        @Label("From Replica")
+        public boolean fromReplica;
+        @Label("Found")
+        public boolean found;
+    }
+
+    @Name("com.gjjfintech.jiradatatransform.IssueFlatten")
+    @Label("Issue Flatten")
+    @Description("Flattening one issue; for streamed responses this includes reading the issue from the response")
+    @Category({CATEGORY, "Transform"})
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class IssueFlatten extends Event {
+        @Label("Issue Key")
+        public String issueKey;
+        @Label("Fields")
+        public int fields;
+    }
+
+    @Name("com.gjjfintech.jiradatatransform.CsvParse")
+    @Label("CSV Parse")
+    @Description("Reading and parsing an exported CSV file")
+    @Category({CATEGORY, "Extract"})
+    @StackTrace(false)
+    public static final class CsvParse extends Event {
+        @Label("File")
+        public String file;
+        @Label("File Size")
+        @DataAmount(DataAmount.BYTES)
+        public long bytes;
+        @Label("Records")
+        public int records;
+    }
+
+    @Name("com.gjjfintech.jiradatatransform.CsvFlatten")
+    @Label("CSV Flatten")
+    @Description("Converting the parsed CSV records into flattened issues")
+    @Category({CATEGORY, "Transform"})
+    @StackTrace(false)
+    public static final class CsvFlatten extends Event {
+        @Label("File")
+        public String file;
+        @Label("Issues")
+        public int issues;
+    }
+
+    @Name("com.gjjfintech.jiradatatransform.IssueWrite")
+    @Label("Issue Write")
+    @Description("Creating or updating one issue")
+    @Category({CATEGORY, "Load"})
+    @StackTrace(false)
+    @Threshold("20 ms")
+    public static final class IssueWrite extends Event {
+        @Label("Instance")
+        public String instance;
+        @Label("Operation")
+        public String operation;
+        @Label("Issue Key")
+        public String issueKey;
+        @Label("Parent Key")
+        public String parentKey;
+    }
+
+    @Name("com.gjjfintech.jiradatatransform.Sync")
+    @Label("Sync")
+    @Description("Synchronizing a set of source issues to the destination instance")
+    @Category({CATEGORY, "Load"})
+    @StackTrace(false)
+    public static final class Sync extends Event {
+        @Label("Job Id")
+        public String jobId;
+        @Label("Source Issues")
+        public int sourceIssues;
+        @Label("Issues Written")
+        @Description("Issues written by this run; 0 when the sync failed")
+        public int writtenIssues;
+        @Label("Completed")
+        public boolean completed;
+    }
+}
@@ -0,0 +1,316 @@
+package com.gjjfintech.jiradatatransform.harness;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-process HTTP stub of the Jira REST endpoints used by JiraApiClient:
+ * search, get issue, create issue, update issue and myself.
+ *
+ * The dataset is generated on the fly from the issue index, so large datasets cost no heap.
+ * Issue SRC-n has summary, due date, labels, an External Linking ID (customfield_10000),
+ * a parent link to one of a small set of PAR-n issues outside the search results,
+ * and a couple of issue links.
+ */
+public class JiraStubServer implements AutoCloseable {
+
+    /**
+     * Stub behaviour settings.
+     */
+    public static class Settings {
+        // Number of issues returned by the search endpoint.
+        int datasetSize = 500;
+        // Maximum page size honoured by the search endpoint, regardless of the requested maxResults.
+        int pageSize = 50;
+        // Artificial latency added to every response.
+        long latencyMillis = 0;
+        // Respond 429 to every Nth request; 0 disables injection.
+        int rateLimitEvery = 0;
+        // Number of distinct parent issues referenced by parent links.
+        int parentCount = 20;
+        // Every Nth issue is marked "[DST]" (create); the rest link to an existing destination key.
+        int createEvery = 4;
+
+        public Settings datasetSize(int datasetSize) {
+            this.datasetSize = datasetSize;
+            return this;
+        }
+
+        public Settings pageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public Settings latencyMillis(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+            return this;
+        }
+
+        public Settings rateLimitEvery(int rateLimitEvery) {
+            this.rateLimitEvery = rateLimitEvery;
+            return this;
+        }
+
+        public Settings parentCount(int parentCount) {
+            this.parentCount = parentCount;
+            return this;
+        }
+    }
+
+    private static final String API = "/rest/api/2";
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger rateLimitedCount = new AtomicInteger();
+    private final AtomicInteger createdCount = new AtomicInteger();
+    private final AtomicInteger updatedCount = new AtomicInteger();
+
+    private JiraStubServer(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newFixedThreadPool(16);
+        this.server.setExecutor(executor);
+        this.server.createContext(API + "/", this::handle);
+    }
+
+    public static JiraStubServer start(Settings settings) throws IOException {
+        // Disable Nagle on the JDK server so small responses are not held back by delayed ACKs.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        JiraStubServer stub = new JiraStubServer(settings);
+        stub.server.start();
+        return stub;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public int getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+
+    public int getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int request = requestCount.incrementAndGet();
+            sleep(settings.latencyMillis);
+            drain(exchange.getRequestBody());
+
+            if (settings.rateLimitEvery > 0 && request % settings.rateLimitEvery == 0) {
+                rateLimitedCount.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "0");
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().substring(API.length());
+            if ("GET".equals(method) && path.equals("/search")) {
+                search(exchange);
+            } else if ("GET".equals(method) && path.equals("/myself")) {
+                respond(exchange, 200, generator -> {
+                    generator.writeStartObject();
+                    generator.writeStringField("accountId", "stub-user");
+                    generator.writeStringField("displayName", "Stub User");
+                    generator.writeEndObject();
+                });
+            } else if ("GET".equals(method) && path.startsWith("/issue/")) {
+                getIssue(exchange, path.substring("/issue/".length()));
+            } else if ("POST".equals(method) && path.equals("/issue")) {
+                int id = createdCount.incrementAndGet();
+                respond(exchange, 201, generator -> {
+                    generator.writeStartObject();
+                    generator.writeStringField("id", String.valueOf(900000 + id));
+                    generator.writeStringField("key", "DST-NEW-" + id);
+                    generator.writeStringField("self", getBaseUrl() + API + "/issue/" + (900000 + id));
+                    generator.writeEndObject();
+                });
+            } else if ("PUT".equals(method) && path.startsWith("/issue/")) {
+                updatedCount.incrementAndGet();
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+        }
+    }
+
+    private void search(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI());
+        int startAt = Integer.parseInt(query.getOrDefault("startAt", "0"));
+        int requested = Integer.parseInt(query.getOrDefault("maxResults", "50"));
+        int maxResults = Math.min(requested, settings.pageSize);
+        int end = Math.min(settings.datasetSize, startAt + maxResults);
+        respond(exchange, 200, generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("expand", "schema,names");
+            generator.writeNumberField("startAt", startAt);
+            generator.writeNumberField("maxResults", maxResults);
+            generator.writeNumberField("total", settings.datasetSize);
+            generator.writeArrayFieldStart("issues");
+            for (int i = startAt; i < end; i++) {
+                writeIssue(generator, i);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        });
+    }
+
+    private void getIssue(HttpExchange exchange, String key) throws IOException {
+        if (key.startsWith("PAR-")) {
+            int index = Integer.parseInt(key.substring(4));
+            respond(exchange, 200, generator -> writeParent(generator, index));
+        } else if (key.startsWith("SRC-")) {
+            int index = Integer.parseInt(key.substring(4)) - 1;
+            respond(exchange, 200, generator -> writeIssue(generator, index));
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+        }
+    }
+
+    private void writeIssue(JsonGenerator generator, int index) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", String.valueOf(100000 + index));
+        generator.writeStringField("self", getBaseUrl() + API + "/issue/" + (100000 + index));
+        generator.writeStringField("key", "SRC-" + (index + 1));
+        generator.writeObjectFieldStart("fields");
+        generator.writeStringField("summary", "Synthetic epic " + (index + 1) + " for payment platform migration");
+        generator.writeStringField("description", "Generated by the sync throughput harness. ".repeat(8));
+        generator.writeStringField("duedate", "2025-0" + (1 + index % 9) + "-1" + (index % 10));
+        generator.writeArrayFieldStart("labels");
+        generator.writeString("harness");
+        generator.writeString("wave-" + (index % 5));
+        generator.writeEndArray();
+        generator.writeStringField("customfield_10000",
+                index % settings.createEvery == 0 ? "[DST]" : "DST-" + (index + 1));
+        generator.writeObjectFieldStart("parent");
+        generator.writeStringField("key", "PAR-" + (index % settings.parentCount));
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("status");
+        generator.writeStringField("name", "In Progress");
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("issuetype");
+        generator.writeStringField("name", "Epic");
+        generator.writeEndObject();
+        for (int i = 0; i < 20; i++) {
+            generator.writeStringField("customfield_" + (11000 + i), "noise value " + i);
+        }
+        generator.writeArrayFieldStart("issuelinks");
+        for (int i = 1; i <= 2; i++) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("type");
+            generator.writeStringField("name", "Blocks");
+            generator.writeStringField("inward", i == 1 ? "is blocked by" : "relates to");
+            generator.writeStringField("outward", i == 1 ? "blocks" : "relates to");
+            generator.writeEndObject();
+            generator.writeObjectFieldStart("inwardIssue");
+            generator.writeStringField("key", "SRC-" + (1 + (index + i) % settings.datasetSize));
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private void writeParent(JsonGenerator generator, int index) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("key", "PAR-" + index);
+        generator.writeObjectFieldStart("fields");
+        generator.writeStringField("summary", "Synthetic feature " + index);
+        generator.writeObjectFieldStart("issuetype");
+        generator.writeStringField("name", "Feature");
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private interface BodyWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    private void respond(HttpExchange exchange, int status, BodyWriter writer) throws IOException {
+        // Render into a buffer so the response is sent with a fixed length rather than chunked.
+        ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+        try (JsonGenerator generator = jsonFactory.createGenerator(body, JsonEncoding.UTF8)) {
+            writer.write(generator);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            body.writeTo(out);
+        }
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String raw = uri.getQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (in.read(buffer) >= 0) {
+            // Discard request bodies; the stub only counts writes.
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
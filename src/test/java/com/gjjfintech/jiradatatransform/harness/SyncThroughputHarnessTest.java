@@ -0,0 +1,142 @@
+package com.gjjfintech.jiradatatransform.harness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gjjfintech.jiradatatransform.client.ApiClientMetrics;
+import com.gjjfintech.jiradatatransform.client.JiraApiClient;
+import com.gjjfintech.jiradatatransform.config.JiraMappingPropertiesBinder;
+import com.gjjfintech.jiradatatransform.service.JiraIssueService;
+import com.gjjfintech.jiradatatransform.service.SyncJournalService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * End-to-end sync throughput harness running JiraIssueService against an in-process Jira stub.
+ *
+ * Drives getIssuesByJql against the stub's source instance and synchronizeIssuesToDestination
+ * against its destination, reporting issues/sec, p50/p99 request latency and peak heap.
+ * It needs no network access and runs with a small dataset as part of the normal test run.
+ * Scale it up with system properties, e.g.:
+ *
+ *   mvn test -Dtest=SyncThroughputHarnessTest -Dharness.issues=20000 -Dharness.latencyMs=5 \
+ *       -Dharness.pageSize=100
+ *
+ * -Dharness.rateLimitEvery=N makes the stub answer every Nth request with a 429. JiraApiClient
+ * does not retry, so this shows how a run fails under rate limiting rather than measuring it.
+ */
+class SyncThroughputHarnessTest {
+
+    @Test
+    void searchAndSyncAgainstStub() throws Exception {
+        JiraStubServer.Settings settings = new JiraStubServer.Settings()
+                .datasetSize(Integer.getInteger("harness.issues", 500))
+                .pageSize(Integer.getInteger("harness.pageSize", 50))
+                .latencyMillis(Long.getLong("harness.latencyMs", 0L))
+                .rateLimitEvery(Integer.getInteger("harness.rateLimitEvery", 0))
+                .parentCount(Integer.getInteger("harness.parents", 20));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Publish client-side p50/p99 so they can be read back from the timers.
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentiles(0.5, 0.99).build().merge(config);
+            }
+        });
+
+        try (JiraStubServer stub = JiraStubServer.start(settings)) {
+            JiraIssueService service = new JiraIssueService(
+                    client(stub, registry, "source"), JiraMappingPropertiesBinder.bind("classpath:jira-mapping-source.yml"),
+                    client(stub, registry, "destination"), JiraMappingPropertiesBinder.bind("classpath:jira-mapping-destination.yml"),
+                    new ObjectMapper(), new SyncJournalService());
+
+            resetPeakHeap();
+
+            long searchStart = System.nanoTime();
+            Collection<Map<String, Object>> issues = service.getIssuesByJql("project = SRC", true);
+            long searchNanos = System.nanoTime() - searchStart;
+
+            long syncStart = System.nanoTime();
+            service.synchronizeIssuesToDestination(issues);
+            long syncNanos = System.nanoTime() - syncStart;
+
+            long peakHeap = peakHeap();
+
+            System.out.println("=== Sync throughput harness ===");
+            System.out.printf("dataset=%d pageSize=%d latencyMs=%d rateLimitEvery=%d%n", settings.datasetSize,
+                    settings.pageSize, settings.latencyMillis, settings.rateLimitEvery);
+            System.out.printf("getIssuesByJql: %d issues in %d ms (%.1f issues/sec)%n",
+                    issues.size(), TimeUnit.NANOSECONDS.toMillis(searchNanos), perSecond(issues.size(), searchNanos));
+            int written = stub.getCreatedCount() + stub.getUpdatedCount();
+            System.out.printf("synchronizeIssuesToDestination: %d writes in %d ms (%.1f issues/sec)%n",
+                    written, TimeUnit.NANOSECONDS.toMillis(syncNanos), perSecond(written, syncNanos));
+            report(registry, "source");
+            report(registry, "destination");
+            System.out.printf("requests=%d rateLimited=%d peakHeap=%.1f MB%n", stub.getRequestCount(),
+                    stub.getRateLimitedCount(), peakHeap / (1024.0 * 1024.0));
+
+            // Every search result plus each distinct parent fetched through getIssue.
+            assertEquals(settings.datasetSize + Math.min(settings.parentCount, settings.datasetSize), issues.size());
+            assertEquals(settings.datasetSize, written);
+        }
+    }
+
+    private static JiraApiClient client(JiraStubServer stub, SimpleMeterRegistry registry, String instance) {
+        JiraApiClient client = new JiraApiClient();
+        client.setBaseUrl(stub.getBaseUrl());
+        client.setBearerToken("harness");
+        client.setMetrics(new ApiClientMetrics(registry, "jira", instance));
+        return client;
+    }
+
+    private static void report(SimpleMeterRegistry registry, String instance) {
+        for (Timer timer : registry.find(ApiClientMetrics.REQUESTS).tag("instance", instance).timers()) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            StringBuilder line = new StringBuilder();
+            line.append(String.format("  %s %-8s status=%s count=%d", instance, timer.getId().getTag("operation"),
+                    timer.getId().getTag("status"), timer.count()));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                line.append(String.format(" p%.0f=%.2fms", percentile.percentile() * 100,
+                        percentile.value(TimeUnit.MILLISECONDS)));
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static double perSecond(int count, long nanos) {
+        return nanos > 0 ? count / (nanos / 1_000_000_000.0) : 0;
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
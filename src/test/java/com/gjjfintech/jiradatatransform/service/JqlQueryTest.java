@@ -0,0 +1,99 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JqlQueryTest {
+
+    @Test
+    void parsesClausesCaseInsensitively() {
+        JqlQuery query = JqlQuery.parse("Project = SRC and (IssueType IN (Bug, \"Epic\") OR status = Done)");
+
+        assertFalse(query.isConjunction());
+        assertEquals("[project in [src]]", query.requiredClauses().toString());
+        assertEquals("[project in [src], issuetype in [bug, epic], status in [done]]", query.clauses().toString());
+        assertEquals(JqlQuery.parse("project = src AND (status = done or type in (epic, bug))").requiredClauses(),
+                query.requiredClauses());
+    }
+
+    @Test
+    void flattensNestedAnds() {
+        JqlQuery query = JqlQuery.parse("(project = SRC and type = Bug) and status = Done");
+
+        assertTrue(query.isConjunction());
+        assertEquals(3, query.requiredClauses().size());
+    }
+
+    @Test
+    void reservedWordsAreOnlyValuesWhenQuoted() {
+        assertNull(JqlQuery.parse("status = empty"));
+        assertNull(JqlQuery.parse("assignee in (bob, NULL)"));
+        assertNull(JqlQuery.parse("and = x"));
+        assertNull(JqlQuery.parse("status = order"));
+
+        assertEquals("[status in [empty]]", JqlQuery.parse("status = \"EMPTY\"").clauses().toString());
+        assertEquals("[resolution in [null]]", JqlQuery.parse("resolution = 'null'").clauses().toString());
+    }
+
+    @Test
+    void unquotesAndUnescapesValues() {
+        JqlQuery query = JqlQuery.parse("summary = \"say \\\"hi\\\" (twice)\" and labels = 'it\\'s' and team = \"\\\\ops\"");
+
+        List<JqlQuery.Clause> clauses = query.clauses();
+        assertEquals(List.of("say \"hi\" (twice)"), clauses.get(0).values);
+        assertEquals(List.of("it's"), clauses.get(1).values);
+        assertEquals(List.of("\\ops"), clauses.get(2).values);
+        assertEquals("epic link", JqlQuery.parse("\"Epic Link\" = SRC-1").clauses().get(0).field);
+        assertNull(JqlQuery.parse("summary = \"unterminated"));
+        assertNull(JqlQuery.parse("summary = \"\""));
+    }
+
+    @Test
+    void mapsCustomFieldReferences() {
+        JqlQuery query = JqlQuery.parse("cf[10010] = Alpha and CF[10020] in (1, 2)");
+
+        assertEquals("customfield_10010", query.clauses().get(0).field);
+        assertEquals("customfield_10020", query.clauses().get(1).field);
+        assertNull(JqlQuery.parse("cf[10010 = Alpha"));
+    }
+
+    @Test
+    void ordersByIssueKey() {
+        List<String> keys = new ArrayList<>(Arrays.asList("SRC-10", "SRC-9", "ABC-2", "SRC-100"));
+
+        JqlQuery.parse("project = SRC ORDER BY key").sort(keys);
+        assertEquals(List.of("ABC-2", "SRC-9", "SRC-10", "SRC-100"), keys);
+        JqlQuery.parse("project = SRC order by KEY desc").sort(keys);
+        assertEquals(List.of("SRC-100", "SRC-10", "SRC-9", "ABC-2"), keys);
+        JqlQuery.parse("project = SRC order by key asc").sort(keys);
+        assertEquals(List.of("ABC-2", "SRC-9", "SRC-10", "SRC-100"), keys);
+
+        List<String> unsorted = new ArrayList<>(Arrays.asList("SRC-10", "SRC-9"));
+        JqlQuery.parse("project = SRC").sort(unsorted);
+        assertEquals(List.of("SRC-10", "SRC-9"), unsorted);
+    }
+
+    @Test
+    void rejectsUnsupportedConstructs() {
+        assertNull(JqlQuery.parse(null));
+        assertNull(JqlQuery.parse("project = SRC ORDER BY created DESC"));
+        assertNull(JqlQuery.parse("project = SRC ORDER BY key, created"));
+        assertNull(JqlQuery.parse("status != Done"));
+        assertNull(JqlQuery.parse("status not in (Done)"));
+        assertNull(JqlQuery.parse("not status = Done"));
+        assertNull(JqlQuery.parse("assignee is EMPTY"));
+        assertNull(JqlQuery.parse("assignee = currentUser()"));
+        assertNull(JqlQuery.parse("summary ~ crash"));
+        assertNull(JqlQuery.parse("status was Done"));
+        assertNull(JqlQuery.parse("(project = SRC"));
+        assertNull(JqlQuery.parse("project = SRC and"));
+    }
+}
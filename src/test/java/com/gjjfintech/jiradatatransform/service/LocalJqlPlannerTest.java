@@ -0,0 +1,101 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalJqlPlannerTest {
+
+    private static final String SCOPE = "project = SRC AND issuetype in (Epic, Story)";
+
+    private final LocalJqlPlanner planner = new LocalJqlPlanner(mapping());
+    private final IssueIndex index = IssueIndex.build(List.of(
+            issue("SRC-1", "SRC", "Epic", "Done", "Alpha"),
+            issue("SRC-2", "SRC", "Story", "Open", "Beta"),
+            issue("SRC-10", "SRC", "Story", "Done", "Alpha"),
+            issue("SRC-3", "SRC", "Epic", "Open", null)), planner.indexedFields());
+
+    @Test
+    void answersSearchesWithinTheScope() {
+        assertEquals(List.of("SRC-1", "SRC-2", "SRC-3", "SRC-10"),
+                planner.search("issuetype in (story, epic) and project = src order by key", SCOPE, index));
+        assertEquals(List.of("SRC-10", "SRC-1"),
+                planner.search(SCOPE + " AND status = Done AND cf[10010] = alpha ORDER BY key DESC", SCOPE, index));
+        assertEquals(List.of("SRC-1", "SRC-3", "SRC-10"),
+                planner.search(SCOPE + " AND (type = Epic OR cf[10010] = Alpha) ORDER BY key", SCOPE, index));
+    }
+
+    @Test
+    void leavesSearchesBeyondTheScopeToJira() {
+        // Bugs and other projects are not replicated.
+        assertNull(planner.search("project = SRC AND status = Done", SCOPE, index));
+        assertNull(planner.search("project = SRC AND issuetype = Epic", SCOPE, index));
+        assertNull(planner.search(SCOPE + " OR status = Done", SCOPE, index));
+        assertNull(planner.search(SCOPE, "project = SRC OR project = OPS", index));
+        assertNull(planner.search(SCOPE, null, index));
+    }
+
+    @Test
+    void answersSearchesForReplicatedKeys() {
+        assertEquals(List.of("SRC-2", "SRC-10"),
+                planner.search("key in (SRC-10, SRC-2) AND (status = Open OR cf[10010] = Alpha) ORDER BY key", SCOPE, index));
+        assertEquals(List.of("SRC-3"), planner.search("issuekey = src-3", null, index));
+        // SRC-99 is not replicated, so it may exist in Jira.
+        assertNull(planner.search("key in (SRC-1, SRC-99)", SCOPE, index));
+        assertNull(planner.search("key = SRC-1 OR status = Done", SCOPE, index));
+    }
+
+    @Test
+    void leavesIdsAndUnmappedFieldsToJira() {
+        assertNull(planner.search(SCOPE + " AND status = 3", SCOPE, index));
+        assertNull(planner.search(SCOPE + " AND (type = 10000 OR status = Done)", SCOPE, index));
+        assertNull(planner.search(SCOPE + " AND cf[10010] in (Alpha, 10101)", SCOPE, index));
+        assertNull(planner.search("key = 10001", SCOPE, index));
+        assertNull(planner.search(SCOPE + " AND created = 2024-01-01", SCOPE, index));
+        assertNull(planner.search(SCOPE + " AND resolution = Done", SCOPE, index));
+        assertNull(planner.search(SCOPE + " AND status != Done", SCOPE, index));
+        // Only JQL names are known, not display names.
+        assertNull(planner.search(SCOPE + " AND \"Team\" = Alpha", SCOPE, index));
+        // Summary is mapped from a plain string, so a number is just text.
+        assertEquals(List.of(), planner.search(SCOPE + " AND summary = 42", SCOPE, index));
+    }
+
+    private static Map<String, Object> issue(String key, String project, String type, String status, String team) {
+        Map<String, Object> issue = new HashMap<>();
+        issue.put("issueKey", key);
+        issue.put("project", project);
+        issue.put("issueType", type);
+        issue.put("status", status);
+        issue.put("team", team);
+        issue.put("summary", "Issue " + key);
+        return issue;
+    }
+
+    private static JiraMappingProperties mapping() {
+        Map<String, JiraMappingProperties.FieldMapping> mappings = new LinkedHashMap<>();
+        mappings.put("Project", field("fields.project.key", "String"));
+        mappings.put("Issue Type", field("fields.issuetype.name", "String"));
+        mappings.put("Status", field("fields.status.name", null));
+        mappings.put("Team", field("fields.customfield_10010.value", "String"));
+        mappings.put("Summary", field("fields.summary", "String"));
+        mappings.put("Created", field("fields.created", "DateAsString[yyyy-mm-dd]"));
+        JiraMappingProperties properties = new JiraMappingProperties();
+        properties.setJiraFieldMappings(mappings);
+        return properties;
+    }
+
+    private static JiraMappingProperties.FieldMapping field(String attribute, String dataType) {
+        JiraMappingProperties.FieldMapping mapping = new JiraMappingProperties.FieldMapping();
+        mapping.setIssueAttributeName(attribute);
+        mapping.setDataType(dataType);
+        return mapping;
+    }
+}
@@ -0,0 +1,133 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gjjfintech.jiradatatransform.config.JiraMappingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamingIssueFlattenerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JiraMappingProperties mapping = mapping();
+    private final JiraIssueService service = new JiraIssueService(null, null, null, null, objectMapper, null);
+    private final StreamingIssueFlattener flattener = new StreamingIssueFlattener(mapping);
+
+    @Test
+    void flattensScalarsLikeTheTreeFlattener() throws Exception {
+        Map<String, Object> flat = assertSameAsTree("{\"id\": \"10001\", \"key\": \"SRC-1\", \"fields\": {"
+                + "\"summary\": \"Crash on \\\"save\\\"\", \"customfield_10020\": 5, \"customfield_10030\": 2.50,"
+                + "\"customfield_10031\": 1e20, \"customfield_10040\": true, \"created\": \"2024-03-01\","
+                + "\"status\": {\"name\": \"Done\", \"id\": \"3\"}, \"ignored\": {\"deep\": [1, {\"a\": 2}]}}}");
+
+        assertEquals("SRC-1", flat.get("issueKey"));
+        assertEquals("5", flat.get("storyPoints"));
+        assertEquals("2.5", flat.get("estimate"));
+        assertEquals("1.0E20", flat.get("budget"));
+        assertEquals("true", flat.get("flagged"));
+        assertEquals("Done", flat.get("status"));
+    }
+
+    @Test
+    void leavesOutNullAndMissingValues() throws Exception {
+        Map<String, Object> flat = assertSameAsTree("{\"key\": \"SRC-2\", \"fields\": {"
+                + "\"summary\": null, \"labels\": null, \"parent\": null, \"status\": {\"name\": null},"
+                + "\"customfield_10020\": null}}");
+
+        assertEquals(Set.of("issueKey", "blockedBy", "blocks"), flat.keySet());
+    }
+
+    @Test
+    void flattensArraysByDataType() throws Exception {
+        Map<String, Object> flat = assertSameAsTree("{\"key\": \"SRC-3\", \"fields\": {"
+                + "\"labels\": [\"ui\", null, 7, 1.5, [\"nested\"], {\"a\": 1}],"
+                + "\"components\": \"single\", \"fixVersions\": [\"1.0\", \"2.0\"]}}");
+
+        assertEquals(List.of("ui", "null", "7", "1.5", "", ""), flat.get("labels"));
+        assertEquals(List.of("single"), flat.get("components"));
+        assertEquals("", flat.get("fixVersions"));
+    }
+
+    @Test
+    void flattensObjectValuedLeavesToEmptyText() throws Exception {
+        Map<String, Object> flat = assertSameAsTree("{\"key\": \"SRC-4\", \"fields\": {"
+                + "\"summary\": {\"text\": \"x\"}, \"labels\": {\"a\": \"b\"}, \"components\": [],"
+                + "\"parent\": {\"key\": \"SRC-1\", \"fields\": {\"summary\": \"Parent\"}}}}");
+
+        assertEquals("", flat.get("summary"));
+        assertEquals(List.of(""), flat.get("labels"));
+        assertEquals(List.of(), flat.get("components"));
+        assertEquals("", flat.get("parent"));
+        assertEquals("SRC-1", flat.get("parentKey"));
+    }
+
+    @Test
+    void flattensIssueLinksByDirectionAndType() throws Exception {
+        Map<String, Object> flat = assertSameAsTree("{\"key\": \"SRC-5\", \"fields\": {\"issuelinks\": ["
+                + "{\"type\": {\"inward\": \"is blocked by\", \"outward\": \"blocks\"}, \"inwardIssue\": {\"key\": \"SRC-6\"}},"
+                + "{\"type\": {\"inward\": \"is blocked by\", \"outward\": \"blocks\"}, \"outwardIssue\": {\"key\": \"SRC-7\", \"fields\": {}}},"
+                + "{\"type\": {\"inward\": \"relates to\", \"outward\": \"relates to\"}, \"outwardIssue\": {\"key\": \"SRC-8\"}},"
+                + "{\"inwardIssue\": {\"key\": \"SRC-9\"}},"
+                + "{\"type\": {\"inward\": \"is blocked by\", \"outward\": \"blocks\"}, \"inwardIssue\": {\"key\": \"SRC-10\"}}]}}");
+
+        assertEquals(List.of("SRC-6", "SRC-10"), flat.get("blockedBy"));
+        assertEquals(List.of("SRC-7"), flat.get("blocks"));
+        assertEquals(List.of(), assertSameAsTree("{\"key\": \"SRC-6\", \"fields\": {}}").get("blocks"));
+    }
+
+    private Map<String, Object> assertSameAsTree(String json) throws Exception {
+        Map<String, Object> expected = service.flattenIssue(objectMapper.readTree(json), mapping);
+        Map.Entry<String, Map<String, Object>> streamed;
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            parser.nextToken();
+            streamed = flattener.flatten(parser);
+        }
+        assertEquals(objectMapper.readTree(json).path("key").asText(), streamed.getKey());
+        assertEquals(expected, streamed.getValue());
+        return streamed.getValue();
+    }
+
+    private static JiraMappingProperties mapping() {
+        Map<String, JiraMappingProperties.FieldMapping> mappings = new LinkedHashMap<>();
+        mappings.put("Issue Key", field("key", "String"));
+        mappings.put("Summary", field("summary", null));
+        mappings.put("Story Points", field("customfield_10020", "String"));
+        mappings.put("Estimate", field("customfield_10030", "String"));
+        mappings.put("Budget", field("customfield_10031", "String"));
+        mappings.put("Flagged", field("customfield_10040", "String"));
+        mappings.put("Created", field("created", "DateAsString[yyyy-MM-dd]"));
+        mappings.put("Status", field("status.name", "String"));
+        mappings.put("Labels", field("labels", "String[]"));
+        mappings.put("Components", field("components", "String[]"));
+        mappings.put("Fix Versions", field("fixVersions", "String"));
+        mappings.put("Parent", field("parent", "String"));
+        mappings.put("Parent Key", field("parent.key", "String[IssueKey]"));
+        mappings.put("Blocked By", link(true, "is blocked by"));
+        mappings.put("Blocks", link(false, "blocks"));
+        JiraMappingProperties properties = new JiraMappingProperties();
+        properties.setJiraFieldMappings(mappings);
+        return properties;
+    }
+
+    private static JiraMappingProperties.FieldMapping field(String attribute, String dataType) {
+        JiraMappingProperties.FieldMapping mapping = new JiraMappingProperties.FieldMapping();
+        mapping.setIssueAttributeName(attribute.equals("key") ? attribute : "fields." + attribute);
+        mapping.setDataType(dataType);
+        return mapping;
+    }
+
+    private static JiraMappingProperties.FieldMapping link(boolean inward, String linkType) {
+        JiraMappingProperties.IssueLinkMapping link = new JiraMappingProperties.IssueLinkMapping();
+        link.setIsInward(inward);
+        link.setLinkTypes(List.of(linkType));
+        JiraMappingProperties.FieldMapping mapping = new JiraMappingProperties.FieldMapping();
+        mapping.setIssueLink(link);
+        return mapping;
+    }
+}
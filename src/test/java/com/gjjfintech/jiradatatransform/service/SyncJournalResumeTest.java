@@ -0,0 +1,66 @@
+package com.gjjfintech.jiradatatransform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gjjfintech.jiradatatransform.client.JiraApiClient;
+import com.gjjfintech.jiradatatransform.config.JiraMappingPropertiesBinder;
+import com.gjjfintech.jiradatatransform.harness.JiraStubServer;
+import com.gjjfintech.jiradatatransform.util.SyncJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Resuming an interrupted sync from its journal, against the in-process Jira stub.
+ */
+class SyncJournalResumeTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void skipsIssuesJournaledByAnInterruptedRun() throws Exception {
+        SyncJournalService journals = new SyncJournalService();
+        ReflectionTestUtils.setField(journals, "journalFolder", folder.toString());
+        ReflectionTestUtils.setField(journals, "maxBatchSize", 16);
+        ReflectionTestUtils.setField(journals, "commitWindowMillis", 1L);
+
+        try (JiraStubServer stub = JiraStubServer.start(new JiraStubServer.Settings().datasetSize(50).parentCount(5))) {
+            JiraIssueService service = new JiraIssueService(
+                    client(stub), JiraMappingPropertiesBinder.bind("classpath:jira-mapping-source.yml"),
+                    client(stub), JiraMappingPropertiesBinder.bind("classpath:jira-mapping-destination.yml"),
+                    new ObjectMapper(), journals);
+            Collection<Map<String, Object>> issues = service.getIssuesByJql("project = SRC", true);
+
+            // An earlier run of the job wrote the first 20 issues before it was interrupted.
+            String jobId = SyncJournalService.deriveJobId("project = SRC", null);
+            Path journalFile;
+            try (SyncJournal journal = journals.open(jobId)) {
+                for (int i = 1; i <= 20; i++) {
+                    journal.append("SRC-" + i, SyncJournal.Outcome.UPDATED, "DST-" + i);
+                }
+                journalFile = journal.getFile();
+            }
+
+            service.synchronizeIssuesToDestination(issues, jobId);
+
+            assertEquals(30, stub.getCreatedCount() + stub.getUpdatedCount());
+            // The journal is removed once the job completes.
+            assertFalse(Files.exists(journalFile));
+        }
+    }
+
+    private static JiraApiClient client(JiraStubServer stub) {
+        JiraApiClient client = new JiraApiClient();
+        client.setBaseUrl(stub.getBaseUrl());
+        client.setBearerToken("stub");
+        return client;
+    }
+}
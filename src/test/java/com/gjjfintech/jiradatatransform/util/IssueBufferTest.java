@@ -0,0 +1,194 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class IssueBufferTest {
+
+    private static final Path OPEN_FILES = Path.of("/proc/self/fd");
+
+    @TempDir
+    Path spillFolder;
+
+    @Test
+    void spillsOnceTheTailReachesTheBudget() {
+        try (IssueBuffer buffer = new IssueBuffer(4096, spillFolder)) {
+            Map<String, Map<String, Object>> expected = new LinkedHashMap<>();
+            for (int i = 0; i < 10; i++) {
+                put(buffer, expected, "SRC-" + i, issue(i, 1));
+            }
+            assertFalse(buffer.isSpilled());
+
+            for (int i = 10; i < 500; i++) {
+                put(buffer, expected, "SRC-" + i, issue(i, 1));
+            }
+            assertTrue(buffer.isSpilled());
+            assertTrue(buffer.spilledBytes() > 0);
+            assertEquals(expected.size(), buffer.size());
+            for (Map.Entry<String, Map<String, Object>> issue : expected.entrySet()) {
+                assertEquals(issue.getValue(), buffer.get(issue.getKey()));
+            }
+            assertNull(buffer.get("SRC-500"));
+        }
+    }
+
+    @Test
+    void iteratesAcrossTheSpillFileAndTheTail() {
+        try (IssueBuffer buffer = new IssueBuffer(4096, spillFolder)) {
+            Map<String, Map<String, Object>> expected = new LinkedHashMap<>();
+            for (int i = 0; i < 300; i++) {
+                put(buffer, expected, "SRC-" + i, issue(i, 1));
+                if (i == 150) {
+                    // Larger than the iteration window, so it is read on its own.
+                    Map<String, Object> large = issue(i, 1);
+                    large.put("description", "x".repeat(100 * 1024));
+                    put(buffer, expected, "SRC-" + i, large);
+                }
+            }
+            assertTrue(buffer.isSpilled());
+
+            List<String> keys = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Object>> issue : buffer.entrySet()) {
+                keys.add(issue.getKey());
+                assertEquals(expected.get(issue.getKey()), issue.getValue());
+            }
+            assertEquals(new ArrayList<>(expected.keySet()), keys);
+            assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(buffer.keySet()));
+        }
+    }
+
+    @Test
+    void putAgainReplacesTheIssueInPlace() {
+        try (IssueBuffer buffer = new IssueBuffer(1024, spillFolder)) {
+            Map<String, Map<String, Object>> expected = new LinkedHashMap<>();
+            for (int i = 0; i < 50; i++) {
+                put(buffer, expected, "SRC-" + i, issue(i, 1));
+            }
+            assertTrue(buffer.isSpilled());
+            put(buffer, expected, "SRC-3", issue(3, 2));
+            put(buffer, expected, "SRC-49", issue(49, 2));
+
+            assertEquals(50, buffer.size());
+            assertEquals(issue(3, 2), buffer.get("SRC-3"));
+            assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(buffer.values()));
+        }
+    }
+
+    @Test
+    void rejectedPutLeavesTheBufferUnchanged() {
+        try (IssueBuffer buffer = new IssueBuffer(0, spillFolder)) {
+            buffer.put("SRC-1", issue(1, 1));
+            Map<String, Object> invalid = issue(2, 1);
+            invalid.put("storyPoints", 3);
+
+            assertThrows(IllegalArgumentException.class, () -> buffer.put("SRC-2", invalid));
+            assertThrows(IllegalArgumentException.class, () -> buffer.put("SRC-1", invalid));
+            assertEquals(1, buffer.size());
+            assertFalse(buffer.containsKey("SRC-2"));
+            assertEquals(issue(1, 1), buffer.get("SRC-1"));
+
+            buffer.put("SRC-3", issue(3, 1));
+            assertEquals(issue(1, 1), buffer.get("SRC-1"));
+            assertEquals(issue(3, 1), buffer.get("SRC-3"));
+        }
+    }
+
+    @Test
+    void closesOnceEveryViewIsClosed() throws Exception {
+        assumeTrue(Files.isDirectory(OPEN_FILES));
+        IssueBuffer buffer = new IssueBuffer(1024, spillFolder);
+        for (int i = 0; i < 50; i++) {
+            buffer.put("SRC-" + i, issue(i, 1));
+        }
+        assertEquals(1, openSpillFiles());
+        IssueBuffer.View first = buffer.view();
+        IssueBuffer.View second = buffer.view();
+        buffer.close();
+
+        assertEquals(issue(7, 1), first.get("SRC-7"));
+        first.close();
+        first.close();
+        assertEquals(issue(7, 1), second.get("SRC-7"));
+        assertEquals(1, openSpillFiles());
+
+        Collection<Map<String, Object>> values = second.values();
+        assertEquals(50, values.size());
+        ((Closeable) values).close();
+        assertEquals(0, openSpillFiles());
+        assertThrows(IllegalStateException.class, () -> buffer.get("SRC-7"));
+        assertThrows(IllegalStateException.class, buffer::view);
+    }
+
+    @Test
+    void deletesTheSpillFileOfAnUnreachableBuffer() throws Exception {
+        assumeTrue(Files.isDirectory(OPEN_FILES));
+        fill(new IssueBuffer(1024, spillFolder));
+        for (int attempt = 0; attempt < 50 && openSpillFiles() > 0; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(0, openSpillFiles());
+    }
+
+    private static void fill(IssueBuffer buffer) {
+        for (int i = 0; i < 50; i++) {
+            buffer.put("SRC-" + i, issue(i, 1));
+        }
+        assertTrue(buffer.isSpilled());
+    }
+
+    private static void put(IssueBuffer buffer, Map<String, Map<String, Object>> expected, String key,
+                            Map<String, Object> issue) {
+        buffer.put(key, issue);
+        expected.put(key, issue);
+    }
+
+    private static Map<String, Object> issue(int number, int version) {
+        Map<String, Object> issue = new HashMap<>();
+        issue.put("issueKey", "SRC-" + number);
+        issue.put("summary", "Issue " + number + " v" + version);
+        issue.put("assignee", null);
+        issue.put("labels", Arrays.asList("label-" + number % 7, null, "v" + version));
+        return issue;
+    }
+
+    /**
+     * Counts this process's open spill files; they are unlinked on creation, so the folder
+     * itself always looks empty.
+     */
+    private long openSpillFiles() throws IOException {
+        long count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(OPEN_FILES)) {
+            for (Path file : files) {
+                try {
+                    if (Files.readSymbolicLink(file).toString().startsWith(spillFolder.toString())) {
+                        count++;
+                    }
+                } catch (IOException e) {
+                    // Closed while listing.
+                }
+            }
+        }
+        return count;
+    }
+}
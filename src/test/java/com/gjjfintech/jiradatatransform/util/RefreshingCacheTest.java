@@ -0,0 +1,47 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RefreshingCacheTest {
+
+    @Test
+    void dropsTheLeastRecentlyReadEntryBeyondTheBound() throws Exception {
+        List<String> loads = new ArrayList<>();
+        try (RefreshingCache<String, String> cache = new RefreshingCache<>("test", key -> {
+            loads.add(key);
+            return key.toUpperCase();
+        }, 60_000, 60_000, 1, 2)) {
+            cache.get("a");
+            cache.get("b");
+            Thread.sleep(1);
+            assertEquals("A", cache.get("a"));
+
+            cache.get("c");
+            assertEquals(2, cache.size());
+            assertNull(cache.getIfPresent("b"));
+            assertEquals("A", cache.getIfPresent("a"));
+            assertEquals("C", cache.getIfPresent("c"));
+
+            cache.put("d", "D");
+            assertEquals(2, cache.size());
+            assertEquals("D", cache.getIfPresent("d"));
+            assertEquals(List.of("a", "b", "c"), loads);
+        }
+    }
+
+    @Test
+    void keepsEveryEntryWithoutABound() {
+        try (RefreshingCache<Integer, Integer> cache = new RefreshingCache<>("test", key -> key * 2, 60_000, 60_000, 1)) {
+            for (int i = 0; i < 100; i++) {
+                cache.get(i);
+            }
+            assertEquals(100, cache.size());
+        }
+    }
+}
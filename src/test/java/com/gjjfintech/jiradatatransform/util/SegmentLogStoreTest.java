@@ -0,0 +1,156 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentLogStoreTest {
+
+    // The smallest segment size the store allows.
+    private static final long SEGMENT_BYTES = 1024 * 1024;
+    private static final int VALUE_BYTES = 64 * 1024;
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void reopenDiscardsTornTail() throws Exception {
+        try (SegmentLogStore store = SegmentLogStore.open(folder, SEGMENT_BYTES)) {
+            for (int i = 0; i < 5; i++) {
+                store.put("SRC-" + i, value(i, 1));
+            }
+        }
+        Path segment = lastSegment();
+        long validLength = Files.size(segment);
+        // A crash mid-write leaves part of a record behind, and an index that was not closed cleanly.
+        Files.write(segment, new byte[]{0x12, 0x34, 0x56, 0x78, 0, 0, 0x10, 0, 1}, StandardOpenOption.APPEND);
+        markIndexUnclean();
+
+        try (SegmentLogStore store = SegmentLogStore.open(folder, SEGMENT_BYTES)) {
+            assertEquals(validLength, Files.size(segment));
+            assertEquals(5, store.size());
+            for (int i = 0; i < 5; i++) {
+                assertArrayEquals(value(i, 1), store.get("SRC-" + i));
+            }
+            store.put("SRC-5", value(5, 1));
+        }
+        try (SegmentLogStore store = SegmentLogStore.open(folder, SEGMENT_BYTES)) {
+            assertEquals(6, store.size());
+            assertArrayEquals(value(5, 1), store.get("SRC-5"));
+        }
+    }
+
+    @Test
+    void compactionKeepsLiveRecordsAndDeletions() throws Exception {
+        try (SegmentLogStore store = SegmentLogStore.open(folder, SEGMENT_BYTES)) {
+            for (int i = 0; i < 40; i++) {
+                store.put("SRC-" + i, value(i, 1));
+            }
+            for (int i = 0; i < 20; i++) {
+                store.put("SRC-" + i, value(i, 2));
+            }
+            for (int i = 20; i < 30; i++) {
+                store.delete("SRC-" + i);
+            }
+            long before = store.diskBytes();
+
+            assertTrue(store.compact(0.9) > 0);
+            assertTrue(store.diskBytes() < before);
+            assertExpectedAfterCompaction(store);
+        }
+        try (SegmentLogStore store = SegmentLogStore.open(folder, SEGMENT_BYTES)) {
+            assertExpectedAfterCompaction(store);
+        }
+        // With the tombstones compacted away, a replay of the log must not bring the deleted keys back.
+        Files.delete(folder.resolve("index.map"));
+        try (SegmentLogStore store = SegmentLogStore.open(folder, SEGMENT_BYTES)) {
+            assertExpectedAfterCompaction(store);
+        }
+    }
+
+    @Test
+    void rebuildsIndexFromSegments() throws Exception {
+        Map<String, byte[]> expected = new HashMap<>();
+        try (SegmentLogStore store = SegmentLogStore.open(folder, SEGMENT_BYTES)) {
+            for (int i = 0; i < 30; i++) {
+                store.put("SRC-" + i, value(i, 1));
+                expected.put("SRC-" + i, value(i, 1));
+            }
+            for (int i = 0; i < 30; i += 3) {
+                store.delete("SRC-" + i);
+                expected.remove("SRC-" + i);
+            }
+            for (int i = 1; i < 30; i += 3) {
+                store.put("SRC-" + i, value(i, 2));
+                expected.put("SRC-" + i, value(i, 2));
+            }
+        }
+        Files.delete(folder.resolve("index.map"));
+
+        try (SegmentLogStore store = SegmentLogStore.open(folder, SEGMENT_BYTES)) {
+            assertEquals(expected.size(), store.size());
+            Map<String, byte[]> actual = new HashMap<>();
+            store.forEach(actual::put);
+            assertEquals(expected.keySet(), actual.keySet());
+            for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+                assertArrayEquals(entry.getValue(), store.get(entry.getKey()));
+            }
+            assertNull(store.get("SRC-0"));
+        }
+    }
+
+    private static void assertExpectedAfterCompaction(SegmentLogStore store) {
+        assertEquals(30, store.size());
+        for (int i = 0; i < 20; i++) {
+            assertArrayEquals(value(i, 2), store.get("SRC-" + i));
+        }
+        for (int i = 20; i < 30; i++) {
+            assertNull(store.get("SRC-" + i));
+        }
+        for (int i = 30; i < 40; i++) {
+            assertArrayEquals(value(i, 1), store.get("SRC-" + i));
+        }
+    }
+
+    private static byte[] value(int key, int version) {
+        byte[] value = new byte[VALUE_BYTES];
+        Arrays.fill(value, (byte) (key * 31 + version));
+        byte[] label = (key + ":" + version).getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(label, 0, value, 0, label.length);
+        return value;
+    }
+
+    private Path lastSegment() throws IOException {
+        Path last = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "segment-*.log")) {
+            for (Path file : files) {
+                if (last == null || file.getFileName().toString().compareTo(last.getFileName().toString()) > 0) {
+                    last = file;
+                }
+            }
+        }
+        return last;
+    }
+
+    private void markIndexUnclean() throws IOException {
+        try (FileChannel channel = FileChannel.open(folder.resolve("index.map"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), 12);
+        }
+    }
+}
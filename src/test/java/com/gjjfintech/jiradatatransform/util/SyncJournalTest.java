@@ -0,0 +1,113 @@
+package com.gjjfintech.jiradatatransform.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncJournalTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void replaysCommittedRecords() {
+        Path file = folder.resolve("job.journal");
+        try (SyncJournal journal = SyncJournal.open(file, 4, 1)) {
+            for (int i = 1; i <= 10; i++) {
+                journal.append("SRC-" + i, i % 2 == 0 ? SyncJournal.Outcome.UPDATED : SyncJournal.Outcome.CREATED,
+                        i % 3 == 0 ? null : "DST-" + i);
+            }
+            journal.flush();
+        }
+
+        try (SyncJournal journal = SyncJournal.open(file, 4, 1)) {
+            assertEquals(10, journal.getCompletedEntries().size());
+            SyncJournal.Entry created = journal.getCompleted("SRC-1");
+            assertEquals(SyncJournal.Outcome.CREATED, created.getOutcome());
+            assertEquals("DST-1", created.getDestinationKey());
+            assertEquals(SyncJournal.Outcome.UPDATED, journal.getCompleted("SRC-4").getOutcome());
+            assertNull(journal.getCompleted("SRC-3").getDestinationKey());
+            assertFalse(journal.isCompleted("SRC-11"));
+        }
+    }
+
+    @Test
+    void discardsTornTailAndKeepsAppending() throws Exception {
+        Path file = folder.resolve("job.journal");
+        try (SyncJournal journal = SyncJournal.open(file, 4, 1)) {
+            journal.append("SRC-1", SyncJournal.Outcome.CREATED, "DST-1");
+            journal.append("SRC-2", SyncJournal.Outcome.CREATED, "DST-2");
+        }
+        long validLength = Files.size(file);
+        // A crash mid-write leaves part of a record without its newline.
+        Files.write(file, "1a2b3c\tSRC-3\tCRE".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (SyncJournal journal = SyncJournal.open(file, 4, 1)) {
+            assertEquals(2, journal.getCompletedEntries().size());
+            assertFalse(journal.isCompleted("SRC-3"));
+            assertEquals(validLength, Files.size(file));
+            journal.append("SRC-3", SyncJournal.Outcome.CREATED, "DST-3");
+        }
+
+        try (SyncJournal journal = SyncJournal.open(file, 4, 1)) {
+            assertEquals(3, journal.getCompletedEntries().size());
+            assertEquals("DST-3", journal.getCompleted("SRC-3").getDestinationKey());
+        }
+    }
+
+    @Test
+    void stopsReplayAtCorruptRecord() throws Exception {
+        Path file = folder.resolve("job.journal");
+        try (SyncJournal journal = SyncJournal.open(file, 4, 1)) {
+            journal.append("SRC-1", SyncJournal.Outcome.CREATED, "DST-1");
+            journal.append("SRC-2", SyncJournal.Outcome.UPDATED, "DST-2");
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        // Flip a character of the second record so its checksum no longer matches.
+        int second = text.indexOf('\n') + 1;
+        int flipped = text.indexOf("DST-2", second);
+        bytes[flipped] = 'X';
+        Files.write(file, bytes);
+
+        try (SyncJournal journal = SyncJournal.open(file, 4, 1)) {
+            assertTrue(journal.isCompleted("SRC-1"));
+            assertFalse(journal.isCompleted("SRC-2"));
+            assertEquals(second, Files.size(file));
+        }
+    }
+
+    @Test
+    void deleteRemovesTheFile() {
+        Path file = folder.resolve("job.journal");
+        SyncJournal journal = SyncJournal.open(file, 4, 1);
+        journal.append("SRC-1", SyncJournal.Outcome.CREATED, "DST-1");
+        journal.delete();
+        assertFalse(Files.exists(file));
+        assertThrows(IllegalStateException.class, () -> journal.append("SRC-2", SyncJournal.Outcome.CREATED, "DST-2"));
+    }
+
+    @Test
+    void rejectsSecondRunOfTheSameJob() {
+        Path file = folder.resolve("job.journal");
+        try (SyncJournal journal = SyncJournal.open(file, 4, 1)) {
+            journal.append("SRC-1", SyncJournal.Outcome.CREATED, "DST-1");
+            assertThrows(SyncJournal.LockedException.class, () -> SyncJournal.open(file, 4, 1));
+            journal.append("SRC-2", SyncJournal.Outcome.CREATED, "DST-2");
+        }
+
+        try (SyncJournal journal = SyncJournal.open(file, 4, 1)) {
+            assertEquals(2, journal.getCompletedEntries().size());
+        }
+    }
+}